@@ -0,0 +1,111 @@
+package com.insightweave.bench;
+
+import com.insightweave.dto.DocumentResponse;
+import com.insightweave.dto.FileAssetDto;
+import com.insightweave.entity.Document;
+import com.insightweave.entity.FileAsset;
+import com.insightweave.entity.Summary;
+import com.insightweave.repository.SummaryRepository;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Deterministic document graphs for the mapping and serialization benchmarks. */
+final class DocumentFixtures {
+
+    private static final String PROSE = "Quarterly revenue grew while operating costs fell across regions. ";
+
+    private DocumentFixtures() {
+    }
+
+    static List<Document> documents(int count, int attachmentsPerDocument) {
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+        List<Document> documents = new ArrayList<>(count);
+        long fileId = 1;
+        for (int d = 1; d <= count; d++) {
+            List<FileAsset> attachments = new ArrayList<>(attachmentsPerDocument);
+            for (int a = 0; a < attachmentsPerDocument; a++, fileId++) {
+                attachments.add(audited(FileAsset.builder()
+                        .id(fileId)
+                        .originalFilename("report-" + fileId + ".pdf")
+                        .contentType("application/pdf")
+                        .sizeBytes(250_000L + fileId)
+                        .storageKey("cas/" + fileId)
+                        .sha256("%064x".formatted(fileId))
+                        .build(), now));
+            }
+            documents.add(audited(Document.builder()
+                    .id((long) d)
+                    .title("Document " + d)
+                    .content(PROSE.repeat(4))
+                    .attachments(attachments)
+                    .build(), now));
+        }
+        return documents;
+    }
+
+    /**
+     * The responses with extracted text on every attachment, as the loader returns them with
+     * fields=extractedText (or the full view).
+     *
+     * @param textChars length of each attachment's extracted text
+     */
+    static List<DocumentResponse> withExtractedText(List<DocumentResponse> responses, int textChars) {
+        String text = text(textChars);
+        return responses.stream()
+                .map(r -> new DocumentResponse(r.id(), r.title(), r.content(), r.createdAt(), r.updatedAt(),
+                        r.attachments().stream()
+                                .map(a -> new FileAssetDto(a.id(), a.originalFilename(), a.contentType(),
+                                        a.sizeBytes(), a.createdAt(), a.updatedAt(), text, a.summaries()))
+                                .toList()))
+                .toList();
+    }
+
+    static String text(int chars) {
+        return PROSE.repeat(chars / PROSE.length() + 1).substring(0, chars);
+    }
+
+    /** Summaries for every attachment of the given documents, as findByFileAssetIdIn would return them. */
+    static List<Summary> summaries(List<Document> documents, int perAttachment) {
+        Instant now = Instant.parse("2025-01-02T00:00:00Z");
+        List<Summary> summaries = new ArrayList<>();
+        long id = 1;
+        for (Document document : documents) {
+            for (FileAsset asset : document.getAttachments()) {
+                for (int s = 0; s < perAttachment; s++, id++) {
+                    summaries.add(audited(Summary.builder()
+                            .id(id)
+                            .fileAssetId(asset.getId())
+                            .summaryText(PROSE.repeat(3))
+                            .modelName("facebook/bart-large-cnn")
+                            .style(s % 2 == 0 ? "concise" : "detailed")
+                            .latencyMs(1200)
+                            .build(), now));
+                }
+            }
+        }
+        return summaries;
+    }
+
+    /** A repository answering findByFileAssetIdIn with fixed rows, so only the mapping is measured. */
+    static SummaryRepository summaryRepository(List<Summary> rows) {
+        return (SummaryRepository) Proxy.newProxyInstance(DocumentFixtures.class.getClassLoader(),
+                new Class<?>[] {SummaryRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findByFileAssetIdIn" -> rows;
+                    case "toString" -> "SummaryRepository(fixture)";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static <T> T audited(T entity, Instant at) {
+        // createdAt/updatedAt are set by JPA auditing and have no setters
+        ReflectionTestUtils.setField(entity, "createdAt", at);
+        ReflectionTestUtils.setField(entity, "updatedAt", at);
+        return entity;
+    }
+}
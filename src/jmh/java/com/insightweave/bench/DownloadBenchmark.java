@@ -0,0 +1,142 @@
+package com.insightweave.bench;
+
+import com.insightweave.controller.FileDownloadHandler;
+import com.insightweave.entity.FileAsset;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Context;
+import org.apache.catalina.startup.Tomcat;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Download throughput through an embedded Tomcat over loopback, old path against new.
+ *
+ * streamCopy is what ResourceHttpMessageConverter did for a FileSystemResource (8 KB heap copy
+ * loop into the servlet output stream); download and rangeDownload go through
+ * FileDownloadHandler, the latter for the 64 KB a PDF viewer typically asks for with Range. With
+ * sendfile=true the connector offers sendfile and the handler hands the file to the kernel; with
+ * sendfile=false it falls back to copying through the servlet output stream, which is a heap copy
+ * too, so only the sendfile rows measure zero-copy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DownloadBenchmark {
+
+    @Param({"65536", "8388608", "67108864"})
+    int size;
+
+    @Param({"true", "false"})
+    boolean sendfile;
+
+    private Path file;
+    private Path baseDir;
+    private Tomcat tomcat;
+    private HttpClient client;
+    private URI downloadUri;
+    private URI streamUri;
+
+    @Setup
+    public void setup() throws Exception {
+        file = Files.createTempFile("download-bench-", ".bin");
+        byte[] chunk = new byte[1 << 20];
+        new Random(42).nextBytes(chunk);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (int written = 0; written < size; written += chunk.length) {
+                out.write(chunk, 0, Math.min(chunk.length, size - written));
+            }
+        }
+        FileAsset asset = FileAsset.builder()
+                .originalFilename("bench.bin")
+                .contentType("application/octet-stream")
+                .sizeBytes((long) size)
+                .storageKey(file.getFileName().toString())
+                .sha256("0".repeat(64))
+                .build();
+        var resource = new FileSystemResource(file);
+        var handler = new FileDownloadHandler();
+
+        baseDir = Files.createTempDirectory("download-bench-tomcat-");
+        tomcat = new Tomcat();
+        tomcat.setBaseDir(baseDir.toString());
+        tomcat.setPort(0);
+        tomcat.getConnector().setProperty("useSendfile", String.valueOf(sendfile));
+        Context context = tomcat.addContext("", null);
+        Tomcat.addServlet(context, "download", new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse res) throws IOException {
+                handler.serve(asset, resource, req, res);
+            }
+        });
+        Tomcat.addServlet(context, "stream", new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse res) throws IOException {
+                res.setContentType(asset.getContentType());
+                res.setContentLengthLong(size);
+                try (InputStream in = resource.getInputStream()) {
+                    StreamUtils.copy(in, res.getOutputStream());
+                }
+            }
+        });
+        context.addServletMappingDecoded("/download", "download");
+        context.addServletMappingDecoded("/stream", "stream");
+        tomcat.start();
+
+        String base = "http://127.0.0.1:" + tomcat.getConnector().getLocalPort();
+        downloadUri = URI.create(base + "/download");
+        streamUri = URI.create(base + "/stream");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        client.close();
+        tomcat.stop();
+        tomcat.destroy();
+        Files.deleteIfExists(file);
+        FileSystemUtils.deleteRecursively(baseDir);
+    }
+
+    @Benchmark
+    public long streamCopy() throws Exception {
+        return get(HttpRequest.newBuilder(streamUri).build());
+    }
+
+    @Benchmark
+    public long download() throws Exception {
+        return get(HttpRequest.newBuilder(downloadUri).build());
+    }
+
+    @Benchmark
+    public long rangeDownload() throws Exception {
+        long count = Math.min(65536, size);
+        return get(HttpRequest.newBuilder(downloadUri)
+                .header("Range", "bytes=" + (size - count) + "-" + (size - 1))
+                .build());
+    }
+
+    private long get(HttpRequest request) throws Exception {
+        try (InputStream body = client.send(request, HttpResponse.BodyHandlers.ofInputStream()).body()) {
+            return body.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+}
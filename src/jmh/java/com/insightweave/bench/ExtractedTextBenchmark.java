@@ -0,0 +1,59 @@
+package com.insightweave.bench;
+
+import com.insightweave.storage.DeflateCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DeflateCodec on extracted text, as ExtractedTextStore writes and reads it: compress at each
+ * level, inflate to a String (list views) and inflate straight to a stream (the text endpoint).
+ * The text is corpus/sample.txt; the compressed size at each level is printed in setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExtractedTextBenchmark {
+
+    @Param({"1", "6", "9"})
+    int level;
+
+    private String text;
+    private byte[] compressed;
+
+    @Setup
+    public void setup() throws IOException {
+        try (InputStream in = ExtractedTextBenchmark.class.getResourceAsStream("/corpus/sample.txt")) {
+            if (in == null) throw new IllegalStateException("Missing corpus file sample.txt");
+            text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        compressed = DeflateCodec.compress(text, level);
+        System.out.printf("%nlevel %d: %d bytes -> %d bytes (%.1fx)%n", level,
+                text.getBytes(StandardCharsets.UTF_8).length, compressed.length,
+                (double) text.getBytes(StandardCharsets.UTF_8).length / compressed.length);
+    }
+
+    @Benchmark
+    public byte[] compress() {
+        return DeflateCodec.compress(text, level);
+    }
+
+    @Benchmark
+    public String decompress() {
+        return DeflateCodec.decompress(compressed);
+    }
+
+    @Benchmark
+    public long stream() throws IOException {
+        try (InputStream in = DeflateCodec.open(compressed)) {
+            return in.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+}
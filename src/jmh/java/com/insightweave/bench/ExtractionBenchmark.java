@@ -0,0 +1,71 @@
+package com.insightweave.bench;
+
+import com.insightweave.service.TextExtractionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TextExtractionService.extractText over the sample corpus in src/jmh/resources/corpus: a
+ * 12-page PDF, a DOCX and a plain text file of similar prose. Each call goes through the parser
+ * pool, so the time includes the hand-off to a parser thread as well as Tika itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExtractionBenchmark {
+
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "sample.pdf", "application/pdf",
+            "sample.docx", "application/vnd.openxmlformats-officedocument.wordprocessingml.document",
+            "sample.txt", "text/plain");
+
+    @Param({"sample.pdf", "sample.docx", "sample.txt"})
+    String file;
+
+    private byte[] content;
+    private String contentType;
+    private TextExtractionService extraction;
+
+    @Setup
+    public void setup() throws IOException {
+        try (InputStream in = ExtractionBenchmark.class.getResourceAsStream("/corpus/" + file)) {
+            if (in == null) throw new IllegalStateException("Missing corpus file " + file);
+            content = StreamUtils.copyToByteArray(in);
+        }
+        contentType = CONTENT_TYPES.get(file);
+
+        extraction = new TextExtractionService(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(extraction, "maxChars", 1_000_000);
+        ReflectionTestUtils.setField(extraction, "queueCapacity", 64);
+        ReflectionTestUtils.setField(extraction, "timeout", Duration.ofSeconds(60));
+        ReflectionTestUtils.setField(extraction, "maxSize", "*:50MB");
+        ReflectionTestUtils.setField(extraction, "mode", "in-process");
+        ReflectionTestUtils.invokeMethod(extraction, "init");
+
+        if (extraction.extractText(new ByteArrayInputStream(content), file, contentType).isEmpty()) {
+            throw new IllegalStateException("No text extracted from " + file);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        ReflectionTestUtils.invokeMethod(extraction, "shutdown");
+    }
+
+    @Benchmark
+    public String extractText() {
+        return extraction.extractText(new ByteArrayInputStream(content), file, contentType);
+    }
+}
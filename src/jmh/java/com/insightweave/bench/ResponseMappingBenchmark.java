@@ -0,0 +1,61 @@
+package com.insightweave.bench;
+
+import com.insightweave.dto.DocumentResponse;
+import com.insightweave.entity.Document;
+import com.insightweave.mapper.DocumentMapper;
+import com.insightweave.mapper.DocumentMapperImpl;
+import com.insightweave.mapper.FileAssetMapper;
+import com.insightweave.mapper.FileAssetMapperImpl;
+import com.insightweave.mapper.SummaryMapperImpl;
+import com.insightweave.service.DocumentResponseEnricher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building a page of DocumentResponses from loaded entities: the MapStruct DocumentMapper alone,
+ * and followed by DocumentResponseEnricher attaching summaries (served from memory, so the
+ * numbers are CPU and allocation only, without the summary query).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    @Param({"20", "200"})
+    int documents;
+
+    @Param({"5", "50"})
+    int attachments;
+
+    private List<Document> page;
+    private DocumentMapper mapper;
+    private DocumentResponseEnricher enricher;
+
+    @Setup
+    public void setup() {
+        page = DocumentFixtures.documents(documents, attachments);
+
+        mapper = new DocumentMapperImpl();
+        ReflectionTestUtils.setField(mapper, null, new FileAssetMapperImpl(), FileAssetMapper.class);
+        enricher = new DocumentResponseEnricher(
+                DocumentFixtures.summaryRepository(DocumentFixtures.summaries(page, 2)),
+                new SummaryMapperImpl(), new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public List<DocumentResponse> toResponse() {
+        return page.stream().map(mapper::toResponse).toList();
+    }
+
+    @Benchmark
+    public List<DocumentResponse> toResponseAndEnrich() {
+        return enricher.enrichAll(page.stream().map(mapper::toResponse).toList());
+    }
+}
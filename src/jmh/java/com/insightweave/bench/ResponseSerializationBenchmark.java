@@ -0,0 +1,75 @@
+package com.insightweave.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insightweave.dto.DocumentResponse;
+import com.insightweave.mapper.DocumentMapper;
+import com.insightweave.mapper.DocumentMapperImpl;
+import com.insightweave.mapper.FileAssetMapper;
+import com.insightweave.mapper.FileAssetMapperImpl;
+import com.insightweave.mapper.SummaryMapperImpl;
+import com.insightweave.service.DocumentResponseEnricher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a Page of enriched DocumentResponses, as GET /api/documents writes it.
+ * extractedTextChars is the length of each attachment's extracted text, which dominates the
+ * payload once documents have real attachments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"20", "100"})
+    int pageSize;
+
+    @Param({"5"})
+    int attachments;
+
+    @Param({"0", "50000"})
+    int extractedTextChars;
+
+    private ObjectMapper json;
+    private Page<DocumentResponse> page;
+
+    @Setup
+    public void setup() {
+        // same defaults as the ObjectMapper Spring Boot configures (java.time as ISO strings)
+        json = Jackson2ObjectMapperBuilder.json().build();
+
+        var documents = DocumentFixtures.documents(pageSize, attachments);
+        DocumentMapper mapper = new DocumentMapperImpl();
+        ReflectionTestUtils.setField(mapper, null, new FileAssetMapperImpl(), FileAssetMapper.class);
+        var enricher = new DocumentResponseEnricher(
+                DocumentFixtures.summaryRepository(DocumentFixtures.summaries(documents, 2)),
+                new SummaryMapperImpl(), new SimpleMeterRegistry());
+        List<DocumentResponse> content = DocumentFixtures.withExtractedText(
+                enricher.enrichAll(documents.stream().map(mapper::toResponse).toList()), extractedTextChars);
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize), 10_000);
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws IOException {
+        return json.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public void writeToStream() throws IOException {
+        // the response path: straight to the servlet stream, no intermediate byte[]
+        json.writeValue(OutputStream.nullOutputStream(), page);
+    }
+}
@@ -0,0 +1,66 @@
+package com.insightweave.bench;
+
+import com.insightweave.storage.LocalStorageService;
+import com.insightweave.storage.StorageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LocalStorageService.save: SHA-256 and copy of one upload into the upload directory, across
+ * copy buffer sizes (insightweave.storage.buffer-size). Each stored file is deleted again inside
+ * the measured call so the disk does not fill up; that costs one unlink per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageBenchmark {
+
+    @Param({"8192", "65536", "262144"})
+    int bufferSize;
+
+    @Param({"65536", "8388608"})
+    int size;
+
+    @Param({"uuid", "content-addressed"})
+    String mode;
+
+    private Path dir;
+    private byte[] upload;
+    private LocalStorageService storage;
+
+    @Setup
+    public void setup() throws Exception {
+        dir = Files.createTempDirectory("storage-bench-");
+        upload = new byte[size];
+        new Random(42).nextBytes(upload);
+
+        storage = new LocalStorageService(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(storage, "uploadDir", dir.toString());
+        ReflectionTestUtils.setField(storage, "mode", mode);
+        ReflectionTestUtils.setField(storage, "bufferSize", bufferSize);
+        ReflectionTestUtils.invokeMethod(storage, "init");
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        FileSystemUtils.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public StorageService.Stored save() throws Exception {
+        StorageService.Stored stored = storage.save(new ByteArrayInputStream(upload), "upload.bin", "application/octet-stream");
+        storage.delete(stored.key());
+        return stored;
+    }
+}
@@ -0,0 +1,88 @@
+package com.insightweave.load;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Latency distribution for the AI stub, parsed from a spec:
+ * <ul>
+ *   <li>{@code fixed:200ms}</li>
+ *   <li>{@code uniform:100ms..400ms}</li>
+ *   <li>{@code lognormal:p50=800ms,p99=4s}, the usual long-tailed shape of model inference</li>
+ * </ul>
+ */
+final class LatencyProfile {
+
+    // z-score of the 99th percentile of a standard normal distribution
+    private static final double Z_99 = 2.326;
+
+    private final String spec;
+    private final Sampler sampler;
+
+    private interface Sampler {
+        double millis(ThreadLocalRandom random);
+    }
+
+    private LatencyProfile(String spec, Sampler sampler) {
+        this.spec = spec;
+        this.sampler = sampler;
+    }
+
+    static LatencyProfile parse(String spec) {
+        int colon = spec.indexOf(':');
+        if (colon < 0) throw new IllegalArgumentException("Invalid latency profile: " + spec);
+        String kind = spec.substring(0, colon).trim();
+        String args = spec.substring(colon + 1).trim();
+        switch (kind) {
+            case "fixed": {
+                double ms = millis(args);
+                return new LatencyProfile(spec, random -> ms);
+            }
+            case "uniform": {
+                String[] range = args.split("\\.\\.");
+                if (range.length != 2) throw new IllegalArgumentException("Invalid uniform range: " + args);
+                double low = millis(range[0]);
+                double high = millis(range[1]);
+                return new LatencyProfile(spec, random -> low + random.nextDouble() * (high - low));
+            }
+            case "lognormal": {
+                double p50 = 0;
+                double p99 = 0;
+                for (String part : args.split(",")) {
+                    String[] kv = part.split("=", 2);
+                    if (kv.length != 2) {
+                        throw new IllegalArgumentException("Invalid lognormal parameter: " + part);
+                    }
+                    switch (kv[0].trim()) {
+                        case "p50" -> p50 = millis(kv[1]);
+                        case "p99" -> p99 = millis(kv[1]);
+                        default -> throw new IllegalArgumentException("Unknown lognormal parameter: " + kv[0]);
+                    }
+                }
+                if (p50 <= 0 || p99 < p50) {
+                    throw new IllegalArgumentException("lognormal needs 0 < p50 <= p99: " + args);
+                }
+                double mu = Math.log(p50);
+                double sigma = (Math.log(p99) - mu) / Z_99;
+                return new LatencyProfile(spec, random -> Math.exp(mu + sigma * random.nextGaussian()));
+            }
+            default:
+                throw new IllegalArgumentException("Unknown latency profile " + kind + " (fixed, uniform or lognormal)");
+        }
+    }
+
+    Duration sample() {
+        return Duration.ofNanos((long) (sampler.millis(ThreadLocalRandom.current()) * 1_000_000));
+    }
+
+    private static double millis(String value) {
+        return DurationStyle.detectAndParse(value.trim()).toNanos() / 1e6;
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+}
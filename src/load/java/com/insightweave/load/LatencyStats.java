@@ -0,0 +1,52 @@
+package com.insightweave.load;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Every latency of one endpoint, kept exactly (a load run is at most a few million calls) so the
+ * tail percentiles are not approximated.
+ */
+final class LatencyStats {
+
+    private long[] nanos = new long[1024];
+    private int count;
+    private long errors;
+
+    synchronized void record(long latencyNanos, boolean error) {
+        if (count == nanos.length) {
+            nanos = Arrays.copyOf(nanos, count * 2);
+        }
+        nanos[count++] = latencyNanos;
+        if (error) errors++;
+    }
+
+    /**
+     * @param seconds length of the measured phase, for the throughput figure
+     */
+    synchronized Map<String, Object> summary(double seconds) {
+        long[] sorted = Arrays.copyOf(nanos, count);
+        Arrays.sort(sorted);
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("count", count);
+        out.put("errors", errors);
+        out.put("throughput", round(count / seconds));
+        out.put("p50_ms", millis(sorted, 0.50));
+        out.put("p90_ms", millis(sorted, 0.90));
+        out.put("p99_ms", millis(sorted, 0.99));
+        out.put("p999_ms", millis(sorted, 0.999));
+        out.put("max_ms", count == 0 ? 0 : round(sorted[count - 1] / 1e6));
+        return out;
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return round(sorted[Math.max(0, index)] / 1e6);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
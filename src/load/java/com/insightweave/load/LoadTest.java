@@ -0,0 +1,220 @@
+package com.insightweave.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.insightweave.InsightWeaveBackendApplication;
+import com.insightweave.client.StubAiServer;
+import com.insightweave.load.Workload.Operation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Offline load test: starts the application on an in-memory H2 database (PostgreSQL mode) with an
+ * embedded AI stub, seeds documents, drives a mix of uploads, lists, searches and downloads, and
+ * reports throughput and p50/p90/p99/p99.9 latency per endpoint. Needs no network or database.
+ *
+ * Options (--name=value):
+ * <pre>
+ *   --users=32                 concurrent users, each sending its next call as soon as the last returns
+ *   --rate=0                   if set, calls per second on a fixed schedule instead (open loop); latency
+ *                              then counts from the scheduled start, so queueing in the client shows up
+ *   --duration=60s --warmup=10s
+ *   --documents=200            documents seeded before the run, one attachment each
+ *   --upload-size=64KB
+ *   --mix=upload:10,list:50,search:25,download:15
+ *   --ai-latency=lognormal:p50=800ms,p99=4s   or fixed:200ms, uniform:100ms..400ms
+ *   --ai-failure-rate=0.01
+ *   --out=target/load-result.json
+ *   --app.NAME=VALUE           any application property, e.g. --app.insightweave.async.max-pool-size=16
+ *                              or --app.spring.threads.virtual.enabled=true
+ * </pre>
+ * From Maven: {@code ./mvnw -Pload test-compile exec:exec -Dload.args="--users=64 --duration=60s"}
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        Map<String, Object> appProperties = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (name.startsWith("app.")) {
+                appProperties.put(name.substring(4), value);
+            } else {
+                options.put(name, value);
+            }
+        }
+
+        int users = Integer.parseInt(options.getOrDefault("users", "32"));
+        double rate = Double.parseDouble(options.getOrDefault("rate", "0"));
+        Duration duration = DurationStyle.detectAndParse(options.getOrDefault("duration", "60s"));
+        Duration warmup = DurationStyle.detectAndParse(options.getOrDefault("warmup", "10s"));
+        int documents = Integer.parseInt(options.getOrDefault("documents", "200"));
+        int uploadBytes = (int) DataSize.parse(options.getOrDefault("upload-size", "64KB")).toBytes();
+        var mix = Workload.parseMix(options.getOrDefault("mix", "upload:10,list:50,search:25,download:15"));
+        var aiLatency = LatencyProfile.parse(options.getOrDefault("ai-latency", "lognormal:p50=800ms,p99=4s"));
+        double aiFailureRate = Double.parseDouble(options.getOrDefault("ai-failure-rate", "0.01"));
+        Path out = Path.of(options.getOrDefault("out", "target/load-result.json"));
+
+        Path uploads = Files.createTempDirectory("insightweave-load-");
+        try (var stub = new StubAiServer().latency(aiLatency::sample).failureRate(aiFailureRate)) {
+            Map<String, Object> properties = new LinkedHashMap<>();
+            properties.put("server.port", 0);
+            properties.put("spring.datasource.url", "jdbc:h2:mem:load;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+            properties.put("spring.datasource.username", "sa");
+            properties.put("spring.datasource.password", "");
+            properties.put("spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect");
+            properties.put("spring.jpa.hibernate.ddl-auto", "create");
+            properties.put("spring.jpa.show-sql", false);
+            properties.put("insightweave.upload-dir", uploads.toString());
+            properties.put("ai.service.url", stub.url());
+            properties.put("logging.level.root", "WARN");
+            properties.putAll(appProperties);
+
+            System.out.printf("Starting application (AI stub at %s, latency %s, failure rate %.3f)%n",
+                    stub.url(), aiLatency, aiFailureRate);
+            try (ConfigurableApplicationContext app = new SpringApplicationBuilder(InsightWeaveBackendApplication.class)
+                    .properties(properties)
+                    .run()) {
+                int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+                var workload = new Workload("http://127.0.0.1:" + port, uploadBytes, mix);
+                System.out.printf("Seeding %d documents%n", documents);
+                workload.seed(documents);
+
+                Map<Operation, LatencyStats> stats = new EnumMap<>(Operation.class);
+                mix.keySet().forEach(op -> stats.put(op, new LatencyStats()));
+                long aiRequestsBefore = stub.requests();
+                long aiFailuresBefore = stub.failures();
+
+                System.out.printf("Running %s after %s warm-up, %s%n", duration, warmup,
+                        rate > 0 ? rate + " calls/s" : users + " users");
+                long measureFrom = System.nanoTime() + warmup.toNanos();
+                long end = measureFrom + duration.toNanos();
+                if (rate > 0) {
+                    openLoop(workload, stats, rate, measureFrom, end);
+                } else {
+                    closedLoop(workload, stats, users, measureFrom, end);
+                }
+
+                Map<String, Object> report = new LinkedHashMap<>();
+                Map<String, Object> config = new LinkedHashMap<>();
+                config.put("users", rate > 0 ? null : users);
+                config.put("rate", rate > 0 ? rate : null);
+                config.put("duration", duration.toString());
+                config.put("warmup", warmup.toString());
+                config.put("documents", documents);
+                config.put("upload_bytes", uploadBytes);
+                config.put("mix", mix.toString());
+                config.put("ai_latency", aiLatency.toString());
+                config.put("ai_failure_rate", aiFailureRate);
+                config.put("app", appProperties);
+                report.put("config", config);
+                Map<String, Object> endpoints = new LinkedHashMap<>();
+                double seconds = duration.toNanos() / 1e9;
+                stats.forEach((op, s) -> endpoints.put(op.name().toLowerCase(Locale.ROOT), s.summary(seconds)));
+                report.put("endpoints", endpoints);
+                report.put("ai_stub", Map.of(
+                        "requests", stub.requests() - aiRequestsBefore,
+                        "failures", stub.failures() - aiFailuresBefore,
+                        "max_in_flight", stub.maxInFlight()));
+                Counter rejected = app.getBean(MeterRegistry.class).find("insightweave.async.rejected").counter();
+                report.put("async_rejected", rejected != null ? (long) rejected.count() : 0);
+
+                print(endpoints);
+                Files.createDirectories(out.toAbsolutePath().getParent());
+                new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(out.toFile(), report);
+                System.out.println("Report written to " + out.toAbsolutePath());
+            }
+        } finally {
+            FileSystemUtils.deleteRecursively(uploads);
+        }
+    }
+
+    private static void closedLoop(Workload workload, Map<Operation, LatencyStats> stats, int users,
+                                   long measureFrom, long end) {
+        // close() waits for every user to finish its last call
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                executor.execute(() -> {
+                    while (System.nanoTime() < end) {
+                        Operation op = workload.next();
+                        long start = System.nanoTime();
+                        boolean error = call(workload, op);
+                        if (start >= measureFrom) {
+                            stats.get(op).record(System.nanoTime() - start, error);
+                        }
+                    }
+                });
+            }
+        }
+    }
+
+    private static void openLoop(Workload workload, Map<Operation, LatencyStats> stats, double rate,
+                                 long measureFrom, long end) {
+        long interval = (long) (1e9 / rate);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long first = System.nanoTime();
+            for (long n = 0; ; n++) {
+                long scheduled = first + n * interval;
+                if (scheduled >= end) break;
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) LockSupport.parkNanos(wait);
+                executor.execute(() -> {
+                    Operation op = workload.next();
+                    boolean error = call(workload, op);
+                    if (scheduled >= measureFrom) {
+                        stats.get(op).record(System.nanoTime() - scheduled, error);
+                    }
+                });
+            }
+        }
+    }
+
+    /** @return true if the call failed */
+    private static boolean call(Workload workload, Operation op) {
+        try {
+            return workload.run(op) >= 400;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return true;
+        } catch (Exception e) {
+            return true;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void print(Map<String, Object> endpoints) {
+        System.out.printf("%n%-10s %9s %8s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        endpoints.forEach((name, value) -> {
+            var s = (Map<String, Object>) value;
+            System.out.printf("%-10s %9s %8s %9s %9s %9s %9s %9s %9s%n", name, s.get("count"), s.get("errors"),
+                    s.get("throughput"), s.get("p50_ms"), s.get("p90_ms"), s.get("p99_ms"), s.get("p999_ms"),
+                    s.get("max_ms"));
+        });
+        System.out.println();
+    }
+}
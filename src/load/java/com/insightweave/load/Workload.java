@@ -0,0 +1,171 @@
+package com.insightweave.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The API calls a load run is made of, and the weighted mix they are drawn from.
+ *
+ * Uploads add plain-text attachments to random documents, which runs storage, Tika and (through
+ * the @Async executor) a summary call to the AI stub. Lists and searches page through documents
+ * with their attachments and summaries; downloads fetch attachments uploaded so far.
+ */
+final class Workload {
+
+    enum Operation { UPLOAD, LIST, SEARCH, DOWNLOAD }
+
+    private static final String[] WORDS = (
+            "revenue contract invoice audit quarterly report meeting notes customer delivery region "
+            + "budget forecast policy renewal incident review summary pipeline deadline supplier").split(" ");
+    private static final int PAGE_SIZE = 20;
+
+    record Attachment(long documentId, long fileId) {}
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final int uploadBytes;
+    private final Map<Operation, Integer> mix;
+    private final int totalWeight;
+    private final ObjectMapper json = new ObjectMapper();
+    private final List<Long> documents = new CopyOnWriteArrayList<>();
+    private final List<Attachment> attachments = new CopyOnWriteArrayList<>();
+    private final AtomicLong uploads = new AtomicLong();
+
+    Workload(String baseUrl, int uploadBytes, Map<Operation, Integer> mix) {
+        this.baseUrl = baseUrl;
+        this.uploadBytes = uploadBytes;
+        this.mix = mix;
+        this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        if (totalWeight <= 0) throw new IllegalArgumentException("The operation mix has no weight");
+        this.http = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    /** Parse a mix such as {@code upload:10,list:50,search:25,download:15}. */
+    static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] kv = part.split(":", 2);
+            if (kv.length != 2) throw new IllegalArgumentException("Invalid mix entry: " + part);
+            mix.put(Operation.valueOf(kv[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(kv[1].trim()));
+        }
+        return mix;
+    }
+
+    /** Create documents with one attachment each, so lists, searches and downloads have data. */
+    void seed(int count) throws Exception {
+        for (int i = 0; i < count; i++) {
+            String body = json.writeValueAsString(Map.of(
+                    "title", sentence(4) + " " + i,
+                    "content", sentence(40)));
+            HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/documents"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() >= 300) {
+                throw new IllegalStateException(
+                        "Seeding failed with " + response.statusCode() + ": " + response.body());
+            }
+            documents.add(json.readTree(response.body()).path("id").asLong());
+        }
+        for (Long documentId : List.copyOf(documents)) {
+            if (upload(documentId) >= 300) {
+                throw new IllegalStateException("Seeding attachment for document " + documentId + " failed");
+            }
+        }
+    }
+
+    Operation next() {
+        int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (var entry : mix.entrySet()) {
+            pick -= entry.getValue();
+            if (pick < 0) return entry.getKey();
+        }
+        throw new IllegalStateException("unreachable");
+    }
+
+    /**
+     * @return the HTTP status
+     */
+    int run(Operation operation) throws IOException, InterruptedException {
+        var random = ThreadLocalRandom.current();
+        return switch (operation) {
+            case UPLOAD -> upload(documents.get(random.nextInt(documents.size())));
+            case LIST -> get("/api/documents?size=" + PAGE_SIZE + "&page=" + random.nextInt(5));
+            case SEARCH -> get("/api/documents/search?size=" + PAGE_SIZE + "&q=" + WORDS[random.nextInt(WORDS.length)]);
+            case DOWNLOAD -> {
+                Attachment a = attachments.get(random.nextInt(attachments.size()));
+                yield get("/api/documents/" + a.documentId() + "/attachments/" + a.fileId() + "/download");
+            }
+        };
+    }
+
+    private int get(String path) throws IOException, InterruptedException {
+        return http.send(HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build(),
+                HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private int upload(long documentId) throws IOException, InterruptedException {
+        String boundary = "load-" + UUID.randomUUID();
+        String filename = "upload-" + uploads.incrementAndGet() + ".txt";
+        var body = new ByteArrayOutputStream(uploadBytes + 512);
+        body.writeBytes(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + filename + "\"\r\n"
+                + "Content-Type: text/plain\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(text(filename).getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        HttpResponse<String> response = http.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/api/documents/" + documentId + "/attachments"))
+                        .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 201) {
+            JsonNode file = json.readTree(response.body());
+            attachments.add(new Attachment(documentId, file.path("id").asLong()));
+        }
+        return response.statusCode();
+    }
+
+    // Unique per upload (the first line names the file) so content-addressed storage cannot dedupe it
+    private String text(String filename) {
+        var out = new StringBuilder(uploadBytes + 100).append(filename).append('\n');
+        while (out.length() < uploadBytes) {
+            out.append(sentence(12)).append(' ');
+            if (ThreadLocalRandom.current().nextInt(6) == 0) out.append("\n\n");
+        }
+        out.setLength(uploadBytes);
+        return out.toString();
+    }
+
+    private static String sentence(int words) {
+        var random = ThreadLocalRandom.current();
+        List<String> picked = new ArrayList<>(words);
+        for (int i = 0; i < words; i++) picked.add(WORDS[random.nextInt(WORDS.length)]);
+        String s = String.join(" ", picked);
+        return Character.toUpperCase(s.charAt(0)) + s.substring(1) + ".";
+    }
+}
@@ -0,0 +1,164 @@
+package com.insightweave.client;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AIMD concurrency limit driven by observed call latency.
+ *
+ * Latency is compared per {@value #SIZE_UNIT} characters of input, since the model's time grows
+ * with the text; inputs shorter than that count as one unit, which absorbs the fixed cost of a
+ * call. The lowest normalized latency seen recently is the baseline. A call that succeeds within
+ * {@code tolerance} times the baseline while the limit is at least half used raises the limit by
+ * one; a slower call, a failure or a timeout multiplies it by {@code backoffRatio}. Callers beyond
+ * the limit wait at most {@code maxWait} (or what they ask for) for a slot and are then shed, so a
+ * slow AI service makes callers fail fast instead of piling up behind it.
+ */
+public final class AdaptiveLimit {
+
+    public enum Outcome { SUCCESS, DROPPED, IGNORED }
+
+    /** Characters of input one latency sample is normalized to. */
+    public static final long SIZE_UNIT = 1000;
+
+    // re-learn the baseline now and then so a permanent latency shift is not read as overload forever
+    private static final int BASELINE_RESET_SAMPLES = 1000;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoffRatio;
+    private final long maxWaitNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFreed = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private long baselineNanos = Long.MAX_VALUE;
+    private int samplesSinceReset;
+    private long lastRttNanos;
+    private long shed;
+
+    public AdaptiveLimit(int initialLimit, int minLimit, int maxLimit, double tolerance,
+                         double backoffRatio, Duration maxWait) {
+        if (minLimit < 1 || maxLimit < minLimit) throw new IllegalArgumentException("Invalid limit bounds");
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.backoffRatio = backoffRatio;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Take a slot, waiting up to the maximum wait.
+     *
+     * @return false if the caller should be shed
+     */
+    public boolean acquire() throws InterruptedException {
+        return acquire(null);
+    }
+
+    /**
+     * Take a slot, waiting up to {@code maxWait}, or the configured maximum if null.
+     *
+     * @return false if the caller should be shed
+     */
+    public boolean acquire(Duration maxWait) throws InterruptedException {
+        lock.lock();
+        try {
+            long remaining = maxWait != null ? maxWait.toNanos() : maxWaitNanos;
+            while (inFlight >= (int) limit) {
+                if (remaining <= 0) {
+                    shed++;
+                    return false;
+                }
+                remaining = slotFreed.awaitNanos(remaining);
+            }
+            inFlight++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Take a slot only if one is free now; for callers that must not block.
+     *
+     * @return false if the caller should be shed
+     */
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            if (inFlight >= (int) limit) {
+                shed++;
+                return false;
+            }
+            inFlight++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Give a slot back and adjust the limit from how a call of unknown input size went. */
+    public void release(long rttNanos, Outcome outcome) {
+        release(rttNanos, 0, outcome);
+    }
+
+    /**
+     * Give a slot back and adjust the limit from how the call went.
+     *
+     * @param inputChars characters of input the call carried, to normalize its latency by
+     */
+    public void release(long rttNanos, long inputChars, Outcome outcome) {
+        lock.lock();
+        try {
+            int before = (int) limit;
+            if (outcome == Outcome.DROPPED) {
+                decrease();
+            } else if (outcome == Outcome.SUCCESS) {
+                rttNanos = rttNanos * SIZE_UNIT / Math.max(inputChars, SIZE_UNIT);
+                lastRttNanos = rttNanos;
+                if (++samplesSinceReset >= BASELINE_RESET_SAMPLES) {
+                    baselineNanos = rttNanos;
+                    samplesSinceReset = 0;
+                }
+                baselineNanos = Math.min(baselineNanos, rttNanos);
+                if (rttNanos > baselineNanos * tolerance) {
+                    decrease();
+                } else if (inFlight * 2 >= limit) {
+                    limit = Math.min(maxLimit, limit + 1);
+                }
+            }
+            inFlight--;
+            if ((int) limit > before) {
+                slotFreed.signalAll();
+            } else {
+                slotFreed.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void decrease() {
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+
+    /** Limiter state; baseline and last latency are per {@value #SIZE_UNIT} characters of input. */
+    public record Snapshot(int limit, int inFlight, int waiting, long baselineMs, long lastRttMs, long shed) {}
+
+    public Snapshot snapshot() {
+        lock.lock();
+        try {
+            return new Snapshot((int) limit, inFlight, lock.getWaitQueueLength(slotFreed),
+                    baselineNanos == Long.MAX_VALUE ? 0 : TimeUnit.NANOSECONDS.toMillis(baselineNanos),
+                    TimeUnit.NANOSECONDS.toMillis(lastRttNanos), shed);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.insightweave.client;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Runs AI service calls through the circuit breaker and the adaptive concurrency limit. Calls
+ * rejected by either are never sent; 4xx responses count as neither success nor overload since
+ * they say nothing about the service's health, except 429, which is the service saying it is
+ * overloaded and counts as a failure like any 5xx (503 included).
+ */
+public final class AiCallGuard {
+
+    private final AdaptiveLimit limit;
+    private final CircuitBreaker breaker;
+
+    public AiCallGuard(AdaptiveLimit limit, CircuitBreaker breaker) {
+        this.limit = limit;
+        this.breaker = breaker;
+    }
+
+    public <T> T call(Supplier<T> work) {
+        return call(work, 0, null);
+    }
+
+    /**
+     * Run a blocking call, waiting for a limiter slot up to {@code maxWait} (the limiter's own
+     * maximum if null).
+     *
+     * @param inputChars characters of input the call carries; the limiter normalizes latency by it
+     */
+    public <T> T call(Supplier<T> work, long inputChars, Duration maxWait) {
+        try {
+            if (!limit.acquire(maxWait)) {
+                throw new AiServiceRejectedException("AI service concurrency limit reached, request shed");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AiServiceRejectedException("Interrupted waiting for an AI service slot");
+        }
+        checkCircuit();
+
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            return work.get();
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            finish(start, inputChars, failure);
+        }
+    }
+
+    /**
+     * Like {@link #call} for non-blocking work: a caller finding the limit full is shed at once
+     * instead of waiting, and the slot is released when the returned future completes.
+     */
+    public <T> CompletableFuture<T> callAsync(Supplier<CompletableFuture<T>> work, long inputChars) {
+        if (!limit.tryAcquire()) {
+            return CompletableFuture.failedFuture(
+                    new AiServiceRejectedException("AI service concurrency limit reached, request shed"));
+        }
+        try {
+            checkCircuit();
+        } catch (AiServiceRejectedException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = work.get();
+        } catch (RuntimeException e) {
+            finish(start, inputChars, e);
+            return CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((result, e) ->
+                finish(start, inputChars, e instanceof CompletionException && e.getCause() != null ? e.getCause() : e));
+    }
+
+    /**
+     * Take a limiter slot, without waiting, for extra work done on behalf of a call that already
+     * holds one, such as a hedged attempt.
+     *
+     * @return false if the limit is full and the extra work should not be done
+     */
+    public boolean tryAcquireExtra() {
+        return limit.tryAcquire();
+    }
+
+    /** Give back a slot taken with {@link #tryAcquireExtra()}; its latency is not sampled. */
+    public void releaseExtra() {
+        limit.release(0, AdaptiveLimit.Outcome.IGNORED);
+    }
+
+    // called with a slot held; gives it back if the circuit rejects the call
+    private void checkCircuit() {
+        if (!breaker.tryAcquire()) {
+            limit.release(0, AdaptiveLimit.Outcome.IGNORED);
+            throw new AiServiceRejectedException("AI service circuit is open");
+        }
+    }
+
+    private void finish(long start, long inputChars, Throwable failure) {
+        AdaptiveLimit.Outcome outcome;
+        if (failure == null) {
+            breaker.onSuccess();
+            outcome = AdaptiveLimit.Outcome.SUCCESS;
+        } else if (isClientError(failure)) {
+            breaker.onSuccess();
+            outcome = AdaptiveLimit.Outcome.IGNORED;
+        } else {
+            breaker.onFailure();
+            outcome = AdaptiveLimit.Outcome.DROPPED;
+        }
+        limit.release(System.nanoTime() - start, inputChars, outcome);
+    }
+
+    /** A 4xx other than 429: the call was wrong, not the service. */
+    static boolean isClientError(Throwable failure) {
+        return failure instanceof HttpClientErrorException e
+                && e.getStatusCode().value() != HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    public record Snapshot(AdaptiveLimit.Snapshot limiter, CircuitBreaker.Snapshot circuit) {}
+
+    public Snapshot snapshot() {
+        return new Snapshot(limit.snapshot(), breaker.snapshot());
+    }
+}
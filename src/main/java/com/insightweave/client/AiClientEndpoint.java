@@ -0,0 +1,26 @@
+package com.insightweave.client;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/** Actuator view of the AI client's adaptive limit, circuit breaker and replicas: /actuator/aiclient */
+@Component
+@Endpoint(id = "aiclient")
+@RequiredArgsConstructor
+public class AiClientEndpoint {
+
+    private final PythonAiClient client;
+
+    public record State(AdaptiveLimit.Snapshot limiter, CircuitBreaker.Snapshot circuit,
+                        List<AiEndpointPool.EndpointSnapshot> endpoints) {}
+
+    @ReadOperation
+    public State state() {
+        AiCallGuard.Snapshot guard = client.guardState();
+        return new State(guard.limiter(), guard.circuit(), client.endpointState());
+    }
+}
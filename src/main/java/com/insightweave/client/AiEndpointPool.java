@@ -0,0 +1,359 @@
+package com.insightweave.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Spreads AI calls over several replicas of the AI service.
+ *
+ * LEAST_OUTSTANDING sends each call to the replica with the fewest calls in flight. P2C picks two
+ * replicas at random, which avoids every client piling onto the same momentarily idle replica, and
+ * takes the one with the lower moving average of response time × (calls in flight + 1): with only
+ * in-flight counts a replica that is slow but not yet backed up looks as good as a fast one. The
+ * average fades while a replica gets no calls, so one that was slow is tried again now and then.
+ *
+ * A replica is ejected for ejectionTime after ejectAfterFailures consecutive failed calls (5xx,
+ * 429, I/O errors), and while its last unhealthyAfterChecks /health checks have failed. The checks run
+ * every healthInterval on a background thread, and {@link #anyHealthy()} answers from their last
+ * results, so no caller ever waits on /health. If every replica is ejected, calls go to those
+ * still passing their health checks, and failing that to all of them rather than none.
+ *
+ * With hedging on, a call still unanswered after the recent p-th percentile latency is sent again
+ * to a second replica; the first response wins and the other attempt is cancelled. An attempt may
+ * fail with AiServiceRejectedException to decline being sent (no slot for a hedge); that does not
+ * count against the replica.
+ */
+@Slf4j
+public final class AiEndpointPool implements AutoCloseable {
+
+    enum Strategy { P2C, LEAST_OUTSTANDING }
+
+    private static final int LATENCY_SAMPLES = 512;
+    private static final int PERCENTILE_EVERY = 32;
+    // weight of the newest response time in a replica's moving average
+    private static final double LATENCY_ALPHA = 0.2;
+    // a replica's average shrinks by a factor e for every this long it goes without a response
+    private static final long LATENCY_DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    static final class Endpoint {
+        final String url;
+        final AtomicInteger outstanding = new AtomicInteger();
+        final AtomicInteger consecutiveFailures = new AtomicInteger();
+        volatile long ejectedUntil;
+        volatile boolean healthy = true;
+        // result of the latest health check alone, before unhealthyAfterChecks is applied
+        volatile boolean lastCheckPassed = true;
+        // only touched by the health check thread
+        int failedChecks;
+        // moving average of response times; racing updates may drop a sample, which only blurs it
+        volatile double latencyNanos;
+        volatile long latencyAt;
+
+        Endpoint(String url) {
+            this.url = url;
+        }
+
+        boolean available(long now) {
+            return healthy && now - ejectedUntil >= 0;
+        }
+
+        void recordLatency(long nanos) {
+            double average = latencyNanos;
+            latencyNanos = average == 0 ? nanos : average + LATENCY_ALPHA * (nanos - average);
+            latencyAt = System.nanoTime();
+        }
+
+        /** Expected wait for one more call; 0 until the replica has answered once. */
+        double cost(long now) {
+            double average = latencyNanos;
+            if (average == 0) {
+                return 0;
+            }
+            return average * Math.exp(-(double) (now - latencyAt) / LATENCY_DECAY_NANOS) * (outstanding.get() + 1);
+        }
+    }
+
+    public record EndpointSnapshot(String url, int outstanding, boolean healthy, boolean ejected) {}
+
+    private final List<Endpoint> endpoints;
+    private final Strategy strategy;
+    private final int ejectAfterFailures;
+    private final long ejectionNanos;
+    private final Predicate<String> healthCheck;
+    private final Counter hedges;
+    private final Counter ejections;
+
+    private boolean hedging;
+    private double hedgePercentile;
+    private long hedgeMinDelayNanos;
+    private int hedgeMinSamples;
+
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private int latencyCount;
+    private int latencyNext;
+    private volatile long percentileNanos;
+
+    private int unhealthyAfterChecks = 1;
+    private ScheduledExecutorService healthChecks;
+
+    AiEndpointPool(List<String> urls, Strategy strategy, int ejectAfterFailures, Duration ejectionTime,
+                   Predicate<String> healthCheck, MeterRegistry meters) {
+        if (urls.isEmpty()) throw new IllegalArgumentException("No AI service URL configured");
+        this.endpoints = urls.stream().map(Endpoint::new).toList();
+        this.strategy = strategy;
+        this.ejectAfterFailures = ejectAfterFailures;
+        this.ejectionNanos = ejectionTime.toNanos();
+        this.healthCheck = healthCheck;
+        this.hedges = meters.counter("ai.service.hedges");
+        this.ejections = meters.counter("ai.service.ejections");
+        for (Endpoint endpoint : endpoints) {
+            Gauge.builder("ai.service.outstanding", endpoint.outstanding, AtomicInteger::get)
+                    .tag("endpoint", endpoint.url)
+                    .register(meters);
+        }
+    }
+
+    /** Hedge calls slower than the given latency percentile, but never sooner than minDelay. */
+    AiEndpointPool hedging(double percentile, Duration minDelay, int minSamples) {
+        this.hedging = endpoints.size() > 1;
+        this.hedgePercentile = percentile;
+        this.hedgeMinDelayNanos = minDelay.toNanos();
+        this.hedgeMinSamples = minSamples;
+        return this;
+    }
+
+    /**
+     * Run active health checks in the background. They run with a single replica too: ejection
+     * then has no effect, but {@link #anyHealthy()} still needs their results.
+     *
+     * @param unhealthyAfter consecutive failed checks before a replica counts as unhealthy
+     */
+    AiEndpointPool checkHealthEvery(Duration interval, int unhealthyAfter) {
+        this.unhealthyAfterChecks = Math.max(1, unhealthyAfter);
+        healthChecks = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("ai-health").daemon().factory());
+        healthChecks.scheduleWithFixedDelay(this::checkHealth, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    @Override
+    public void close() {
+        if (healthChecks != null) {
+            healthChecks.shutdownNow();
+        }
+    }
+
+    /**
+     * True if any replica passed its latest background health check; true until the first
+     * check has run. Never calls /health itself.
+     */
+    boolean anyHealthy() {
+        return endpoints.stream().anyMatch(e -> e.lastCheckPassed);
+    }
+
+    List<EndpointSnapshot> snapshot() {
+        long now = System.nanoTime();
+        return endpoints.stream()
+                .map(e -> new EndpointSnapshot(e.url, e.outstanding.get(), e.healthy, now - e.ejectedUntil < 0))
+                .toList();
+    }
+
+    /**
+     * Send a call to a replica, hedged if enabled.
+     *
+     * @param attempt sends the call to the given base URL; cancelling its future should abort it
+     */
+    <T> CompletableFuture<T> call(Function<String, CompletableFuture<T>> attempt) {
+        return call(attempt, true);
+    }
+
+    /**
+     * @param hedge false for calls that must not run twice, e.g. streams already relayed to a client
+     */
+    <T> CompletableFuture<T> call(Function<String, CompletableFuture<T>> attempt, boolean hedge) {
+        var result = new CompletableFuture<T>();
+        var attempts = new CopyOnWriteArrayList<CompletableFuture<T>>();
+        var pending = new AtomicInteger(1);
+        Endpoint first = choose(null);
+        launch(first, attempt, result, attempts, pending);
+
+        long delay = hedge ? hedgeDelayNanos() : 0;
+        if (delay > 0 && !result.isDone()) {
+            CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS).execute(() -> {
+                if (result.isDone()) return;
+                Endpoint second = choose(first);
+                if (second == null) return;
+                pending.incrementAndGet();
+                hedges.increment();
+                log.debug("Hedging call to {} after {}ms", second.url, TimeUnit.NANOSECONDS.toMillis(delay));
+                launch(second, attempt, result, attempts, pending);
+            });
+        }
+        // the loser is cancelled once either attempt wins (or the caller gives up)
+        result.whenComplete((value, e) -> attempts.forEach(a -> a.cancel(true)));
+        return result;
+    }
+
+    private <T> void launch(Endpoint endpoint, Function<String, CompletableFuture<T>> attempt,
+                            CompletableFuture<T> result, List<CompletableFuture<T>> attempts, AtomicInteger pending) {
+        endpoint.outstanding.incrementAndGet();
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = attempt.apply(endpoint.url);
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        attempts.add(future);
+        if (result.isDone()) {
+            future.cancel(true);
+        }
+        future.whenComplete((value, e) -> {
+            endpoint.outstanding.decrementAndGet();
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (cause == null) {
+                endpoint.consecutiveFailures.set(0);
+                long elapsed = System.nanoTime() - start;
+                endpoint.recordLatency(elapsed);
+                recordLatency(elapsed);
+                result.complete(value);
+                return;
+            }
+            if (cause instanceof CancellationException) {
+                return;
+            }
+            // a hedge shed by the concurrency limit was never sent
+            if (!AiCallGuard.isClientError(cause) && !(cause instanceof AiServiceRejectedException)) {
+                failed(endpoint);
+            }
+            if (pending.decrementAndGet() == 0) {
+                result.completeExceptionally(cause);
+            }
+        });
+    }
+
+    /**
+     * Pick a replica, never {@code exclude}.
+     *
+     * @return the replica, or null if exclude is the only one
+     */
+    Endpoint choose(Endpoint exclude) {
+        long now = System.nanoTime();
+        List<Endpoint> candidates = new ArrayList<>(endpoints.size());
+        for (Endpoint e : endpoints) {
+            if (e != exclude && e.available(now)) candidates.add(e);
+        }
+        if (candidates.isEmpty()) {
+            // everything is ejected: a replica ejected for failed calls may have recovered since,
+            // one failing its health checks almost certainly has not
+            for (Endpoint e : endpoints) {
+                if (e != exclude && e.healthy) candidates.add(e);
+            }
+        }
+        if (candidates.isEmpty()) {
+            // better to try than to fail outright
+            for (Endpoint e : endpoints) {
+                if (e != exclude) candidates.add(e);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        if (strategy == Strategy.P2C) {
+            var random = ThreadLocalRandom.current();
+            int i = random.nextInt(candidates.size());
+            int j = random.nextInt(candidates.size() - 1);
+            if (j >= i) j++;
+            Endpoint a = candidates.get(i);
+            Endpoint b = candidates.get(j);
+            double costA = a.cost(now);
+            double costB = b.cost(now);
+            if (costA != costB) {
+                return costB < costA ? b : a;
+            }
+            return b.outstanding.get() < a.outstanding.get() ? b : a;
+        }
+        Endpoint best = null;
+        for (Endpoint e : candidates) {
+            if (best == null || e.outstanding.get() < best.outstanding.get()) best = e;
+        }
+        return best;
+    }
+
+    private void failed(Endpoint endpoint) {
+        if (endpoint.consecutiveFailures.incrementAndGet() >= ejectAfterFailures && endpoints.size() > 1) {
+            endpoint.consecutiveFailures.set(0);
+            endpoint.ejectedUntil = System.nanoTime() + ejectionNanos;
+            ejections.increment();
+            log.warn("Ejecting AI endpoint {} for {}s after {} consecutive failures",
+                    endpoint.url, TimeUnit.NANOSECONDS.toSeconds(ejectionNanos), ejectAfterFailures);
+        }
+    }
+
+    void checkHealth() {
+        for (Endpoint endpoint : endpoints) {
+            boolean passed = healthCheck.test(endpoint.url);
+            if (passed) {
+                endpoint.failedChecks = 0;
+            } else {
+                endpoint.failedChecks++;
+            }
+            endpoint.lastCheckPassed = passed;
+            boolean healthy = endpoint.failedChecks < unhealthyAfterChecks;
+            if (healthy != endpoint.healthy) {
+                log.info("AI endpoint {} is {}", endpoint.url, healthy ? "healthy again" : "unhealthy, ejecting");
+                if (!healthy) ejections.increment();
+            }
+            endpoint.healthy = healthy;
+        }
+    }
+
+    private long hedgeDelayNanos() {
+        if (!hedging) {
+            return 0;
+        }
+        synchronized (latencies) {
+            if (latencyCount < hedgeMinSamples) {
+                return 0;
+            }
+        }
+        return Math.max(percentileNanos, hedgeMinDelayNanos);
+    }
+
+    private void recordLatency(long nanos) {
+        if (!hedging) {
+            return;
+        }
+        synchronized (latencies) {
+            latencies[latencyNext] = nanos;
+            latencyNext = (latencyNext + 1) % LATENCY_SAMPLES;
+            if (latencyCount < LATENCY_SAMPLES) latencyCount++;
+            if (latencyNext % PERCENTILE_EVERY == 0 || latencyCount < PERCENTILE_EVERY) {
+                long[] sorted = Arrays.copyOf(latencies, latencyCount);
+                Arrays.sort(sorted);
+                percentileNanos = sorted[Math.min(latencyCount - 1, (int) (hedgePercentile * latencyCount))];
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.insightweave.client;
+
+import org.springframework.web.client.RestClientException;
+
+/**
+ * The call was not sent: the AI service's circuit is open or its concurrency limit is full.
+ * Safe to retry later.
+ */
+public class AiServiceRejectedException extends RestClientException {
+    public AiServiceRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,190 @@
+package com.insightweave.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.Http2AllocationStrategy;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Non-blocking transport for the AI service on Reactor Netty, used by {@link PythonAiClient} when
+ * ai.service.http.client=async. No thread is held while a call is in flight.
+ *
+ * With h2c enabled, calls are multiplexed as streams over a few HTTP/2 connections
+ * (ai.service.http.max-streams per connection); against an HTTP/1.1-only server the client falls
+ * back to a keep-alive pool of ai.service.http.max-connections. Idle connections are closed after
+ * max-idle-time, which should stay below the server's keep-alive timeout so a request is never
+ * written to a connection the server is closing. JSON bodies of at least gzip-min-size bytes are
+ * sent gzip-compressed when gzip-requests is on; the AI service must then decode
+ * Content-Encoding: gzip.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "ai.service.http.client", havingValue = "async")
+public class AsyncAiTransport {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${ai.service.timeout:30000}")
+    private long timeout;
+
+    @Value("${ai.service.http.protocols:h2c,http11}")
+    private String[] protocols;
+
+    @Value("${ai.service.http.max-connections:${ai.service.max-concurrency:64}}")
+    private int maxConnections;
+
+    @Value("${ai.service.http.max-streams:100}")
+    private int maxStreams;
+
+    @Value("${ai.service.http.pending-acquire-max:1000}")
+    private int pendingAcquireMax;
+
+    @Value("${ai.service.http.max-idle-time:4s}")
+    private Duration maxIdleTime;
+
+    @Value("${ai.service.http.max-life-time:5m}")
+    private Duration maxLifeTime;
+
+    @Value("${ai.service.http.gzip-requests:false}")
+    private boolean gzipRequests;
+
+    @Value("${ai.service.http.gzip-min-size:16384}")
+    private int gzipMinSize;
+
+    private ConnectionProvider connections;
+    private HttpClient http;
+
+    @PostConstruct
+    void init() {
+        HttpProtocol[] httpProtocols = Arrays.stream(protocols)
+                .map(p -> HttpProtocol.valueOf(p.trim().toUpperCase(Locale.ROOT)))
+                .toArray(HttpProtocol[]::new);
+        boolean h2 = Arrays.asList(httpProtocols).contains(HttpProtocol.H2C);
+
+        var pool = ConnectionProvider.builder("ai-service")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMax)
+                .pendingAcquireTimeout(Duration.ofMillis(timeout))
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(maxIdleTime)
+                .metrics(true);
+        if (h2) {
+            pool.allocationStrategy(Http2AllocationStrategy.builder()
+                    .maxConnections(maxConnections)
+                    .maxConcurrentStreams(maxStreams)
+                    .minConnections(1)
+                    .build());
+        }
+        connections = pool.build();
+
+        http = HttpClient.create(connections)
+                .protocol(httpProtocols)
+                .keepAlive(true)
+                .compress(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 5000)
+                .responseTimeout(Duration.ofMillis(timeout))
+                .metrics(true, uri -> uri);
+        log.info("Async AI client: protocols={}, max connections={}, max streams={}, idle={}, gzip requests={}",
+                Arrays.toString(httpProtocols), maxConnections, h2 ? maxStreams : 1, maxIdleTime, gzipRequests);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        connections.disposeLater().block(Duration.ofSeconds(5));
+    }
+
+    /**
+     * POST a JSON body to an absolute URL and decode the JSON response.
+     *
+     * @return completes with the decoded body, or exceptionally with {@link HttpClientErrorException}
+     *         or {@link HttpServerErrorException} for error statuses and {@link ResourceAccessException}
+     *         for I/O errors and timeouts
+     */
+    public <T> CompletableFuture<T> post(String url, Object body, Class<T> responseType) {
+        byte[] payload;
+        boolean gzip;
+        try {
+            payload = objectMapper.writeValueAsBytes(body);
+            gzip = gzipRequests && payload.length >= gzipMinSize;
+            if (gzip) {
+                payload = gzip(payload);
+            }
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(new RestClientException("Cannot serialize request to " + url, e));
+        }
+
+        byte[] bytes = payload;
+        return http
+                .headers(h -> {
+                    h.set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+                    if (gzip) h.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                })
+                .post()
+                .uri(url)
+                .send(Mono.fromSupplier(() -> Unpooled.wrappedBuffer(bytes)))
+                .responseSingle((response, content) -> content.asByteArray()
+                        .defaultIfEmpty(new byte[0])
+                        .map(data -> decode(url, response.status().code(), data, responseType)))
+                .onErrorMap(e -> !(e instanceof RestClientException), e -> new ResourceAccessException(
+                        "I/O error on POST " + url + ": " + e.getMessage(),
+                        e instanceof IOException io ? io : new IOException(e)))
+                .toFuture();
+    }
+
+    private <T> T decode(String url, int status, byte[] data, Class<T> responseType) {
+        if (status >= 500) {
+            throw new HttpServerErrorException(HttpStatusCode.valueOf(status), "POST " + url);
+        }
+        if (status >= 400) {
+            throw new HttpClientErrorException(HttpStatusCode.valueOf(status), "POST " + url);
+        }
+        if (data.length == 0) {
+            throw new RestClientException("Empty response from AI service");
+        }
+        try {
+            return objectMapper.readValue(data, responseType);
+        } catch (IOException e) {
+            throw new RestClientException("Cannot decode response from " + url, e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        var out = new ByteArrayOutputStream(data.length / 4);
+        try (var gz = new GZIPOutputStream(out)) {
+            gz.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
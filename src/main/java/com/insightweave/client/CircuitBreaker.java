@@ -0,0 +1,141 @@
+package com.insightweave.client;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Count-based circuit breaker.
+ *
+ * CLOSED: calls pass, and the outcomes of the last {@code windowSize} calls are kept. Once at least
+ * {@code minCalls} are recorded and the failure rate reaches {@code failureRateThreshold}, it opens.
+ * OPEN: calls are rejected for {@code openDuration}. After that the next caller runs the health
+ * check; if the service reports healthy the breaker goes HALF_OPEN, otherwise it stays open for
+ * another period. HALF_OPEN: {@code probes} trial calls are let through; if all succeed the breaker
+ * closes, and the first failure opens it again.
+ */
+public final class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int windowSize;
+    private final int minCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private final int probes;
+    private final BooleanSupplier healthCheck;
+
+    private final boolean[] failures;
+    private int recorded;
+    private int next;
+    private int failureCount;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int probesIssued;
+    private int probesSucceeded;
+    private long rejected;
+
+    public CircuitBreaker(int windowSize, int minCalls, double failureRateThreshold,
+                          Duration openDuration, int probes, BooleanSupplier healthCheck) {
+        this.windowSize = windowSize;
+        this.minCalls = Math.min(minCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.probes = Math.max(1, probes);
+        this.healthCheck = healthCheck;
+        this.failures = new boolean[windowSize];
+    }
+
+    /**
+     * @return true if the call may proceed; the caller must then report its outcome
+     */
+    public boolean tryAcquire() {
+        synchronized (this) {
+            switch (state) {
+                case CLOSED:
+                    return true;
+                case HALF_OPEN:
+                    if (probesIssued < probes) {
+                        probesIssued++;
+                        return true;
+                    }
+                    rejected++;
+                    return false;
+                default:
+                    if (System.nanoTime() - openedAt < openNanos) {
+                        rejected++;
+                        return false;
+                    }
+                    // this caller checks health; others keep being rejected until it is done
+                    openedAt = System.nanoTime();
+            }
+        }
+        boolean healthy = healthCheck.getAsBoolean();
+        synchronized (this) {
+            if (state != State.OPEN) {
+                return tryAcquire();
+            }
+            if (!healthy) {
+                openedAt = System.nanoTime();
+                rejected++;
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probesIssued = 1;
+            probesSucceeded = 0;
+            return true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++probesSucceeded >= probes) {
+                close();
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= minCalls && (double) failureCount / recorded >= failureRateThreshold) {
+                open();
+            }
+        }
+    }
+
+    private void record(boolean failed) {
+        if (recorded == windowSize) {
+            if (failures[next]) failureCount--;
+        } else {
+            recorded++;
+        }
+        failures[next] = failed;
+        if (failed) failureCount++;
+        next = (next + 1) % windowSize;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        recorded = 0;
+        next = 0;
+        failureCount = 0;
+        Arrays.fill(failures, false);
+    }
+
+    public record Snapshot(State state, int recordedCalls, double failureRate, long rejected) {}
+
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(state, recorded, recorded == 0 ? 0 : (double) failureCount / recorded, rejected);
+    }
+}
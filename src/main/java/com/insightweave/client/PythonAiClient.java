@@ -1,75 +1,241 @@
 package com.insightweave.client;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insightweave.client.dto.SummarizeBatchRequest;
+import com.insightweave.client.dto.SummarizeBatchResponse;
 import com.insightweave.client.dto.SummarizeRequest;
 import com.insightweave.client.dto.SummarizeResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class PythonAiClient {
 
+    public static final int DEFAULT_MAX_LENGTH = 150;
+    public static final int DEFAULT_MIN_LENGTH = 50;
+    public static final String DEFAULT_STYLE = "concise";
+
+    private static final ObjectMapper STREAM_JSON = new ObjectMapper();
+    // metric tag values; anything else is tagged "other" to keep the series count bounded
+    private static final Set<String> KNOWN_STYLES = Set.of("concise", "detailed", "bullet_points");
+
     private final RestTemplate restTemplate;
+    private final MeterRegistry meters;
 
+    // one URL, or a comma-separated list of replicas to balance over
     @Value("${ai.service.url:http://localhost:8000}")
     private String aiServiceUrl;
 
     @Value("${ai.service.timeout:30000}")
     private long timeout;
 
+    @Value("${ai.service.max-concurrency:64}")
+    private int maxConcurrency;
+
+    // Coalesce concurrent summaries into /nlp/summarize/batch calls
+    @Value("${ai.service.batch.enabled:false}")
+    private boolean batchEnabled;
+
+    @Value("${ai.service.batch.window:20ms}")
+    private Duration batchWindow;
+
+    @Value("${ai.service.batch.max-size:16}")
+    private int batchMaxSize;
+
+    // Adaptive concurrency limit between limiter.min and max-concurrency, moved by observed latency
+    @Value("${ai.service.limiter.initial:16}")
+    private int limiterInitial = 16;
+
+    @Value("${ai.service.limiter.min:1}")
+    private int limiterMin = 1;
+
+    @Value("${ai.service.limiter.max-wait:200ms}")
+    private Duration limiterMaxWait = Duration.ofMillis(200);
+
+    @Value("${ai.service.limiter.tolerance:2.0}")
+    private double limiterTolerance = 2.0;
+
+    @Value("${ai.service.limiter.backoff-ratio:0.9}")
+    private double limiterBackoffRatio = 0.9;
+
+    // Circuit breaker over the last ai.service.circuit.window calls
+    @Value("${ai.service.circuit.window:20}")
+    private int circuitWindow = 20;
+
+    @Value("${ai.service.circuit.min-calls:10}")
+    private int circuitMinCalls = 10;
+
+    @Value("${ai.service.circuit.failure-rate:0.5}")
+    private double circuitFailureRate = 0.5;
+
+    @Value("${ai.service.circuit.open-duration:30s}")
+    private Duration circuitOpenDuration = Duration.ofSeconds(30);
+
+    @Value("${ai.service.circuit.half-open-probes:3}")
+    private int circuitProbes = 3;
+
+    // Replica balancing (p2c or least-outstanding) and ejection of failing replicas
+    @Value("${ai.service.balancer.strategy:p2c}")
+    private String balancerStrategy = "p2c";
+
+    @Value("${ai.service.balancer.eject-after-failures:3}")
+    private int ejectAfterFailures = 3;
+
+    @Value("${ai.service.balancer.ejection-time:30s}")
+    private Duration ejectionTime = Duration.ofSeconds(30);
+
+    @Value("${ai.service.balancer.health-interval:10s}")
+    private Duration healthInterval = Duration.ofSeconds(10);
+
+    @Value("${ai.service.balancer.unhealthy-after-checks:3}")
+    private int unhealthyAfterChecks = 3;
+
+    // Resend calls slower than the recent latency percentile to a second replica
+    @Value("${ai.service.hedge.enabled:false}")
+    private boolean hedgeEnabled;
+
+    @Value("${ai.service.hedge.percentile:0.95}")
+    private double hedgePercentile = 0.95;
+
+    @Value("${ai.service.hedge.min-delay:100ms}")
+    private Duration hedgeMinDelay = Duration.ofMillis(100);
+
+    @Value("${ai.service.hedge.min-samples:50}")
+    private int hedgeMinSamples = 50;
+
+    // present when ai.service.http.client=async; calls then go over Reactor Netty instead of RestTemplate
+    @Autowired(required = false)
+    private AsyncAiTransport asyncTransport;
+
+    private AiEndpointPool endpoints;
+    private AiCallGuard guard;
+    private SummarizeBatcher batcher;
+    // runs blocking calls for summarizeAsync and hedged calls when there is no async transport
+    private final ExecutorService blockingCalls = Executors.newVirtualThreadPerTaskExecutor();
+
+    @PostConstruct
+    void init() {
+        List<String> urls = Arrays.stream(aiServiceUrl.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
+        var strategy = AiEndpointPool.Strategy.valueOf(balancerStrategy.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        endpoints = new AiEndpointPool(urls, strategy, ejectAfterFailures, ejectionTime, this::isHealthy, meters)
+                .checkHealthEvery(healthInterval, unhealthyAfterChecks);
+        if (hedgeEnabled) {
+            endpoints.hedging(hedgePercentile, hedgeMinDelay, hedgeMinSamples);
+        }
+        if (urls.size() > 1) {
+            log.info("Balancing AI calls over {} ({}, hedging {})", urls, strategy, hedgeEnabled ? "on" : "off");
+        }
+
+        var limit = new AdaptiveLimit(limiterInitial, limiterMin, maxConcurrency,
+                limiterTolerance, limiterBackoffRatio, limiterMaxWait);
+        var breaker = new CircuitBreaker(circuitWindow, circuitMinCalls, circuitFailureRate,
+                circuitOpenDuration, circuitProbes, this::isHealthy);
+        guard = new AiCallGuard(limit, breaker);
+        if (batchEnabled) {
+            batcher = new SummarizeBatcher(this::summarizeBatch, batchWindow, batchMaxSize, meters);
+            log.info("Batching summarize calls: window={}, max batch size={}", batchWindow, batchMaxSize);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (batcher != null) {
+            batcher.close();
+        }
+        blockingCalls.shutdownNow();
+        endpoints.close();
+    }
+
     /**
-     * Call the Python AI service to generate a summary.
+     * Call the Python AI service to generate a summary. Callers of this method run in the
+     * background, so when the concurrency limit is full it waits up to ai.service.timeout for a
+     * slot rather than shedding the call after ai.service.limiter.max-wait.
      *
      * @param text the text to summarize
      * @param maxLength maximum length of summary in tokens
      * @param minLength minimum length of summary in tokens
      * @param style summary style (concise, detailed, bullet_points)
      * @return the summarization response
+     * @throws AiServiceRejectedException if the circuit is open or no slot frees up in time
      * @throws RestClientException if the HTTP call fails
      */
     public SummarizeResponse summarize(String text, Integer maxLength, Integer minLength, String style) {
         log.info("Calling Python AI service to summarize {} characters", text.length());
 
-        var request = new SummarizeRequest(
-            text,
-            maxLength != null ? maxLength : 150,
-            minLength != null ? minLength : 50,
-            style != null ? style : "concise"
-        );
+        var request = request(text, maxLength, minLength, style);
+        long start = System.nanoTime();
+        SummarizeResponse response = null;
+        Throwable failure = null;
+        try {
+            response = summarize(request);
+            return response;
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            recordSummarize("blocking", request, response, failure, start);
+        }
+    }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        HttpEntity<SummarizeRequest> entity = new HttpEntity<>(request, headers);
+    private SummarizeResponse summarize(SummarizeRequest request) {
+        if (batcher != null) {
+            return awaitBatched(request);
+        }
 
         try {
-            String url = aiServiceUrl + "/nlp/summarize";
-            log.info("POST {} with request: text length={}, maxLength={}, minLength={}, style={}",
-                url, request.text().length(), request.maxLength(), request.minLength(), request.style());
+            log.info("POST /nlp/summarize with request: text length={}, maxLength={}, minLength={}, style={}",
+                request.text().length(), request.maxLength(), request.minLength(), request.style());
 
-            ResponseEntity<SummarizeResponse> response = restTemplate.postForEntity(
-                url,
-                entity,
-                SummarizeResponse.class
-            );
+            // background work (uploads, jobs, chunks): queue for a slot as long as a call may take
+            SummarizeResponse response = guard.call(() -> post("/nlp/summarize", request, SummarizeResponse.class),
+                request.text().length(), Duration.ofMillis(timeout));
 
-            if (response.getBody() == null) {
+            if (response == null) {
                 throw new RestClientException("Empty response from AI service");
             }
 
-            log.info("Summary generated successfully in {}ms", response.getBody().latencyMs());
-            return response.getBody();
+            log.info("Summary generated successfully in {}ms", response.latencyMs());
+            return response;
 
+        } catch (AiServiceRejectedException e) {
+            log.warn("AI service call rejected: {}", e.getMessage());
+            throw e;
         } catch (RestClientException e) {
             log.error("Failed to call Python AI service: {}", e.getMessage());
             throw new RestClientException("AI service unavailable: " + e.getMessage(), e);
@@ -77,17 +243,235 @@ public class PythonAiClient {
     }
 
     /**
-     * Check if the Python AI service is healthy.
+     * Non-blocking variant of {@link #summarize}. With ai.service.http.client=async no thread waits
+     * for the response; callers beyond the concurrency limit are shed at once rather than queued.
+     * Otherwise the blocking call runs on a virtual thread.
      *
-     * @return true if service is healthy, false otherwise
+     * @return completes with the response, or exceptionally with {@link AiServiceRejectedException}
+     *         or {@link RestClientException}
+     */
+    public CompletableFuture<SummarizeResponse> summarizeAsync(String text, Integer maxLength, Integer minLength,
+                                                               String style) {
+        var request = request(text, maxLength, minLength, style);
+        long start = System.nanoTime();
+        if (batcher != null) {
+            return batcher.submit(request)
+                .whenComplete((response, e) -> recordSummarize("async", request, response, e, start));
+        }
+        if (asyncTransport != null) {
+            return guard.callAsync(() -> send("/nlp/summarize", request, SummarizeResponse.class),
+                    request.text().length())
+                .whenComplete((response, e) -> recordSummarize("async", request, response, e, start));
+        }
+        return CompletableFuture.supplyAsync(() -> summarize(request), blockingCalls)
+            .whenComplete((response, e) -> recordSummarize("async", request, response, e, start));
+    }
+
+    /**
+     * Summarize via /nlp/summarize/stream, handing each token to {@code onToken} as the model
+     * produces it. Blocks until the stream ends; never batched or hedged. A client is waiting on
+     * the stream, so a full concurrency limit sheds it after ai.service.limiter.max-wait.
+     *
+     * @param onToken called on the calling thread, in order; an exception from it aborts the stream
+     * @return the final response, as {@link #summarize} would return it
+     * @throws AiServiceRejectedException if the circuit is open or the concurrency limit stays full
+     * @throws RestClientException if the HTTP call fails or the stream ends without a final summary
+     */
+    public SummarizeResponse summarizeStream(String text, Integer maxLength, Integer minLength, String style,
+                                             Consumer<String> onToken) {
+        log.info("Streaming summary of {} characters from Python AI service", text.length());
+        var request = request(text, maxLength, minLength, style);
+        long start = System.nanoTime();
+        SummarizeResponse result = null;
+        Throwable failure = null;
+        try {
+            result = streamOnce(request, onToken);
+            return result;
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            recordSummarize("stream", request, result, failure, start);
+        }
+    }
+
+    private SummarizeResponse streamOnce(SummarizeRequest request, Consumer<String> onToken) {
+        return guard.call(() -> {
+            CompletableFuture<SummarizeResponse> call = endpoints.call(baseUrl -> {
+                SummarizeResponse response = restTemplate.execute(
+                    baseUrl + "/nlp/summarize/stream",
+                    HttpMethod.POST,
+                    req -> {
+                        req.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                        req.getHeaders().setAccept(List.of(MediaType.TEXT_EVENT_STREAM));
+                        STREAM_JSON.writeValue(req.getBody(), request);
+                    },
+                    res -> SummaryStreamReader.read(res.getBody(), onToken));
+                return CompletableFuture.completedFuture(response);
+            }, false);
+            return join(call);
+        }, request.text().length(), null);
+    }
+
+    // ai.summarize{mode, outcome, model, style}: the end-to-end time callers see, including waits
+    private void recordSummarize(String mode, SummarizeRequest request, SummarizeResponse response,
+                                 Throwable failure, long start) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+            ? failure.getCause() : failure;
+        String outcome;
+        if (cause == null) {
+            outcome = "success";
+        } else if (cause instanceof AiServiceRejectedException) {
+            outcome = "rejected";
+        } else if (cause instanceof HttpClientErrorException || cause.getCause() instanceof HttpClientErrorException) {
+            outcome = "client_error";
+        } else {
+            outcome = "error";
+        }
+        String model = response != null && response.modelName() != null ? response.modelName() : "none";
+        Timer.builder("ai.summarize")
+            .description("AI summarize calls")
+            .tag("mode", mode)
+            .tag("outcome", outcome)
+            .tag("model", model)
+            .tag("style", KNOWN_STYLES.contains(request.style()) ? request.style() : "other")
+            .register(meters)
+            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private static SummarizeRequest request(String text, Integer maxLength, Integer minLength, String style) {
+        return new SummarizeRequest(
+            text,
+            maxLength != null ? maxLength : DEFAULT_MAX_LENGTH,
+            minLength != null ? minLength : DEFAULT_MIN_LENGTH,
+            style != null ? style : DEFAULT_STYLE
+        );
+    }
+
+    private <T> T post(String path, Object body, Class<T> responseType) {
+        return join(send(path, body, responseType));
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    // Send to a replica chosen by the endpoint pool
+    private <T> CompletableFuture<T> send(String path, Object body, Class<T> responseType) {
+        if (asyncTransport != null) {
+            return endpoints.call(baseUrl -> asyncTransport.post(baseUrl + path, body, responseType));
+        }
+        if (hedgeEnabled) {
+            return sendHedgedBlocking(path, body, responseType);
+        }
+        return endpoints.call(baseUrl -> CompletableFuture.completedFuture(postBlocking(baseUrl + path, body, responseType)));
+    }
+
+    /**
+     * A hedge needs the first attempt running in the background, and a blocking call cannot be
+     * aborted: a cancelled loser runs to completion and keeps a replica busy. So the caller's
+     * limiter slot covers one attempt and a hedge takes a slot of its own, or is not sent when
+     * none is free; that slot is given back once every attempt of the call has really ended.
+     */
+    private <T> CompletableFuture<T> sendHedgedBlocking(String path, Object body, Class<T> responseType) {
+        var running = new AtomicInteger();
+        var extraSlot = new AtomicBoolean();
+        return endpoints.call(baseUrl -> {
+            if (running.getAndIncrement() > 0) {
+                if (!guard.tryAcquireExtra()) {
+                    running.decrementAndGet();
+                    return CompletableFuture.failedFuture(
+                        new AiServiceRejectedException("No AI service slot free for a hedged call"));
+                }
+                extraSlot.set(true);
+            }
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return postBlocking(baseUrl + path, body, responseType);
+                } finally {
+                    if (running.decrementAndGet() == 0 && extraSlot.getAndSet(false)) {
+                        guard.releaseExtra();
+                    }
+                }
+            }, blockingCalls);
+        });
+    }
+
+    private <T> T postBlocking(String url, Object body, Class<T> responseType) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<T> response = restTemplate.postForEntity(url, new HttpEntity<>(body, headers), responseType);
+        return response.getBody();
+    }
+
+    private SummarizeResponse awaitBatched(SummarizeRequest request) {
+        try {
+            return batcher.submit(request).get(timeout, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            log.error("Failed to call Python AI service: {}", e.getCause().getMessage());
+            throw new RestClientException("AI service unavailable: " + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            throw new RestClientException("AI service did not answer batched summarize within " + timeout + "ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RestClientException("Interrupted waiting for batched summarize");
+        }
+    }
+
+    /**
+     * Summarize several texts in one call to /nlp/summarize/batch.
+     *
+     * @param requests the requests, each with its own parameters
+     * @return one response per request, in request order
+     * @throws AiServiceRejectedException if the circuit is open or the concurrency limit stays full
+     * @throws RestClientException if the HTTP call fails
+     */
+    public List<SummarizeResponse> summarizeBatch(List<SummarizeRequest> requests) {
+        log.info("POST /nlp/summarize/batch with {} requests", requests.size());
+        long inputChars = requests.stream().mapToLong(r -> r.text().length()).sum();
+        SummarizeBatchResponse response = guard.call(() -> post(
+            "/nlp/summarize/batch",
+            new SummarizeBatchRequest(requests),
+            SummarizeBatchResponse.class
+        ), inputChars, Duration.ofMillis(timeout));
+        if (response == null || response.items() == null) {
+            throw new RestClientException("Empty response from AI service");
+        }
+        return response.items();
+    }
+
+    /** Current adaptive limit and circuit breaker state. */
+    public AiCallGuard.Snapshot guardState() {
+        return guard.snapshot();
+    }
+
+    /** Load and ejection state of each AI replica. */
+    public List<AiEndpointPool.EndpointSnapshot> endpointState() {
+        return endpoints.snapshot();
+    }
+
+    /**
+     * Check if the Python AI service is healthy, from the background health checks
+     * (ai.service.balancer.health-interval); does not call the service.
+     *
+     * @return true if any replica passed its latest check, false otherwise
      */
     public boolean isHealthy() {
+        return endpoints.anyHealthy();
+    }
+
+    private boolean isHealthy(String baseUrl) {
         try {
-            String url = aiServiceUrl + "/health";
+            String url = baseUrl + "/health";
             ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
             return response.getStatusCode().is2xxSuccessful();
         } catch (Exception e) {
-            log.warn("AI service health check failed: {}", e.getMessage());
+            log.warn("AI service health check failed for {}: {}", baseUrl, e.getMessage());
             return false;
         }
     }
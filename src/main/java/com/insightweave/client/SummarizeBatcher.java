@@ -0,0 +1,117 @@
+package com.insightweave.client;
+
+import com.insightweave.client.dto.SummarizeRequest;
+import com.insightweave.client.dto.SummarizeResponse;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent summarize calls into batch calls. A batch closes when it reaches
+ * {@code maxBatchSize} requests or {@code window} after its first request arrived, whichever
+ * comes first; it is then sent on its own virtual thread while the next batch fills, and each
+ * caller's future completes with the response at its position.
+ */
+@Slf4j
+public class SummarizeBatcher implements AutoCloseable {
+
+    private record Pending(SummarizeRequest request, CompletableFuture<SummarizeResponse> result, long enqueuedAt) {}
+
+    private final Function<List<SummarizeRequest>, List<SummarizeResponse>> send;
+    private final Duration window;
+    private final int maxBatchSize;
+    private final LinkedBlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Thread collector;
+    private final DistributionSummary batchSize;
+    private final Timer batchWait;
+    private volatile boolean closed;
+
+    public SummarizeBatcher(Function<List<SummarizeRequest>, List<SummarizeResponse>> send,
+                            Duration window, int maxBatchSize, MeterRegistry meters) {
+        if (maxBatchSize < 1) throw new IllegalArgumentException("maxBatchSize must be at least 1");
+        this.send = send;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.batchSize = DistributionSummary.builder("ai.summarize.batch.size")
+                .description("Requests per batched summarize call")
+                .publishPercentileHistogram()
+                .register(meters);
+        this.batchWait = Timer.builder("ai.summarize.batch.wait")
+                .description("Time a request waited for its batch to be sent")
+                .publishPercentileHistogram()
+                .register(meters);
+        this.collector = Thread.ofPlatform().daemon().name("summarize-batcher").start(this::collect);
+    }
+
+    public CompletableFuture<SummarizeResponse> submit(SummarizeRequest request) {
+        if (closed) throw new IllegalStateException("Batcher is closed");
+        var pending = new Pending(request, new CompletableFuture<>(), System.nanoTime());
+        queue.add(pending);
+        return pending.result();
+    }
+
+    private void collect() {
+        while (!closed) {
+            try {
+                Pending first = queue.take();
+                List<Pending> batch = new ArrayList<>(maxBatchSize);
+                batch.add(first);
+                long deadline = first.enqueuedAt() + window.toNanos();
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                senders.execute(() -> dispatch(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void dispatch(List<Pending> batch) {
+        long sentAt = System.nanoTime();
+        batchSize.record(batch.size());
+        for (Pending p : batch) {
+            batchWait.record(sentAt - p.enqueuedAt(), TimeUnit.NANOSECONDS);
+        }
+        try {
+            List<SummarizeResponse> responses = send.apply(batch.stream().map(Pending::request).toList());
+            if (responses == null || responses.size() != batch.size()) {
+                throw new IllegalStateException("Batch of " + batch.size() + " requests got "
+                        + (responses == null ? 0 : responses.size()) + " responses");
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(responses.get(i));
+            }
+        } catch (Exception e) {
+            log.warn("Batched summarize call for {} requests failed: {}", batch.size(), e.getMessage());
+            batch.forEach(p -> p.result().completeExceptionally(e));
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        collector.interrupt();
+        senders.shutdown();
+        Pending p;
+        while ((p = queue.poll()) != null) {
+            p.result().completeExceptionally(new IllegalStateException("Batcher is closed"));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.insightweave.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insightweave.client.dto.SummarizeResponse;
+import org.springframework.web.client.RestClientException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Reads the text/event-stream answer of /nlp/summarize/stream: unnamed events carry
+ * {@code {"token": "..."}} as the model produces them, and a final {@code done} event carries the
+ * usual summarize response. An {@code error} event carries {@code {"detail": "..."}}.
+ */
+final class SummaryStreamReader {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private SummaryStreamReader() {}
+
+    /**
+     * @param onToken called with each token, in order, on the reading thread
+     * @return the final response from the done event
+     */
+    static SummarizeResponse read(InputStream body, Consumer<String> onToken) throws IOException {
+        var reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String event = "message";
+        StringBuilder data = new StringBuilder();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty()) {
+                if (!data.isEmpty()) {
+                    SummarizeResponse done = dispatch(event, data.toString(), onToken);
+                    if (done != null) return done;
+                }
+                event = "message";
+                data.setLength(0);
+            } else if (line.startsWith("event:")) {
+                event = line.substring(6).strip();
+            } else if (line.startsWith("data:")) {
+                if (!data.isEmpty()) data.append('\n');
+                data.append(line.substring(line.startsWith("data: ") ? 6 : 5));
+            }
+            // comments (":") and other fields are ignored
+        }
+        throw new RestClientException("AI service stream ended without a final summary");
+    }
+
+    private static SummarizeResponse dispatch(String event, String data, Consumer<String> onToken) throws IOException {
+        switch (event) {
+            case "done":
+                return JSON.readValue(data, SummarizeResponse.class);
+            case "error":
+                JsonNode error = JSON.readTree(data);
+                throw new RestClientException("AI service stream failed: " + error.path("detail").asText(data));
+            default:
+                String token = JSON.readTree(data).path("token").asText("");
+                if (!token.isEmpty()) onToken.accept(token);
+                return null;
+        }
+    }
+}
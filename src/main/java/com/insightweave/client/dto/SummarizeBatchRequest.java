@@ -0,0 +1,7 @@
+package com.insightweave.client.dto;
+
+import java.util.List;
+
+public record SummarizeBatchRequest(
+    List<SummarizeRequest> items
+) {}
@@ -0,0 +1,8 @@
+package com.insightweave.client.dto;
+
+import java.util.List;
+
+/** One response per request item, in the same order. */
+public record SummarizeBatchResponse(
+    List<SummarizeResponse> items
+) {}
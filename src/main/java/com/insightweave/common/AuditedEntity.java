@@ -15,10 +15,11 @@ import java.time.Instant;
 public abstract class AuditedEntity {
 
     @CreatedDate
-    @Column(nullable = false, updatable = false)
+    @Column(name = "created_at", nullable = false, updatable = false)
     protected Instant createdAt;
 
     @LastModifiedDate
-    @Column(nullable = false)
+    // named explicitly so indexes can refer to it
+    @Column(name = "updated_at", nullable = false)
     protected Instant updatedAt;
 }
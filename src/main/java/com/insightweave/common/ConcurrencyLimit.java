@@ -0,0 +1,61 @@
+package com.insightweave.common;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Caps how many callers run a section at once. Waiting for a permit costs no thread of its own,
+ * so with virtual threads this, not a pool size, is what bounds concurrent work.
+ */
+public final class ConcurrencyLimit {
+
+    private final String name;
+    private final int limit;
+    private final Duration maxWait;
+    private final Semaphore permits;
+
+    public ConcurrencyLimit(String name, int limit, Duration maxWait) {
+        if (limit < 1) throw new IllegalArgumentException(name + " limit must be at least 1");
+        this.name = name;
+        this.limit = limit;
+        this.maxWait = maxWait;
+        this.permits = new Semaphore(limit, true);
+    }
+
+    /**
+     * Run {@code work} once a permit is free.
+     *
+     * @throws RejectedExecutionException if no permit frees up within the maximum wait
+     */
+    public <T> T call(Supplier<T> work) {
+        try {
+            if (!permits.tryAcquire(maxWait.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new RejectedExecutionException(
+                        name + " concurrency limit of " + limit + " reached, gave up after " + maxWait);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted waiting for " + name + " permit", e);
+        }
+        try {
+            return work.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inUse() {
+        return limit - permits.availablePermits();
+    }
+
+    public int waiting() {
+        return permits.getQueueLength();
+    }
+}
@@ -1,24 +1,61 @@
 package com.insightweave.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 @Configuration
 @EnableAsync
+@RequiredArgsConstructor
 public class AsyncConfig implements AsyncConfigurer {
 
+    private final MeterRegistry meters;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${insightweave.async.core-pool-size:2}")
+    private int corePoolSize;
+
+    @Value("${insightweave.async.max-pool-size:5}")
+    private int maxPoolSize;
+
+    @Value("${insightweave.async.queue-capacity:100}")
+    private int queueCapacity;
+
     @Override
     public Executor getAsyncExecutor() {
+        if (virtualThreads) {
+            // One virtual thread per task; blocking AI calls are bounded by PythonAiClient's
+            // concurrency limit instead of a pool size
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("async-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(2);
-        executor.setMaxPoolSize(5);
-        executor.setQueueCapacity(100);
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
         executor.setThreadNamePrefix("async-");
+        Counter rejected = meters.counter("insightweave.async.rejected");
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejected.increment();
+            throw new RejectedExecutionException("Async executor queue is full");
+        });
         executor.initialize();
+        // executor.queued, executor.active, executor.pool.size, ... tagged name=async
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "async", Tags.empty()).bindTo(meters);
         return executor;
     }
 }
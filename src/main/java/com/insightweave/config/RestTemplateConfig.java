@@ -28,6 +28,9 @@ public class RestTemplateConfig {
     @Value("${ai.service.timeout:30000}")
     private long aiServiceTimeout;
 
+    @Value("${ai.service.max-concurrency:64}")
+    private int aiMaxConcurrency;
+
     @Bean
     public RestTemplate restTemplate(RestTemplateBuilder builder) {
         // Configure Apache HttpClient with proper timeouts
@@ -35,6 +38,9 @@ public class RestTemplateConfig {
             .setDefaultSocketConfig(org.apache.hc.core5.http.io.SocketConfig.custom()
                 .setSoTimeout(Timeout.ofMilliseconds(aiServiceTimeout))
                 .build())
+            // the pool default of 5 per route would quietly cap concurrent summaries at 5
+            .setMaxConnPerRoute(aiMaxConcurrency)
+            .setMaxConnTotal(aiMaxConcurrency * 2)
             .build();
 
         HttpClient httpClient = HttpClientBuilder.create()
@@ -0,0 +1,86 @@
+package com.insightweave.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.insightweave.entity.Document;
+import com.insightweave.entity.FileAsset;
+import com.insightweave.entity.Summary;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Hibernate second-level and query cache, switched on with insightweave.cache.second-level=true.
+ *
+ * Entities and collections marked @Cache are kept in Caffeine caches behind JCache, one per region,
+ * each bounded by insightweave.cache.max-entries and insightweave.cache.ttl. They are READ_WRITE, so
+ * Hibernate updates or evicts entries as transactions commit, and cached query results are dropped
+ * whenever a table they read from is written through Hibernate. Statistics are turned on with the
+ * cache so hit and miss counts reach Micrometer.
+ */
+@Configuration
+@ConditionalOnProperty(name = "insightweave.cache.second-level", havingValue = "true")
+public class SecondLevelCacheConfig {
+
+    // Hibernate's region names: the entity or collection role, and its defaults for queries
+    private static final String ATTACHMENTS_REGION = Document.class.getName() + ".attachments";
+    private static final List<String> REGIONS = List.of(
+            Document.class.getName(), ATTACHMENTS_REGION, FileAsset.class.getName(), Summary.class.getName());
+    private static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Value("${insightweave.cache.max-entries:10000}") long maxEntries;
+    @Value("${insightweave.cache.query.max-entries:10000}") long queryMaxEntries;
+    @Value("${insightweave.cache.ttl:10m}") Duration ttl;
+
+    @Bean(destroyMethod = "close")
+    CacheManager hibernateCacheManager() {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager manager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+        for (String region : REGIONS) {
+            create(manager, region, bounded(maxEntries, ttl));
+        }
+        create(manager, QUERY_RESULTS_REGION, bounded(queryMaxEntries, ttl));
+        // one entry per table; must outlive every cached query result, so it never expires
+        create(manager, UPDATE_TIMESTAMPS_REGION, new CaffeineConfiguration<>());
+        return manager;
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer secondLevelCache(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> bounded(long maxEntries, Duration ttl) {
+        var configuration = new CaffeineConfiguration<Object, Object>();
+        configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+
+    // the provider hands out one manager per class loader, so a second context in the same JVM finds the caches
+    private static void create(CacheManager manager, String region, CaffeineConfiguration<Object, Object> configuration) {
+        if (manager.getCache(region) != null) {
+            manager.destroyCache(region);
+        }
+        manager.createCache(region, configuration);
+    }
+}
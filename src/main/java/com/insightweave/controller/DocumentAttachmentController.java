@@ -2,18 +2,22 @@
 package com.insightweave.controller;
 
 import com.insightweave.dto.FileAssetDto;
+import com.insightweave.dto.ResponseFields;
 import com.insightweave.mapper.FileAssetMapper;
 import com.insightweave.repository.DocumentRepository;
+import com.insightweave.service.DocumentAggregateLoader;
 import com.insightweave.service.DocumentAttachmentService;
+import com.insightweave.service.ExtractedTextStore;
 import com.insightweave.service.FileAssetService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.Resource;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.net.URLEncoder;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Set;
@@ -30,6 +34,9 @@ public class DocumentAttachmentController {
     private final DocumentAttachmentService svc;
     private final FileAssetService fileSvc;
     private final FileAssetMapper fileMapper;            // ✅ add
+    private final FileDownloadHandler downloads;
+    private final DocumentAggregateLoader loader;
+    private final ExtractedTextStore texts;
 
     private static final Set<String> ALLOWED = Set.of(
             "application/pdf","text/plain","image/png","image/jpeg"
@@ -62,47 +69,58 @@ public class DocumentAttachmentController {
     }
 
     @GetMapping
-    public List<FileAssetDto> list(@PathVariable Long docId) {
-        var doc = docRepo.findById(docId)
-                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Document not found: " + docId));
-        return fileMapper.toDtoList(doc.getAttachments());                                 // ✅ DTOs
+    public List<FileAssetDto> list(
+            @PathVariable Long docId,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) String fields
+    ) {
+        ResponseFields include = ResponseFields.of(view, fields);
+        if (!docRepo.existsById(docId)) {
+            throw new ResponseStatusException(NOT_FOUND, "Document not found: " + docId);
+        }
+        return loader.loadAttachments(docId, include);
     }
 
     @DeleteMapping("/{fileId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete(@PathVariable Long docId, @PathVariable Long fileId) throws Exception {
-        var doc = docRepo.findById(docId)
-                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Document not found: " + docId));
-
-        boolean belongs = doc.getAttachments().stream().anyMatch(a -> a.getId().equals(fileId));
-        if (!belongs) {
-            throw new ResponseStatusException(NOT_FOUND,
-                    "File " + fileId + " does not belong to document " + docId);
-        }
+        requireAttachment(docId, fileId);
         svc.removeAttachment(docId, fileId);
     }
 
     @GetMapping("/{fileId}/download")
-    public ResponseEntity<Resource> download(
-            @PathVariable Long docId, @PathVariable Long fileId
+    public void download(
+            @PathVariable Long docId, @PathVariable Long fileId,
+            HttpServletRequest request, HttpServletResponse response
     ) throws Exception {
-        var doc = docRepo.findById(docId)
-                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Document not found: " + docId));
+        requireAttachment(docId, fileId);
+        var asset = fileSvc.get(fileId);
+        downloads.serve(asset, fileSvc.download(fileId), request, response);
+    }
 
-        boolean match = doc.getAttachments().stream().anyMatch(a -> a.getId().equals(fileId));
-        if (!match) {
-            throw new ResponseStatusException(NOT_FOUND,
-                    "File " + fileId + " does not belong to document " + docId);
+    // Streamed as it is inflated; the text is never held as one String
+    @GetMapping("/{fileId}/text")
+    public void text(@PathVariable Long docId, @PathVariable Long fileId, HttpServletResponse response) throws Exception {
+        requireAttachment(docId, fileId);
+        var text = texts.open(fileId)
+                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "File " + fileId + " has no extracted text"));
+
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentLengthLong(text.byteLength());
+        try (InputStream in = text.stream()) {
+            in.transferTo(response.getOutputStream());
         }
+    }
 
-        var asset = fileSvc.get(fileId);
-        var resource = fileSvc.download(fileId);
-
-        String encoded = URLEncoder.encode(asset.getOriginalFilename(), StandardCharsets.UTF_8);
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(asset.getContentType()))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename*=UTF-8''" + encoded)
-                .contentLength(asset.getSizeBytes())
-                .body(resource);
+    // one query whether or not the document has many attachments
+    private void requireAttachment(Long docId, Long fileId) {
+        if (docRepo.hasAttachment(docId, fileId)) {
+            return;
+        }
+        if (!docRepo.existsById(docId)) {
+            throw new ResponseStatusException(NOT_FOUND, "Document not found: " + docId);
+        }
+        throw new ResponseStatusException(NOT_FOUND, "File " + fileId + " does not belong to document " + docId);
     }
 }
@@ -4,17 +4,23 @@ import com.insightweave.dto.*;
 import com.insightweave.entity.Document;
 import com.insightweave.mapper.DocumentMapper;
 import com.insightweave.repository.DocumentRepository;
+import com.insightweave.search.DocumentSearchEngine;
+import com.insightweave.service.DocumentAggregateLoader;
+import com.insightweave.service.DocumentChangedEvent;
 import com.insightweave.service.DocumentResponseEnricher;
 import com.insightweave.service.DocumentService;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 
@@ -22,40 +28,69 @@ import java.util.List;
 @RequestMapping("/api/documents")
 public class DocumentController {
 
+    private static final int MAX_SCROLL_SIZE = 200;
+
     private final DocumentRepository repo;
     private final DocumentMapper mapper;
     private final DocumentService documentService;
     private final DocumentResponseEnricher enricher;
+    private final DocumentAggregateLoader loader;
+    private final DocumentSearchEngine searchEngine;
+    private final ApplicationEventPublisher events;
 
     public DocumentController(DocumentRepository repo, DocumentMapper mapper,
-                            DocumentService documentService, DocumentResponseEnricher enricher) {
+                            DocumentService documentService, DocumentResponseEnricher enricher,
+                            DocumentAggregateLoader loader, DocumentSearchEngine searchEngine,
+                            ApplicationEventPublisher events) {
         this.repo = repo;
         this.mapper = mapper;
         this.documentService = documentService;
         this.enricher = enricher;
+        this.loader = loader;
+        this.searchEngine = searchEngine;
+        this.events = events;
     }
 
     @PostMapping
     @Operation(summary = "Create a new document")
     public ResponseEntity<DocumentResponse> create(@Valid @RequestBody DocumentCreateRequest req) {
         Document saved = repo.save(mapper.toEntity(req));
+        events.publishEvent(DocumentChangedEvent.changed(saved.getId()));
         return ResponseEntity.ok(enricher.enrich(mapper.toResponse(saved)));
     }
 
     @GetMapping
-    @Operation(summary = "List documents (paged)")
+    @Operation(summary = "List documents (paged)",
+            description = "view=summary leaves out content, extracted text and summaries; "
+                    + "fields=content,extractedText,summaries picks which of them to include")
     public Page<DocumentResponse> all(
             @PageableDefault(size = 20, sort = "updatedAt", direction = Sort.Direction.DESC)
-            Pageable pageable
+            Pageable pageable,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) String fields
+    ) {
+        ResponseFields include = ResponseFields.of(view, fields);
+        return include.content()
+                ? loader.loadPage(repo.findAll(pageable), include)
+                : loader.loadPage(repo.findAllHeaders(pageable), include);
+    }
+
+    @GetMapping("/scroll")
+    @Operation(summary = "List documents, newest first (cursor paged)",
+            description = "Pass nextCursor from the previous response to get the following slice. "
+                    + "Every slice costs the same however deep it is, and no total count is computed")
+    public DocumentSlice scroll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
     ) {
-        return repo.findAll(pageable).map(mapper::toResponse).map(enricher::enrich);
+        return loader.loadSlice(newest(DocumentCursor.decode(cursor), scrollSize(size)));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get a single document by ID")
     public ResponseEntity<DocumentResponse> getById(@PathVariable Long id) {
         Document doc = repo.findById(id).orElseThrow();
-        return ResponseEntity.ok(enricher.enrich(mapper.toResponse(doc)));
+        return ResponseEntity.ok(loader.load(List.of(doc)).get(0));
     }
 
     @PutMapping("/{id}")
@@ -67,7 +102,8 @@ public class DocumentController {
         var existing = repo.findById(id).orElseThrow();
         mapper.updateEntity(existing, req);
         var saved = repo.save(existing);
-        return ResponseEntity.ok(enricher.enrich(mapper.toResponse(saved)));
+        events.publishEvent(DocumentChangedEvent.changed(saved.getId()));
+        return ResponseEntity.ok(loader.load(List.of(saved)).get(0));
     }
 
     @DeleteMapping("/{id}")
@@ -78,12 +114,53 @@ public class DocumentController {
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Search documents (paged)")
+    @Operation(summary = "Search documents (paged)",
+            description = "With insightweave.search.engine=fulltext, results are ranked by relevance and q supports "
+                    + "\"phrases\", prefix* terms, OR and -exclusions. view= and fields= work as on the list")
     public Page<DocumentResponse> search(
             @RequestParam(required = false) String q,
             @PageableDefault(size = 20, sort = "updatedAt", direction = Sort.Direction.DESC)
-            Pageable pageable
+            Pageable pageable,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) String fields
     ) {
-        return repo.search(q, pageable).map(mapper::toResponse).map(enricher::enrich);
+        ResponseFields include = ResponseFields.of(view, fields);
+        return include.content()
+                ? loader.loadPage(searchEngine.search(q, pageable), include)
+                : loader.loadPage(searchEngine.searchHeaders(q, pageable), include);
+    }
+
+    @GetMapping("/search/scroll")
+    @Operation(summary = "Search documents, newest first (cursor paged)",
+            description = "A query q needs insightweave.search.engine=like: the fulltext and index engines rank by "
+                    + "relevance, have no newest-first order to page through and answer 400; use /search with "
+                    + "page and size there. Without q this is the newest-first document list")
+    public DocumentSlice searchScroll(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        DocumentCursor after = DocumentCursor.decode(cursor);
+        if (q == null || q.isBlank()) {
+            return loader.loadSlice(newest(after, scrollSize(size)));
+        }
+        if (!searchEngine.supportsScroll()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Cursor paging is not available for relevance-ranked search; use /api/documents/search with page and size");
+        }
+        return loader.loadSlice(searchEngine.scroll(q, after, scrollSize(size)));
+    }
+
+    private Slice<Document> newest(DocumentCursor after, int size) {
+        return after == null
+                ? repo.findNewest(Pageable.ofSize(size))
+                : repo.findNewestAfter(after.updatedAt(), after.id(), Pageable.ofSize(size));
+    }
+
+    private static int scrollSize(int size) {
+        if (size < 1 || size > MAX_SCROLL_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_SCROLL_SIZE);
+        }
+        return size;
     }
 }
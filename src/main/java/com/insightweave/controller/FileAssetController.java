@@ -2,20 +2,22 @@ package com.insightweave.controller;
 
 import com.insightweave.entity.FileAsset;
 import com.insightweave.service.FileAssetService;
+import com.insightweave.service.SummaryStreamService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.Resource;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
-
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/files")
 @RequiredArgsConstructor
 public class FileAssetController {
     private final FileAssetService svc;
+    private final FileDownloadHandler downloads;
+    private final SummaryStreamService summaryStream;
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<FileAsset> upload(@RequestPart("file") MultipartFile file) throws Exception {
@@ -28,15 +30,18 @@ public class FileAssetController {
     public FileAsset info(@PathVariable Long id) { return svc.get(id); }
 
     @GetMapping("/{id}/download")
-    public ResponseEntity<Resource> download(@PathVariable Long id) throws Exception {
+    public void download(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response) throws Exception {
         var e = svc.get(id);
-        var res = svc.download(id);
-        String fname = URLEncoder.encode(e.getOriginalFilename(), StandardCharsets.UTF_8);
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(e.getContentType()))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename*=UTF-8''" + fname)
-                .contentLength(e.getSizeBytes())
-                .body(res);
+        downloads.serve(e, svc.download(id), request, response);
+    }
+
+    /** Summary tokens as the model produces them, then the saved summary (text/event-stream). */
+    @GetMapping(value = "/{id}/summary/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSummary(@PathVariable Long id,
+                                    @RequestParam(required = false) Integer maxLength,
+                                    @RequestParam(required = false) Integer minLength,
+                                    @RequestParam(required = false) String style) {
+        return summaryStream.stream(id, maxLength, minLength, style);
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,245 @@
+package com.insightweave.controller;
+
+import com.insightweave.entity.FileAsset;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Writes stored files to the response with HTTP range and conditional request support.
+ *
+ * The asset's SHA-256 is its strong ETag and updatedAt its Last-Modified, so If-None-Match /
+ * If-Modified-Since answer 304 and If-Range decides between 206 and a full 200. Whole files and
+ * single ranges are handed to Tomcat's sendfile when the connector supports it, the only path
+ * that skips user space. Otherwise, and for multipart/byteranges, the bytes are copied through
+ * the servlet output stream like any other body.
+ */
+@Component
+public class FileDownloadHandler {
+
+    // Tomcat request attributes (org.apache.coyote.Constants) for sendfile
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private record Span(long start, long end) {
+        long length() { return end - start + 1; }
+    }
+
+    public void serve(FileAsset asset, Resource resource, HttpServletRequest req, HttpServletResponse res) throws IOException {
+        String etag = "\"" + asset.getSha256() + "\"";
+        long lastModified = asset.getUpdatedAt() != null
+                ? asset.getUpdatedAt().toEpochMilli()
+                : resource.lastModified();
+
+        res.setHeader(HttpHeaders.ETAG, etag);
+        res.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        res.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (notModified(req, etag, lastModified)) {
+            res.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        String fname = URLEncoder.encode(asset.getOriginalFilename(), StandardCharsets.UTF_8);
+        res.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename*=UTF-8''" + fname);
+
+        Path path = resource.isFile() ? resource.getFile().toPath() : null;
+        long length = path != null ? Files.size(path) : asset.getSizeBytes();
+        boolean head = "HEAD".equals(req.getMethod());
+
+        List<Span> spans = requestedSpans(req, etag, lastModified, length);
+        if (spans == null) {
+            res.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            res.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            return;
+        }
+
+        if (spans.isEmpty()) {
+            res.setStatus(HttpServletResponse.SC_OK);
+            res.setContentType(asset.getContentType());
+            res.setContentLengthLong(length);
+            if (!head) writeSpan(resource, path, new Span(0, length - 1), req, res, true);
+            return;
+        }
+
+        res.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        if (spans.size() == 1) {
+            Span span = spans.get(0);
+            res.setContentType(asset.getContentType());
+            res.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + span.start() + "-" + span.end() + "/" + length);
+            res.setContentLengthLong(span.length());
+            if (!head) writeSpan(resource, path, span, req, res, true);
+            return;
+        }
+
+        String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        List<byte[]> partHeaders = new ArrayList<>(spans.size());
+        long total = 0;
+        for (Span span : spans) {
+            byte[] header = ("\r\n--" + boundary + "\r\n"
+                    + HttpHeaders.CONTENT_TYPE + ": " + asset.getContentType() + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": bytes " + span.start() + "-" + span.end() + "/" + length + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(header);
+            total += header.length + span.length();
+        }
+        byte[] trailer = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        total += trailer.length;
+
+        res.setContentType("multipart/byteranges; boundary=" + boundary);
+        res.setContentLengthLong(total);
+        if (head) return;
+
+        OutputStream out = res.getOutputStream();
+        for (int i = 0; i < spans.size(); i++) {
+            out.write(partHeaders.get(i));
+            writeSpan(resource, path, spans.get(i), req, res, false);
+        }
+        out.write(trailer);
+    }
+
+    // RFC 9110 13.2.2: If-None-Match wins over If-Modified-Since
+    private static boolean notModified(HttpServletRequest req, String etag, long lastModified) {
+        String ifNoneMatch = req.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) return true;
+            }
+            return false;
+        }
+        long ifModifiedSince = dateHeader(req, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    /**
+     * Overlapping and adjacent ranges are coalesced (RFC 9110 14.2), so a header repeating the
+     * same range cannot make the response larger than the file, and a request asking for more
+     * bytes in total than the file has gets the whole file instead.
+     *
+     * @return the byte spans to send, in file order: empty for the whole file, null if no
+     *         requested range is satisfiable
+     */
+    private static List<Span> requestedSpans(HttpServletRequest req, String etag, long lastModified, long length) {
+        String rangeHeader = req.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null || !ifRangeMatches(req, etag, lastModified)) {
+            return List.of();
+        }
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            return List.of(); // malformed Range headers are ignored
+        }
+        List<Span> spans = new ArrayList<>(ranges.size());
+        for (HttpRange range : ranges) {
+            long start;
+            long end;
+            try {
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            // HttpRange hands back a start past the end (e.g. bytes=500- of 100) rather than failing
+            if (start <= end) spans.add(new Span(start, end));
+        }
+        if (spans.isEmpty()) {
+            return null;
+        }
+        long requested = 0;
+        for (Span span : spans) {
+            requested += span.length();
+        }
+        return requested > length ? List.of() : coalesce(spans);
+    }
+
+    private static List<Span> coalesce(List<Span> spans) {
+        spans.sort(Comparator.comparingLong(Span::start));
+        List<Span> merged = new ArrayList<>(spans.size());
+        Span current = spans.get(0);
+        for (Span next : spans.subList(1, spans.size())) {
+            if (next.start() <= current.end() + 1) {
+                current = new Span(current.start(), Math.max(current.end(), next.end()));
+            } else {
+                merged.add(current);
+                current = next;
+            }
+        }
+        merged.add(current);
+        return merged;
+    }
+
+    // If-Range only honours a strong ETag or an exact Last-Modified date
+    private static boolean ifRangeMatches(HttpServletRequest req, String etag, long lastModified) {
+        String ifRange = req.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        ifRange = ifRange.trim();
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        long date = dateHeader(req, HttpHeaders.IF_RANGE);
+        return date >= 0 && date / 1000 == lastModified / 1000;
+    }
+
+    private static long dateHeader(HttpServletRequest req, String name) {
+        try {
+            return req.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private static void writeSpan(Resource resource, Path path, Span span,
+                                  HttpServletRequest req, HttpServletResponse res, boolean allowSendfile) throws IOException {
+        if (path == null) {
+            try (InputStream in = resource.getInputStream()) {
+                StreamUtils.copyRange(in, res.getOutputStream(), span.start(), span.end());
+            }
+            return;
+        }
+        if (allowSendfile && Boolean.TRUE.equals(req.getAttribute(SENDFILE_SUPPORTED))) {
+            // Tomcat streams the file from the kernel once the handler returns
+            req.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+            req.setAttribute(SENDFILE_START, span.start());
+            req.setAttribute(SENDFILE_END, span.end() + 1);
+            return;
+        }
+        // not zero-copy: the target is a channel over the servlet stream, so transferTo copies
+        // through a heap buffer; it just saves seeking to the span by hand
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(res.getOutputStream());
+            long pos = span.start();
+            long end = span.end() + 1;
+            while (pos < end) {
+                long n = ch.transferTo(pos, end - pos, out);
+                if (n <= 0) break;
+                pos += n;
+            }
+        }
+    }
+}
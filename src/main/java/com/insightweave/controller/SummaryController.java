@@ -0,0 +1,58 @@
+package com.insightweave.controller;
+
+import com.insightweave.dto.SummaryDto;
+import com.insightweave.dto.SummaryJobHandle;
+import com.insightweave.dto.SummaryRequest;
+import com.insightweave.service.FileAssetService;
+import com.insightweave.service.OnDemandSummaryService;
+import com.insightweave.service.SummaryService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+
+@RestController
+@RequestMapping("/api/files/{id}/summaries")
+@RequiredArgsConstructor
+public class SummaryController {
+
+    private final FileAssetService files;
+    private final SummaryService summaries;
+    private final OnDemandSummaryService onDemand;
+
+    @GetMapping
+    public List<SummaryDto> list(@PathVariable Long id) {
+        files.get(id);
+        return summaries.getSummariesForFile(id);
+    }
+
+    /**
+     * 200 with the summary if one with these parameters exists (and regenerate is false), otherwise
+     * 202 with a job handle to poll. Identical requests while a summary is generating share it.
+     */
+    @PostMapping
+    public ResponseEntity<?> request(@PathVariable Long id, @Valid @RequestBody(required = false) SummaryRequest body) {
+        var submission = onDemand.request(id, body != null ? body : SummaryRequest.DEFAULTS);
+        if (submission.summary() != null) {
+            return ResponseEntity.ok(submission.summary());
+        }
+        var location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/jobs/{jobId}")
+                .buildAndExpand(submission.job().jobId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(submission.job());
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public SummaryJobHandle job(@PathVariable Long id, @PathVariable UUID jobId) {
+        return onDemand.job(id, jobId)
+                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Summary job not found: " + jobId));
+    }
+}
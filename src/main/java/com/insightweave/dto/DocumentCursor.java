@@ -0,0 +1,37 @@
+package com.insightweave.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position in the newest-first document order (updatedAt desc, id desc): the last document of the
+ * previous slice. Clients get it as an opaque string and pass it back unchanged.
+ */
+public record DocumentCursor(Instant updatedAt, Long id) {
+
+    public String encode() {
+        String raw = updatedAt.getEpochSecond() + "." + updatedAt.getNano() + "." + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @return the cursor, or null for a missing or blank one (start from the newest document)
+     * @throws IllegalArgumentException if the cursor was not produced by {@link #encode()}
+     */
+    public static DocumentCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII).split("\\.");
+            if (parts.length != 3) throw new IllegalArgumentException();
+            return new DocumentCursor(
+                    Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1])),
+                    Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package com.insightweave.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.time.Instant;
 import java.util.List;
 
 public record DocumentResponse(
         Long id,
         String title,
-        String content,
+        // left out with view=summary (see ResponseFields)
+        @JsonInclude(JsonInclude.Include.NON_NULL) String content,
         Instant createdAt,
         Instant updatedAt,
         List<FileAssetDto> attachments
@@ -0,0 +1,11 @@
+package com.insightweave.dto;
+
+import java.util.List;
+
+/** One slice of a cursor-paged listing; there is no total count. nextCursor is null on the last slice. */
+public record DocumentSlice(
+        List<DocumentResponse> content,
+        int size,
+        boolean hasNext,
+        String nextCursor
+) {}
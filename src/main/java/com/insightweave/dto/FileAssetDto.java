@@ -1,5 +1,7 @@
 package com.insightweave.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.time.Instant;
 import java.util.List;
 
@@ -10,6 +12,7 @@ public record FileAssetDto(
         long sizeBytes,
         Instant createdAt,
         Instant updatedAt,
-        String extractedText,
-        List<SummaryDto> summaries
+        // left out with view=summary (see ResponseFields)
+        @JsonInclude(JsonInclude.Include.NON_NULL) String extractedText,
+        @JsonInclude(JsonInclude.Include.NON_NULL) List<SummaryDto> summaries
 ) {}
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.insightweave.dto;
+
+import java.util.Locale;
+
+/**
+ * Which of the large response fields to load and return, from the view= and fields= parameters.
+ *
+ * view=full (the default) returns everything; view=summary leaves out document content,
+ * attachment extracted text and summaries, and the queries behind it do not read those columns.
+ * fields= names the large fields to include instead, e.g. fields=summaries or
+ * fields=content,extractedText; it takes precedence over view.
+ */
+public record ResponseFields(boolean content, boolean extractedText, boolean summaries) {
+
+    public static final ResponseFields FULL = new ResponseFields(true, true, true);
+    public static final ResponseFields SUMMARY = new ResponseFields(false, false, false);
+
+    /**
+     * @throws IllegalArgumentException for an unknown view or field
+     */
+    public static ResponseFields of(String view, String fields) {
+        if (fields != null && !fields.isBlank()) {
+            boolean content = false, extractedText = false, summaries = false;
+            for (String field : fields.split(",")) {
+                switch (field.trim()) {
+                    case "content" -> content = true;
+                    case "extractedText" -> extractedText = true;
+                    case "summaries" -> summaries = true;
+                    case "" -> { }
+                    default -> throw new IllegalArgumentException(
+                            "Unknown field '" + field.trim() + "'; expected content, extractedText or summaries");
+                }
+            }
+            return new ResponseFields(content, extractedText, summaries);
+        }
+        if (view == null || view.isBlank()) {
+            return FULL;
+        }
+        return switch (view.trim().toLowerCase(Locale.ROOT)) {
+            case "full" -> FULL;
+            case "summary" -> SUMMARY;
+            default -> throw new IllegalArgumentException("Unknown view '" + view + "'; expected summary or full");
+        };
+    }
+}
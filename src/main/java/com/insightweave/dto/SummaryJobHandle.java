@@ -0,0 +1,12 @@
+package com.insightweave.dto;
+
+import java.util.UUID;
+
+/** An on-demand summary generation: RUNNING, then SUCCEEDED with the summary or FAILED with an error. */
+public record SummaryJobHandle(
+        UUID jobId,
+        Long fileAssetId,
+        String status,
+        SummaryDto summary,
+        String error
+) {}
@@ -0,0 +1,14 @@
+package com.insightweave.dto;
+
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+
+/** Parameters for an on-demand summary; nulls mean the defaults. */
+public record SummaryRequest(
+        @Positive Integer maxLength,
+        @Positive Integer minLength,
+        @Pattern(regexp = "concise|detailed|bullet_points") String style,
+        boolean regenerate
+) {
+    public static final SummaryRequest DEFAULTS = new SummaryRequest(null, null, null, false);
+}
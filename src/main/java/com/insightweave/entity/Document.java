@@ -3,15 +3,21 @@ package com.insightweave.entity;
 import com.insightweave.common.AuditedEntity;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "documents")
+// (updated_at, id) backs the newest-first listing and its keyset cursor
+@Table(name = "documents", indexes = {
+    @Index(name = "idx_documents_updated_at_id", columnList = "updated_at, id")
+})
+@Cacheable @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)   // with insightweave.cache.second-level=true
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor @Builder
-public class Document extends AuditedEntity {
+public class Document extends AuditedEntity implements DocumentHeader {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -25,5 +31,6 @@ public class Document extends AuditedEntity {
 
     @OneToMany(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "document_id")   // FK lives in file_assets
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<FileAsset> attachments = new ArrayList<>();
 }
@@ -0,0 +1,15 @@
+package com.insightweave.entity;
+
+import java.time.Instant;
+
+/**
+ * A document without its content: what list views need. Repository queries returning it select
+ * only these columns into a {@link DocumentHeaderRow}; {@link Document} implements it too, so full
+ * entities can stand in for headers.
+ */
+public interface DocumentHeader {
+    Long getId();
+    String getTitle();
+    Instant getCreatedAt();
+    Instant getUpdatedAt();
+}
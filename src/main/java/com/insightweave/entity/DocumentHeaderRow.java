@@ -0,0 +1,15 @@
+package com.insightweave.entity;
+
+import java.time.Instant;
+
+/**
+ * Built by the header queries with a constructor expression. Document implements
+ * {@link DocumentHeader}, so Spring Data would not treat an alias-based interface projection
+ * of it as a projection.
+ */
+public record DocumentHeaderRow(Long id, String title, Instant createdAt, Instant updatedAt) implements DocumentHeader {
+    @Override public Long getId() { return id; }
+    @Override public String getTitle() { return title; }
+    @Override public Instant getCreatedAt() { return createdAt; }
+    @Override public Instant getUpdatedAt() { return updatedAt; }
+}
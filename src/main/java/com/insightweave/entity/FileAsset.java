@@ -4,8 +4,11 @@ package com.insightweave.entity;
 import com.insightweave.common.AuditedEntity;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity @Table(name = "file_assets")
+@Cacheable @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class FileAsset extends AuditedEntity {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -21,6 +24,5 @@ public class FileAsset extends AuditedEntity {
     @Column(length = 64, nullable = false)   // SHA-256 hex
     private String sha256;
 
-    @Column(columnDefinition = "TEXT")       // Extracted text content for search/analysis
-    private String extractedText;
+    // Extracted text lives in file_asset_texts (FileAssetText), read through ExtractedTextStore
 }
@@ -0,0 +1,14 @@
+package com.insightweave.entity;
+
+import java.time.Instant;
+
+/** An attachment without its extracted text, with the id of the document it belongs to. */
+public interface FileAssetHeader {
+    Long getDocumentId();
+    Long getId();
+    String getOriginalFilename();
+    String getContentType();
+    Long getSizeBytes();
+    Instant getCreatedAt();
+    Instant getUpdatedAt();
+}
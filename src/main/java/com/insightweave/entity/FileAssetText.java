@@ -0,0 +1,39 @@
+// entity/FileAssetText.java
+package com.insightweave.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * The extracted text of a file asset, deflate-compressed and kept out of file_assets so loading
+ * an asset never reads it. Read it through ExtractedTextStore. The row shares the asset's id and
+ * the foreign key cascades, so deleting the asset (orphan removal included) deletes the text.
+ */
+@Entity @Table(name = "file_asset_texts")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class FileAssetText {
+
+    @Id
+    @Column(name = "file_asset_id")
+    private Long fileAssetId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "file_asset_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private FileAsset fileAsset;
+
+    @Column(nullable = false, length = 16)   // "deflate"
+    private String codec;
+
+    @Column(name = "char_length", nullable = false)
+    private Integer charLength;
+
+    @Column(name = "byte_length", nullable = false)   // uncompressed UTF-8
+    private Integer byteLength;
+
+    @Column(nullable = false, columnDefinition = "bytea")
+    private byte[] data;
+}
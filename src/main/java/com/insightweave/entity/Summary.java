@@ -4,11 +4,15 @@ package com.insightweave.entity;
 import com.insightweave.common.AuditedEntity;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "summaries", indexes = {
-    @Index(name = "idx_summaries_file_asset_id", columnList = "file_asset_id")
+    @Index(name = "idx_summaries_file_asset_id", columnList = "file_asset_id"),
+    @Index(name = "idx_summaries_source_sha256", columnList = "source_sha256")
 })
+@Cacheable @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Summary extends AuditedEntity {
     
@@ -30,4 +34,14 @@ public class Summary extends AuditedEntity {
 
     @Column(name = "latency_ms")
     private Integer latencyMs;
+
+    // SHA-256 of the summarized file and the parameters used, for reuse across identical uploads
+    @Column(name = "source_sha256", length = 64)
+    private String sourceSha256;
+
+    @Column(name = "max_length")
+    private Integer maxLength;
+
+    @Column(name = "min_length")
+    private Integer minLength;
 }
@@ -0,0 +1,45 @@
+// entity/SummaryChunk.java
+package com.insightweave.entity;
+
+import com.insightweave.common.AuditedEntity;
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Partial summary of one chunk of a long document (level 0) or of a group of partial summaries
+ * (level 1 and up). Keyed by the chunk's SHA-256 and summary parameters, so a retried or
+ * repeated summarization skips every chunk that already finished.
+ */
+@Entity
+@Table(name = "summary_chunks", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_summary_chunks_key",
+        columnNames = {"chunk_sha256", "max_length", "min_length", "style", "model_name"})
+})
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class SummaryChunk extends AuditedEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "chunk_sha256", length = 64, nullable = false)
+    private String chunkSha256;
+
+    @Column(nullable = false)
+    private int level;
+
+    @Column(name = "max_length", nullable = false)
+    private int maxLength;
+
+    @Column(name = "min_length", nullable = false)
+    private int minLength;
+
+    @Column(length = 50, nullable = false)
+    private String style;
+
+    @Column(name = "model_name", length = 100, nullable = false)
+    private String modelName;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String summaryText;
+}
@@ -0,0 +1,58 @@
+// entity/SummaryJob.java
+package com.insightweave.entity;
+
+import com.insightweave.common.AuditedEntity;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A queued request to summarize a file asset's extracted text. Rows are claimed by worker
+ * threads on any node; the text itself is read from file_asset_texts when the job runs.
+ */
+@Entity
+@Table(name = "summary_jobs", indexes = {
+    @Index(name = "idx_summary_jobs_status_next_attempt", columnList = "status, next_attempt_at"),
+    @Index(name = "idx_summary_jobs_file_asset_id", columnList = "file_asset_id")
+})
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class SummaryJob extends AuditedEntity {
+
+    public enum Status { PENDING, RUNNING, SUCCEEDED, DEAD }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "file_asset_id", nullable = false)
+    private Long fileAssetId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16, nullable = false)
+    @Builder.Default
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "lease_expires_at")
+    private Instant leaseExpiresAt;
+
+    @Column(name = "locked_by", length = 100)
+    private String lockedBy;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    private Integer maxLength;
+
+    private Integer minLength;
+
+    @Column(length = 50)
+    private String style;
+}
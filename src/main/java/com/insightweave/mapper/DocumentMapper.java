@@ -15,6 +15,10 @@ public interface DocumentMapper {
     // Read: entity -> response (attachments are mapped automatically using FileAssetMapper)
     DocumentResponse toResponse(Document entity);
 
+    // Read without touching the lazy attachments (DocumentAggregateLoader fills them in batch)
+    @Mapping(target = "attachments", ignore = true)
+    DocumentResponse toResponseWithoutAttachments(Document entity);
+
     // Update existing entity (for PUT/PATCH)
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mapping(target = "id", ignore = true)
@@ -3,6 +3,7 @@ package com.insightweave.mapper;
 
 import com.insightweave.dto.FileAssetDto;
 import com.insightweave.entity.FileAsset;
+import com.insightweave.entity.FileAssetHeader;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.ReportingPolicy;
@@ -15,5 +16,8 @@ public interface FileAssetMapper {
     @Mapping(target = "summaries", expression = "java(java.util.Collections.emptyList())")
     FileAssetDto toDto(FileAsset entity);
 
+    // no extracted text and no summaries (null, so they are left out of the JSON)
+    FileAssetDto toDto(FileAssetHeader header);
+
     List<FileAssetDto> toDtoList(List<FileAsset> entities);
 }
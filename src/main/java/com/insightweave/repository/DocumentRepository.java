@@ -1,12 +1,22 @@
 package com.insightweave.repository;
 
 import com.insightweave.entity.Document;
+import com.insightweave.entity.DocumentHeader;
+import com.insightweave.entity.FileAssetHeader;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
 public interface DocumentRepository extends JpaRepository<Document, Long> {
 
     @Query("""
@@ -15,4 +25,145 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
                        or lower(d.content) like lower(concat('%', :q, '%')))
     """)
     Page<Document> search(@Param("q") String q, Pageable pageable);
+
+    // Header projections (view=summary) select no TEXT columns; content is only read by the filter
+    @Query(value = """
+        select new com.insightweave.entity.DocumentHeaderRow(d.id, d.title, d.createdAt, d.updatedAt)
+        from Document d
+    """,
+        countQuery = "select count(d) from Document d")
+    Page<DocumentHeader> findAllHeaders(Pageable pageable);
+
+    @Query(value = """
+        select new com.insightweave.entity.DocumentHeaderRow(d.id, d.title, d.createdAt, d.updatedAt)
+        from Document d
+        where (:q is null or lower(d.title) like lower(concat('%', :q, '%'))
+                       or lower(d.content) like lower(concat('%', :q, '%')))
+    """,
+        countQuery = """
+        select count(d) from Document d
+        where (:q is null or lower(d.title) like lower(concat('%', :q, '%'))
+                       or lower(d.content) like lower(concat('%', :q, '%')))
+    """)
+    Page<DocumentHeader> searchHeaders(@Param("q") String q, Pageable pageable);
+
+    @Query("""
+        select new com.insightweave.entity.DocumentHeaderRow(d.id, d.title, d.createdAt, d.updatedAt)
+        from Document d
+        where d.id in :ids
+    """)
+    List<DocumentHeader> findHeadersByIds(@Param("ids") Collection<Long> ids);
+
+    // Keyset paging, newest first, backed by idx_documents_updated_at_id. The pageable must be
+    // unsorted (e.g. Pageable.ofSize); a Slice fetches one extra row instead of running a count.
+    @Query("select d from Document d order by d.updatedAt desc, d.id desc")
+    Slice<Document> findNewest(Pageable pageable);
+
+    // The redundant updatedAt <= bound lets the database start the index scan at the cursor
+    @Query("""
+        select d from Document d
+        where d.updatedAt <= :updatedAt
+          and (d.updatedAt < :updatedAt or d.id < :id)
+        order by d.updatedAt desc, d.id desc
+    """)
+    Slice<Document> findNewestAfter(@Param("updatedAt") Instant updatedAt, @Param("id") Long id, Pageable pageable);
+
+    @Query("""
+        select d from Document d
+        where lower(d.title) like lower(concat('%', :q, '%'))
+           or lower(d.content) like lower(concat('%', :q, '%'))
+        order by d.updatedAt desc, d.id desc
+    """)
+    Slice<Document> searchNewest(@Param("q") String q, Pageable pageable);
+
+    @Query("""
+        select d from Document d
+        where (lower(d.title) like lower(concat('%', :q, '%'))
+               or lower(d.content) like lower(concat('%', :q, '%')))
+          and d.updatedAt <= :updatedAt
+          and (d.updatedAt < :updatedAt or d.id < :id)
+        order by d.updatedAt desc, d.id desc
+    """)
+    Slice<Document> searchNewestAfter(@Param("q") String q, @Param("updatedAt") Instant updatedAt,
+                                      @Param("id") Long id, Pageable pageable);
+
+    // PostgreSQL only: needs the search_vector columns from db/fulltext-search.sql.
+    // A document's score is its own rank plus the best rank among its attachments.
+    String FULL_TEXT_HITS = """
+        with q as (select to_tsquery('english', :tsquery) as query),
+        hits as (
+            select h.id, sum(h.rank) as rank from (
+                select d.id, ts_rank(d.search_vector, q.query) as rank
+                from documents d, q
+                where d.search_vector @@ q.query
+                union all
+                select f.document_id, max(ts_rank(t.search_vector, q.query))
+                from file_asset_texts t join file_assets f on f.id = t.file_asset_id, q
+                where t.search_vector @@ q.query and f.document_id is not null
+                group by f.document_id
+            ) h
+            group by h.id
+        )
+        """;
+
+    String FULL_TEXT_COUNT = """
+        with q as (select to_tsquery('english', :tsquery) as query)
+        select count(*) from (
+            select d.id from documents d, q where d.search_vector @@ q.query
+            union
+            select f.document_id from file_asset_texts t join file_assets f on f.id = t.file_asset_id, q
+            where t.search_vector @@ q.query and f.document_id is not null
+        ) hits
+        """;
+
+    @Query(value = FULL_TEXT_HITS + """
+        select d.* from hits join documents d on d.id = hits.id
+        order by hits.rank desc, d.updated_at desc, d.id desc
+        """,
+        countQuery = FULL_TEXT_COUNT,
+        nativeQuery = true)
+    Page<Document> fullTextSearch(@Param("tsquery") String tsquery, Pageable pageable);
+
+    // Same hits and order as fullTextSearch, ids only: the header view loads just the header
+    // columns of these with findHeadersByIds
+    @Query(value = FULL_TEXT_HITS + """
+        select d.id from hits join documents d on d.id = hits.id
+        order by hits.rank desc, d.updated_at desc, d.id desc
+        """,
+        countQuery = FULL_TEXT_COUNT,
+        nativeQuery = true)
+    Page<Long> fullTextSearchIds(@Param("tsquery") String tsquery, Pageable pageable);
+
+    // Documents changed at or after a point in time, themselves or through an attachment; the
+    // search index re-indexes these after a restart
+    @Query("""
+        select distinct d.id from Document d left join d.attachments a
+        where d.updatedAt >= :since or a.updatedAt >= :since
+    """)
+    List<Long> findIdsChangedSince(@Param("since") Instant since);
+
+    @Query("select d.id from Document d")
+    List<Long> findAllIds();
+
+    // Ownership check without loading the attachment collection. Cacheable queries are served
+    // from the query cache with insightweave.cache.second-level=true
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("""
+        select case when count(a) > 0 then true else false end
+        from Document d join d.attachments a
+        where d.id = :docId and a.id = :fileId
+    """)
+    boolean hasAttachment(@Param("docId") Long docId, @Param("fileId") Long fileId);
+
+    // Batch read of attachments for list pages and indexing, with the id of their document
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("""
+        select d.id as documentId, a.id as id, a.originalFilename as originalFilename,
+               a.contentType as contentType, a.sizeBytes as sizeBytes,
+               a.createdAt as createdAt, a.updatedAt as updatedAt
+        from Document d join d.attachments a
+        where d.id in :ids
+        order by a.id
+    """)
+    List<FileAssetHeader> findAttachmentHeadersByDocumentIds(@Param("ids") Collection<Long> ids);
 }
@@ -2,5 +2,12 @@ package com.insightweave.repository;
 
 import com.insightweave.entity.FileAsset;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface FileAssetRepository extends JpaRepository<FileAsset, Long> {}
+public interface FileAssetRepository extends JpaRepository<FileAsset, Long> {
+
+    // document_id is only mapped from the Document side (Document.attachments), so read the column directly
+    @Query(value = "select document_id from file_assets where id = :id", nativeQuery = true)
+    Long findDocumentIdById(@Param("id") Long id);
+}
@@ -0,0 +1,11 @@
+package com.insightweave.repository;
+
+import com.insightweave.entity.FileAssetText;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface FileAssetTextRepository extends JpaRepository<FileAssetText, Long> {
+    List<FileAssetText> findByFileAssetIdIn(Collection<Long> fileAssetIds);
+}
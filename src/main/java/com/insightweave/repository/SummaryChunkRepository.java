@@ -0,0 +1,12 @@
+package com.insightweave.repository;
+
+import com.insightweave.entity.SummaryChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface SummaryChunkRepository extends JpaRepository<SummaryChunk, Long> {
+
+    List<SummaryChunk> findByChunkSha256AndMaxLengthAndMinLengthAndStyle(
+            String chunkSha256, int maxLength, int minLength, String style);
+}
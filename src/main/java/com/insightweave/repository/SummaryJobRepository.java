@@ -0,0 +1,73 @@
+package com.insightweave.repository;
+
+import com.insightweave.entity.SummaryJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface SummaryJobRepository extends JpaRepository<SummaryJob, Long> {
+
+    /**
+     * Locks up to {@code limit} runnable jobs: pending ones that are due, and running ones whose
+     * lease has expired because their worker died, if they have attempts left. Rows locked by
+     * another transaction are skipped, so concurrent workers on any node never claim the same job.
+     * Must run inside a transaction.
+     */
+    @Query(value = """
+            select id from summary_jobs
+            where (status = 'PENDING' and next_attempt_at <= :now)
+               or (status = 'RUNNING' and lease_expires_at < :now and attempts < :maxAttempts)
+            order by next_attempt_at
+            limit :limit
+            for update skip locked
+            """, nativeQuery = true)
+    List<Long> lockRunnable(@Param("now") Instant now, @Param("maxAttempts") int maxAttempts,
+                            @Param("limit") int limit);
+
+    @Modifying
+    @Query("""
+            update SummaryJob j
+            set j.status = com.insightweave.entity.SummaryJob.Status.RUNNING,
+                j.lockedBy = :worker, j.leaseExpiresAt = :leaseExpiresAt, j.attempts = j.attempts + 1,
+                j.updatedAt = :now
+            where j.id in :ids
+            """)
+    int markRunning(@Param("ids") Collection<Long> ids, @Param("worker") String worker,
+                    @Param("leaseExpiresAt") Instant leaseExpiresAt, @Param("now") Instant now);
+
+    /** Moves running jobs whose lease expired on their last allowed attempt to DEAD. */
+    @Modifying
+    @Query("""
+            update SummaryJob j
+            set j.status = com.insightweave.entity.SummaryJob.Status.DEAD,
+                j.lockedBy = null, j.leaseExpiresAt = null, j.lastError = :error, j.updatedAt = :now
+            where j.status = com.insightweave.entity.SummaryJob.Status.RUNNING
+              and j.leaseExpiresAt < :now and j.attempts >= :maxAttempts
+            """)
+    int markExpiredDead(@Param("now") Instant now, @Param("maxAttempts") int maxAttempts,
+                        @Param("error") String error);
+
+    @Modifying
+    @Query("""
+            update SummaryJob j
+            set j.leaseExpiresAt = :leaseExpiresAt, j.updatedAt = :now
+            where j.id = :id and j.lockedBy = :worker
+              and j.status = com.insightweave.entity.SummaryJob.Status.RUNNING
+            """)
+    int renewLease(@Param("id") Long id, @Param("worker") String worker,
+                   @Param("leaseExpiresAt") Instant leaseExpiresAt, @Param("now") Instant now);
+
+    @Modifying
+    @Query("""
+            delete from SummaryJob j
+            where j.status = com.insightweave.entity.SummaryJob.Status.SUCCEEDED and j.updatedAt < :before
+            """)
+    int deleteSucceededBefore(@Param("before") Instant before);
+
+    long countByStatus(SummaryJob.Status status);
+}
@@ -1,16 +1,34 @@
 package com.insightweave.repository;
 
 import com.insightweave.entity.Summary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface SummaryRepository extends JpaRepository<Summary, Long> {
-    
+
+    // Per-file reads go through the query cache with insightweave.cache.second-level=true;
+    // any write to summaries invalidates them
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Summary> findByFileAssetId(Long fileAssetId);
-    
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Summary> findByFileAssetIdIn(Collection<Long> fileAssetIds);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Summary> findFirstByFileAssetIdOrderByCreatedAtDesc(Long fileAssetId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<Summary> findFirstByFileAssetIdAndMaxLengthAndMinLengthAndStyleOrderByCreatedAtDesc(
+            Long fileAssetId, Integer maxLength, Integer minLength, String style);
+
+    Optional<Summary> findFirstBySourceSha256AndMaxLengthAndMinLengthAndStyleAndModelNameOrderByCreatedAtDesc(
+            String sourceSha256, Integer maxLength, Integer minLength, String style, String modelName);
     
     void deleteByFileAssetId(Long fileAssetId);
 }
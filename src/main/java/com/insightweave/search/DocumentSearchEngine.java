@@ -0,0 +1,42 @@
+package com.insightweave.search;
+
+import com.insightweave.dto.DocumentCursor;
+import com.insightweave.entity.Document;
+import com.insightweave.entity.DocumentHeader;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Backend for /api/documents/search, selected with insightweave.search.engine.
+ */
+public interface DocumentSearchEngine {
+    Page<Document> search(String q, Pageable pageable);
+
+    /**
+     * Same hits as {@link #search}, without document content (view=summary). Engines that can
+     * should select only the header columns; by default the full documents are loaded.
+     */
+    default Page<? extends DocumentHeader> searchHeaders(String q, Pageable pageable) {
+        return search(q, pageable);
+    }
+
+    /**
+     * Whether {@link #scroll} is implemented. Engines that rank by relevance (fulltext, index)
+     * have no newest-first order to put a cursor in, so /search/scroll answers 400 with them.
+     */
+    default boolean supportsScroll() {
+        return false;
+    }
+
+    /**
+     * Cursor-paged search in newest-first order, for /api/documents/search/scroll. Only called
+     * when {@link #supportsScroll()} is true.
+     *
+     * @param q a non-blank query
+     * @param after the last document of the previous slice, or null for the first slice
+     */
+    default Slice<Document> scroll(String q, DocumentCursor after, int size) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support cursor paging");
+    }
+}
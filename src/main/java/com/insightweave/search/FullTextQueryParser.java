@@ -0,0 +1,94 @@
+package com.insightweave.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns user search input into PostgreSQL tsquery syntax.
+ *
+ * <ul>
+ *   <li>{@code quick fox} - both terms ({@code quick & fox})</li>
+ *   <li>{@code quick OR fox} - either term ({@code quick | fox})</li>
+ *   <li>{@code "quick brown fox"} - phrase ({@code quick <-> brown <-> fox})</li>
+ *   <li>{@code summar*} - prefix ({@code summar:*})</li>
+ *   <li>{@code -draft} - exclusion ({@code !draft})</li>
+ * </ul>
+ *
+ * Everything except letters and digits is stripped from terms, so the output is always
+ * a well-formed tsquery and never carries operators the user did not ask for.
+ */
+public final class FullTextQueryParser {
+
+    private static final Pattern TOKEN = Pattern.compile("(-?)\"([^\"]*)\"?|(\\S+)");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private FullTextQueryParser() {}
+
+    /**
+     * @param input raw user input
+     * @return a tsquery string, or null when the input holds no searchable terms
+     */
+    public static String toTsQuery(String input) {
+        if (input == null || input.isBlank()) {
+            return null;
+        }
+
+        List<String> clauses = new ArrayList<>();
+        List<String> operators = new ArrayList<>();
+        boolean nextIsOr = false;
+
+        Matcher m = TOKEN.matcher(input);
+        while (m.find()) {
+            String clause;
+            if (m.group(2) != null) {
+                clause = phrase(m.group(2), false);
+                if (clause != null && !m.group(1).isEmpty()) clause = "!" + clause;
+            } else {
+                String raw = m.group(3);
+                if (raw.equalsIgnoreCase("OR")) {
+                    nextIsOr = !clauses.isEmpty();
+                    continue;
+                }
+                boolean negate = raw.startsWith("-");
+                boolean prefix = raw.endsWith("*");
+                clause = phrase(raw, prefix);
+                if (clause != null && negate) clause = "!" + clause;
+            }
+            if (clause == null) {
+                continue;
+            }
+            if (!clauses.isEmpty()) {
+                operators.add(nextIsOr ? " | " : " & ");
+            }
+            clauses.add(clause);
+            nextIsOr = false;
+        }
+
+        if (clauses.isEmpty()) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(clauses.get(0));
+        for (int i = 1; i < clauses.size(); i++) {
+            sb.append(operators.get(i - 1)).append(clauses.get(i));
+        }
+        return sb.toString();
+    }
+
+    // Words of a term or quoted phrase joined with the followed-by operator
+    private static String phrase(String text, boolean prefixLast) {
+        String[] words = NON_WORD.split(text.toLowerCase());
+        List<String> kept = new ArrayList<>();
+        for (String w : words) {
+            if (!w.isEmpty()) kept.add(w);
+        }
+        if (kept.isEmpty()) {
+            return null;
+        }
+        if (prefixLast) {
+            kept.set(kept.size() - 1, kept.get(kept.size() - 1) + ":*");
+        }
+        return kept.size() == 1 ? kept.get(0) : "(" + String.join(" <-> ", kept) + ")";
+    }
+}
@@ -0,0 +1,375 @@
+package com.insightweave.search;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index with BM25 ranking, keyed by document id.
+ *
+ * Every indexed version of a document gets an internal ordinal. Postings are only ever
+ * appended, so re-indexing a document tombstones its old ordinal instead of rewriting
+ * postings; {@link #compact()} drops tombstones and renumbers. Until then document
+ * frequencies still count tombstoned postings, which slightly skews IDF.
+ *
+ * Searches share a read lock; updates take the write lock.
+ */
+final class InvertedIndex {
+
+    static final float K1 = 1.2f;
+    static final float B = 0.75f;
+
+    private static final int MAGIC = 0x49574958; // "IWIX"
+    // 2: watermark after liveLength
+    private static final int VERSION = 2;
+    private static final long NO_WATERMARK = Long.MIN_VALUE;
+
+    record Hits(long totalHits, List<Long> docIds) {
+        static final Hits EMPTY = new Hits(0, List.of());
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final LongIntHashMap ordinalsByDocId = new LongIntHashMap();
+    private final BitSet deleted = new BitSet();
+    private long[] docIds = new long[1024];
+    private int[] lengths = new int[1024];
+    private int ordinals;
+    private int liveDocs;
+    private long liveLength;
+    // epoch microseconds of the latest change the index reflects, or NO_WATERMARK
+    private long watermark = NO_WATERMARK;
+
+    /**
+     * Index (or re-index) a document.
+     *
+     * @param docId the document id
+     * @param termFreqs term → frequency within the document
+     * @param length number of tokens in the document, used for BM25 length normalisation
+     */
+    void put(long docId, Map<String, Integer> termFreqs, int length) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(docId);
+            int ord = ordinals++;
+            if (ord == docIds.length) {
+                docIds = Arrays.copyOf(docIds, ord * 2);
+                lengths = Arrays.copyOf(lengths, ord * 2);
+            }
+            docIds[ord] = docId;
+            lengths[ord] = length;
+            ordinalsByDocId.put(docId, ord);
+            liveDocs++;
+            liveLength += length;
+            termFreqs.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new PostingList()).add(ord, tf));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** @return true if the document was indexed */
+    boolean remove(long docId) {
+        lock.writeLock().lock();
+        try {
+            return removeLocked(docId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean removeLocked(long docId) {
+        int ord = ordinalsByDocId.remove(docId);
+        if (ord < 0) {
+            return false;
+        }
+        deleted.set(ord);
+        liveDocs--;
+        liveLength -= lengths[ord];
+        return true;
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Ids of the documents currently indexed. */
+    List<Long> indexedDocIds() {
+        lock.readLock().lock();
+        try {
+            List<Long> ids = new ArrayList<>(liveDocs);
+            for (int ord = 0; ord < ordinals; ord++) {
+                if (!deleted.get(ord)) ids.add(docIds[ord]);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The latest document or attachment change time the index reflects: everything changed up to
+     * it was indexed. Null for an index that has never seen a change time.
+     */
+    Instant watermark() {
+        lock.readLock().lock();
+        try {
+            return watermark == NO_WATERMARK ? null : Instant.EPOCH.plus(watermark, ChronoUnit.MICROS);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Move the watermark forward to {@code changedAt}, once everything up to it is indexed. */
+    void advanceWatermark(Instant changedAt) {
+        long micros = ChronoUnit.MICROS.between(Instant.EPOCH, changedAt);
+        lock.writeLock().lock();
+        try {
+            watermark = Math.max(watermark, micros);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int tombstones() {
+        lock.readLock().lock();
+        try {
+            return ordinals - liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rank documents matching any of the terms with BM25.
+     *
+     * @param terms query terms (already tokenized)
+     * @param offset number of ranked hits to skip
+     * @param limit maximum number of hits to return
+     */
+    Hits search(Collection<String> terms, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            if (liveDocs == 0 || terms.isEmpty() || limit <= 0) {
+                return Hits.EMPTY;
+            }
+            Scorer scorer = new Scorer(new float[ordinals], (float) liveLength / liveDocs);
+            for (String term : new LinkedHashSet<>(terms)) {
+                PostingList pl = postings.get(term);
+                if (pl == null) continue;
+                int df = Math.min(pl.docFreq(), liveDocs);
+                scorer.idf = (float) Math.log(1 + (liveDocs - df + 0.5) / (df + 0.5));
+                pl.forEach(scorer);
+            }
+            float[] scores = scorer.scores;
+            int[] touched = scorer.touched;
+            int hits = scorer.hits;
+
+            int k = (int) Math.min((long) offset + limit, hits);
+            if (k <= offset) {
+                return new Hits(hits, List.of());
+            }
+            // min-heap of the best k; ties go to the most recently indexed document
+            PriorityQueue<Integer> top = new PriorityQueue<>(k, (a, b) -> {
+                int c = Float.compare(scores[a], scores[b]);
+                return c != 0 ? c : Integer.compare(a, b);
+            });
+            for (int i = 0; i < hits; i++) {
+                int ord = touched[i];
+                if (top.size() < k) {
+                    top.add(ord);
+                } else if (top.comparator().compare(ord, top.peek()) > 0) {
+                    top.poll();
+                    top.add(ord);
+                }
+            }
+            long[] ranked = new long[top.size()];
+            for (int i = ranked.length - 1; i >= 0; i--) {
+                ranked[i] = docIds[top.poll()];
+            }
+            List<Long> page = new ArrayList<>(ranked.length - offset);
+            for (int i = offset; i < ranked.length; i++) {
+                page.add(ranked[i]);
+            }
+            return new Hits(hits, page);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Accumulates BM25 scores per ordinal and remembers which ordinals were hit
+    private final class Scorer implements PostingList.Visitor {
+        final float[] scores;
+        final float avgLength;
+        int[] touched = new int[16];
+        int hits;
+        float idf;
+
+        Scorer(float[] scores, float avgLength) {
+            this.scores = scores;
+            this.avgLength = Math.max(1f, avgLength);
+        }
+
+        @Override public void accept(int ord, int tf) {
+            if (deleted.get(ord)) return;
+            float norm = K1 * (1 - B + B * lengths[ord] / avgLength);
+            if (scores[ord] == 0f) {
+                if (hits == touched.length) touched = Arrays.copyOf(touched, hits * 2);
+                touched[hits++] = ord;
+            }
+            scores[ord] += idf * tf * (K1 + 1) / (tf + norm);
+        }
+    }
+
+    /** Drop tombstoned postings and renumber the remaining documents densely. */
+    void compact() {
+        lock.writeLock().lock();
+        try {
+            compactLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void compactLocked() {
+        if (ordinals == liveDocs) {
+            return;
+        }
+        int[] remap = new int[ordinals];
+        int next = 0;
+        for (int ord = 0; ord < ordinals; ord++) {
+            if (deleted.get(ord)) {
+                remap[ord] = -1;
+                continue;
+            }
+            remap[ord] = next;
+            docIds[next] = docIds[ord];
+            lengths[next] = lengths[ord];
+            ordinalsByDocId.put(docIds[next], next);
+            next++;
+        }
+        Iterator<PostingList> it = postings.values().iterator();
+        while (it.hasNext()) {
+            PostingList pl = it.next();
+            pl.remap(remap);
+            if (pl.docFreq() == 0) it.remove();
+        }
+        deleted.clear();
+        ordinals = next;
+    }
+
+    /**
+     * Compact and write the index as a single segment file. The segment is written through a
+     * memory mapping into a temp file and then atomically renamed over the previous one.
+     */
+    void save(Path file) throws IOException {
+        lock.writeLock().lock();
+        try {
+            compactLocked();
+            // downgrade so searches can run while the segment is written
+            lock.readLock().lock();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            List<byte[]> termBytes = new ArrayList<>(postings.size());
+            List<PostingList> lists = new ArrayList<>(postings.size());
+            long size = 4 + 4 + 4 + 8 + 8 + (long) ordinals * (8 + 4) + 4;
+            for (Map.Entry<String, PostingList> e : postings.entrySet()) {
+                byte[] t = e.getKey().getBytes(StandardCharsets.UTF_8);
+                termBytes.add(t);
+                lists.add(e.getValue());
+                size += 4 + t.length + 4 + 4 + 4 + e.getValue().byteSize();
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Index segment too large: " + size + " bytes");
+            }
+
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buf.putInt(MAGIC).putInt(VERSION).putInt(ordinals).putLong(liveLength).putLong(watermark);
+                for (int ord = 0; ord < ordinals; ord++) {
+                    buf.putLong(docIds[ord]).putInt(lengths[ord]);
+                }
+                buf.putInt(lists.size());
+                for (int i = 0; i < lists.size(); i++) {
+                    PostingList pl = lists.get(i);
+                    buf.putInt(termBytes.get(i).length).put(termBytes.get(i));
+                    buf.putInt(pl.docFreq()).putInt(pl.lastOrdinal()).putInt(pl.byteSize());
+                    buf.put(pl.bytes(), 0, pl.byteSize());
+                }
+                buf.force();
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Read a segment written by {@link #save(Path)}.
+     *
+     * @throws IOException if the file is missing, truncated or from another format version
+     */
+    static InvertedIndex load(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            if (buf.remaining() < 28 || buf.getInt() != MAGIC || buf.getInt() != VERSION) {
+                throw new IOException("Not an index segment: " + file);
+            }
+            InvertedIndex index = new InvertedIndex();
+            int docs = buf.getInt();
+            index.liveLength = buf.getLong();
+            index.watermark = buf.getLong();
+            index.docIds = new long[Math.max(1024, docs)];
+            index.lengths = new int[Math.max(1024, docs)];
+            for (int ord = 0; ord < docs; ord++) {
+                index.docIds[ord] = buf.getLong();
+                index.lengths[ord] = buf.getInt();
+                index.ordinalsByDocId.put(index.docIds[ord], ord);
+            }
+            index.ordinals = docs;
+            index.liveDocs = docs;
+
+            int terms = buf.getInt();
+            for (int i = 0; i < terms; i++) {
+                byte[] t = new byte[buf.getInt()];
+                buf.get(t);
+                int docFreq = buf.getInt();
+                int lastOrdinal = buf.getInt();
+                byte[] data = new byte[buf.getInt()];
+                buf.get(data);
+                index.postings.put(new String(t, StandardCharsets.UTF_8), new PostingList(data, docFreq, lastOrdinal));
+            }
+            return index;
+        } catch (RuntimeException e) {
+            // BufferUnderflowException, NegativeArraySizeException, ...
+            throw new IOException("Corrupt index segment: " + file, e);
+        }
+    }
+}
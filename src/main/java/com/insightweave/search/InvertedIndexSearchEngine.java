@@ -0,0 +1,250 @@
+package com.insightweave.search;
+
+import com.insightweave.entity.Document;
+import com.insightweave.entity.DocumentHeader;
+import com.insightweave.entity.FileAssetHeader;
+import com.insightweave.repository.DocumentRepository;
+import com.insightweave.service.DocumentChangedEvent;
+import com.insightweave.service.ExtractedTextStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * BM25-ranked search served from an in-JVM inverted index over document title, content and
+ * attachment extracted text.
+ *
+ * The index is updated incrementally from {@link DocumentChangedEvent}s on a single background
+ * thread, and periodically written to a segment file under insightweave.upload-dir together with
+ * a watermark, the latest document or attachment updated_at it reflects. On restart the segment is
+ * served at once and caught up in the background: documents changed since the watermark (less
+ * {@link #WATERMARK_MARGIN}, for transactions that committed out of order) are re-indexed, and ids
+ * only in the database or only in the index are added or dropped. So edits made after the last
+ * flush survive a crash; a full rebuild is only needed when the segment is missing or unreadable.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "insightweave.search.engine", havingValue = "index")
+public class InvertedIndexSearchEngine implements DocumentSearchEngine {
+
+    // Title terms count this many times, a cheap stand-in for per-field BM25 weights
+    private static final int TITLE_BOOST = 3;
+    private static final int REBUILD_BATCH = 500;
+    static final Duration WATERMARK_MARGIN = Duration.ofMinutes(5);
+
+    private final DocumentRepository repo;
+    private final ExtractedTextStore texts;
+
+    @Value("${insightweave.upload-dir:uploads}") String uploadDir;
+    @Value("${insightweave.search.index.flush-interval-ms:30000}") long flushIntervalMs;
+
+    private final ScheduledExecutorService indexer =
+            Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "search-indexer"));
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private volatile InvertedIndex index = new InvertedIndex();
+    private Path segmentFile;
+
+    @PostConstruct void init() throws IOException {
+        segmentFile = Paths.get(uploadDir).toAbsolutePath().normalize().resolve("index").resolve("documents.seg");
+        Files.createDirectories(segmentFile.getParent());
+
+        try {
+            InvertedIndex loaded = InvertedIndex.load(segmentFile);
+            index = loaded;
+            log.info("Loaded search index with {} documents up to {} from {}",
+                    loaded.size(), loaded.watermark(), segmentFile);
+            indexer.execute(this::catchUp);
+        } catch (NoSuchFileException e) {
+            indexer.execute(this::rebuild);
+        } catch (IOException e) {
+            log.warn("Discarding unreadable search index: {}", e.getMessage());
+            indexer.execute(this::rebuild);
+        }
+
+        indexer.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy void shutdown() throws InterruptedException {
+        indexer.shutdown();
+        indexer.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+    }
+
+    @Override public Page<Document> search(String q, Pageable pageable) {
+        return search(q, pageable, repo::findAll, repo::findAllById);
+    }
+
+    @Override public Page<DocumentHeader> searchHeaders(String q, Pageable pageable) {
+        return search(q, pageable, repo::findAllHeaders, repo::findHeadersByIds);
+    }
+
+    private <T extends DocumentHeader> Page<T> search(String q, Pageable pageable,
+                                                       Function<Pageable, Page<T>> all,
+                                                       Function<List<Long>, List<T>> byIds) {
+        List<String> terms = Tokenizer.tokens(q);
+        if (terms.isEmpty()) {
+            return all.apply(pageable);
+        }
+
+        var hits = index.search(terms, (int) pageable.getOffset(), pageable.getPageSize());
+        Map<Long, T> byId = byIds.apply(hits.docIds()).stream()
+                .collect(Collectors.toMap(DocumentHeader::getId, Function.identity()));
+
+        // keep rank order; skip documents deleted since they were indexed
+        List<T> ranked = hits.docIds().stream().map(byId::get).filter(Objects::nonNull).toList();
+        return new PageImpl<>(ranked, PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()), hits.totalHits());
+    }
+
+    // Runs after the surrounding transaction commits (or right away if there is none)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentChanged(DocumentChangedEvent event) {
+        indexer.execute(() -> {
+            try {
+                if (event.deleted()) {
+                    index.remove(event.documentId());
+                } else {
+                    reindex(event.documentId());
+                }
+                dirty.set(true);
+            } catch (Exception e) {
+                log.warn("Failed to update search index for documentId={}: {}", event.documentId(), e.getMessage());
+            }
+        });
+    }
+
+    private void reindex(Long docId) {
+        var doc = repo.findById(docId);
+        if (doc.isEmpty()) {
+            index.remove(docId);
+            return;
+        }
+        indexAll(index, List.of(doc.get()));
+    }
+
+    // Bring a loaded segment up to date with changes made after it was written
+    private void catchUp() {
+        try {
+            long start = System.currentTimeMillis();
+            Instant watermark = index.watermark();
+            List<Long> all = repo.findAllIds();
+            var stale = new LinkedHashSet<>(watermark == null ? all : repo.findIdsChangedSince(watermark.minus(WATERMARK_MARGIN)));
+            var indexed = new HashSet<>(index.indexedDocIds());
+            stale.addAll(all.stream().filter(id -> !indexed.contains(id)).toList());
+            indexed.removeAll(all);
+
+            indexed.forEach(index::remove);
+            List<Long> ids = new ArrayList<>(stale);
+            for (int from = 0; from < ids.size(); from += REBUILD_BATCH) {
+                List<Long> batch = ids.subList(from, Math.min(ids.size(), from + REBUILD_BATCH));
+                List<Document> docs = repo.findAllById(batch);
+                indexAll(index, docs);
+                // re-fetched ids that are gone were deleted meanwhile
+                var found = docs.stream().map(Document::getId).collect(Collectors.toSet());
+                batch.stream().filter(id -> !found.contains(id)).forEach(index::remove);
+            }
+            if (!stale.isEmpty() || !indexed.isEmpty()) {
+                dirty.set(true);
+            }
+            log.info("Search index caught up in {}ms: {} documents re-indexed, {} removed",
+                    System.currentTimeMillis() - start, stale.size(), indexed.size());
+        } catch (Exception e) {
+            log.error("Failed to catch the search index up, rebuilding: {}", e.getMessage(), e);
+            rebuild();
+        }
+    }
+
+    private void rebuild() {
+        try {
+            long start = System.currentTimeMillis();
+            InvertedIndex fresh = new InvertedIndex();
+            Page<Document> page = repo.findAll(PageRequest.of(0, REBUILD_BATCH, Sort.by("id")));
+            while (true) {
+                indexAll(fresh, page.getContent());
+                if (!page.hasNext()) break;
+                page = repo.findAll(page.nextPageable());
+            }
+            index = fresh;
+            dirty.set(true);
+            log.info("Rebuilt search index with {} documents in {}ms", fresh.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Failed to rebuild search index: {}", e.getMessage(), e);
+        }
+    }
+
+    private void indexAll(InvertedIndex target, List<Document> docs) {
+        if (docs.isEmpty()) {
+            return;
+        }
+        List<FileAssetHeader> headers = repo.findAttachmentHeadersByDocumentIds(docs.stream().map(Document::getId).toList());
+        Map<Long, String> textById = texts.readAll(headers.stream().map(FileAssetHeader::getId).toList());
+        Map<Long, List<String>> attachmentTexts = new HashMap<>();
+        for (FileAssetHeader header : headers) {
+            String text = textById.get(header.getId());
+            if (text != null) {
+                attachmentTexts.computeIfAbsent(header.getDocumentId(), k -> new ArrayList<>()).add(text);
+            }
+        }
+
+        for (Document doc : docs) {
+            Map<String, Integer> termFreqs = new HashMap<>();
+            int length = Tokenizer.count(doc.getTitle(), TITLE_BOOST, termFreqs);
+            length += Tokenizer.count(doc.getContent(), 1, termFreqs);
+            for (String text : attachmentTexts.getOrDefault(doc.getId(), List.of())) {
+                length += Tokenizer.count(text, 1, termFreqs);
+            }
+            target.put(doc.getId(), termFreqs, length);
+        }
+
+        // only now that they are all indexed may the watermark pass their change times
+        Stream.concat(docs.stream().map(Document::getUpdatedAt), headers.stream().map(FileAssetHeader::getUpdatedAt))
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .ifPresent(target::advanceWatermark);
+    }
+
+    private void flush() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        try {
+            index.save(segmentFile);
+        } catch (IOException e) {
+            dirty.set(true);
+            log.warn("Failed to write search index to {}: {}", segmentFile, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.insightweave.search;
+
+import com.insightweave.dto.DocumentCursor;
+import com.insightweave.entity.Document;
+import com.insightweave.entity.DocumentHeader;
+import com.insightweave.repository.DocumentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+
+/**
+ * Substring match on title/content. Portable, but scans every row.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "insightweave.search.engine", havingValue = "like", matchIfMissing = true)
+public class LikeSearchEngine implements DocumentSearchEngine {
+    private final DocumentRepository repo;
+
+    @Override public Page<Document> search(String q, Pageable pageable) {
+        return repo.search(q, pageable);
+    }
+
+    @Override public Page<DocumentHeader> searchHeaders(String q, Pageable pageable) {
+        return repo.searchHeaders(q, pageable);
+    }
+
+    @Override public boolean supportsScroll() {
+        return true;
+    }
+
+    @Override public Slice<Document> scroll(String q, DocumentCursor after, int size) {
+        return after == null
+                ? repo.searchNewest(q, Pageable.ofSize(size))
+                : repo.searchNewestAfter(q, after.updatedAt(), after.id(), Pageable.ofSize(size));
+    }
+}
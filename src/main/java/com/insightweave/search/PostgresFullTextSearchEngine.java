@@ -0,0 +1,113 @@
+package com.insightweave.search;
+
+import com.insightweave.entity.Document;
+import com.insightweave.entity.DocumentHeader;
+import com.insightweave.repository.DocumentRepository;
+import com.insightweave.service.ExtractedTextStoredEvent;
+import com.insightweave.storage.DeflateCodec;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * PostgreSQL full-text search over document title/content and attachment extracted text.
+ * Matches come from GIN-indexed tsvector columns and are ordered by ts_rank
+ * (title > content > attachments), so latency does not grow with table size.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "insightweave.search.engine", havingValue = "fulltext")
+public class PostgresFullTextSearchEngine implements DocumentSearchEngine {
+    private static final String UPDATE_VECTOR =
+            "update file_asset_texts set search_vector = setweight(to_tsvector('english', ?), 'C') "
+            + "where file_asset_id = ?";
+    private static final int BACKFILL_BATCH = 100;
+
+    private final DocumentRepository repo;
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbc;
+
+    // Hibernate has created/updated the tables by now; add the search columns on top
+    @PostConstruct void initSchema() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/fulltext-search.sql")).execute(dataSource);
+        log.info("Full-text search columns and indexes are in place");
+        backfillVectors();
+    }
+
+    // Runs inside the transaction that stored the text, so the vector commits with it
+    @EventListener void onTextStored(ExtractedTextStoredEvent event) {
+        jdbc.update(UPDATE_VECTOR, event.text(), event.fileAssetId());
+    }
+
+    /**
+     * Index text stored while another search engine was active (no listener wrote its vector),
+     * a batch at a time so only one batch of inflated text is in memory. Does nothing once every
+     * row has a vector.
+     */
+    private void backfillVectors() {
+        long indexed = 0;
+        long after = 0;
+        while (true) {
+            List<Object[]> batch = jdbc.query(
+                    "select file_asset_id, data from file_asset_texts "
+                            + "where search_vector is null and file_asset_id > ? order by file_asset_id limit ?",
+                    (rs, i) -> new Object[] {
+                            DeflateCodec.decompress(rs.getBytes("data")), rs.getLong("file_asset_id")},
+                    after, BACKFILL_BATCH);
+            if (batch.isEmpty()) {
+                break;
+            }
+            jdbc.batchUpdate(UPDATE_VECTOR, batch);
+            indexed += batch.size();
+            after = (Long) batch.get(batch.size() - 1)[1];
+        }
+        if (indexed > 0) {
+            log.info("Indexed the extracted text of {} files stored without a search vector", indexed);
+        }
+    }
+
+    @Override public Page<Document> search(String q, Pageable pageable) {
+        String tsQuery = FullTextQueryParser.toTsQuery(q);
+        if (tsQuery == null) {
+            return repo.findAll(pageable);
+        }
+        // results are ordered by relevance, so the caller's sort does not apply
+        return repo.fullTextSearch(tsQuery, PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+    }
+
+    @Override public Page<DocumentHeader> searchHeaders(String q, Pageable pageable) {
+        String tsQuery = FullTextQueryParser.toTsQuery(q);
+        if (tsQuery == null) {
+            return repo.findAllHeaders(pageable);
+        }
+        // the tsvector match ranks ids only; no content column is read for the page
+        Page<Long> ids = repo.fullTextSearchIds(tsQuery, PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), ids.getPageable(), ids.getTotalElements());
+        }
+        Map<Long, DocumentHeader> byId = repo.findHeadersByIds(ids.getContent()).stream()
+                .collect(Collectors.toMap(DocumentHeader::getId, Function.identity()));
+
+        // keep rank order; skip documents deleted between the two queries
+        List<DocumentHeader> ranked = ids.getContent().stream().map(byId::get).filter(Objects::nonNull).toList();
+        return new PageImpl<>(ranked, ids.getPageable(), ids.getTotalElements());
+    }
+}
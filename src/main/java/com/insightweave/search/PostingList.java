@@ -0,0 +1,105 @@
+package com.insightweave.search;
+
+import java.util.Arrays;
+
+/**
+ * Postings for one term: (ordinal delta, term frequency) pairs, varint-encoded into a byte[].
+ * Ordinals are appended in increasing order, so deltas stay small and positive.
+ */
+final class PostingList {
+
+    interface Visitor {
+        void accept(int ordinal, int termFreq);
+    }
+
+    private byte[] data;
+    private int size;
+    private int lastOrdinal = -1;
+    private int docFreq;
+
+    PostingList() {
+        data = new byte[8];
+    }
+
+    PostingList(byte[] data, int docFreq, int lastOrdinal) {
+        this.data = data;
+        this.size = data.length;
+        this.docFreq = docFreq;
+        this.lastOrdinal = lastOrdinal;
+    }
+
+    void add(int ordinal, int termFreq) {
+        if (ordinal <= lastOrdinal) {
+            throw new IllegalStateException("Ordinals must be appended in order: " + ordinal + " <= " + lastOrdinal);
+        }
+        if (size + 10 > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, size + 10));
+        }
+        size = writeVarint(data, size, ordinal - lastOrdinal);
+        size = writeVarint(data, size, termFreq);
+        lastOrdinal = ordinal;
+        docFreq++;
+    }
+
+    void forEach(Visitor visitor) {
+        int pos = 0;
+        int ordinal = -1;
+        while (pos < size) {
+            int delta = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = data[pos++];
+                delta |= (b & 0x7F) << shift;
+                if (b >= 0) break;
+            }
+            int tf = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = data[pos++];
+                tf |= (b & 0x7F) << shift;
+                if (b >= 0) break;
+            }
+            ordinal += delta;
+            visitor.accept(ordinal, tf);
+        }
+    }
+
+    /**
+     * Re-encode with renumbered ordinals; postings mapped to -1 are dropped.
+     * The mapping must preserve order, which compaction guarantees.
+     */
+    void remap(int[] newOrdinals) {
+        PostingList out = new PostingList();
+        forEach((ordinal, tf) -> {
+            int mapped = newOrdinals[ordinal];
+            if (mapped >= 0) out.add(mapped, tf);
+        });
+        this.data = out.data;
+        this.size = out.size;
+        this.docFreq = out.docFreq;
+        this.lastOrdinal = out.lastOrdinal;
+    }
+
+    int docFreq() {
+        return docFreq;
+    }
+
+    int lastOrdinal() {
+        return lastOrdinal;
+    }
+
+    int byteSize() {
+        return size;
+    }
+
+    byte[] bytes() {
+        return data;
+    }
+
+    private static int writeVarint(byte[] buf, int pos, int value) {
+        while ((value & ~0x7F) != 0) {
+            buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buf[pos++] = (byte) value;
+        return pos;
+    }
+}
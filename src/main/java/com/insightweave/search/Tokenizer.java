@@ -0,0 +1,67 @@
+package com.insightweave.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lower-cases text and splits it on anything that is not a letter or digit.
+ * Very short tokens and common English stop words are dropped.
+ */
+final class Tokenizer {
+
+    private static final int MIN_LENGTH = 2;
+    private static final int MAX_LENGTH = 64;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "from", "if", "in", "into",
+            "is", "it", "no", "not", "of", "on", "or", "such", "that", "the", "their", "then", "there",
+            "these", "they", "this", "to", "was", "were", "will", "with"
+    );
+
+    private Tokenizer() {}
+
+    /**
+     * Add each token's count, multiplied by weight, to termFreqs.
+     *
+     * @return the number of tokens found
+     */
+    static int count(String text, int weight, Map<String, Integer> termFreqs) {
+        List<String> tokens = tokens(text);
+        for (String t : tokens) {
+            termFreqs.merge(t, weight, Integer::sum);
+        }
+        return tokens.size();
+    }
+
+    static List<String> tokens(String text) {
+        List<String> out = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return out;
+        }
+        StringBuilder sb = new StringBuilder();
+        int i = 0;
+        while (i <= text.length()) {
+            int cp = i < text.length() ? text.codePointAt(i) : ' ';
+            if (Character.isLetterOrDigit(cp)) {
+                sb.appendCodePoint(Character.toLowerCase(cp));
+            } else if (!sb.isEmpty()) {
+                emit(sb, out);
+                sb.setLength(0);
+            }
+            i += i < text.length() ? Character.charCount(cp) : 1;
+        }
+        return out;
+    }
+
+    private static void emit(StringBuilder sb, List<String> out) {
+        if (sb.length() < MIN_LENGTH || sb.length() > MAX_LENGTH) {
+            return;
+        }
+        String token = sb.toString();
+        if (!STOP_WORDS.contains(token)) {
+            out.add(token);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.insightweave.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
@@ -10,11 +11,15 @@ import org.springframework.stereotype.Service;
  * Separated into its own service to avoid self-invocation issues with @Async.
  * This service does not use @Transactional since it's just a wrapper - the actual
  * transactional work happens in SummaryService.
+ *
+ * Queued work lives only in memory: it is lost on restart and rejected when the executor is full.
+ * Use insightweave.summary.queue=durable for the database-backed {@link SummaryJobService}.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class AsyncSummaryService {
+@ConditionalOnProperty(name = "insightweave.summary.queue", havingValue = "in-memory", matchIfMissing = true)
+public class AsyncSummaryService implements SummaryScheduler {
 
     private final SummaryService summaryService;
 
@@ -38,4 +43,11 @@ public class AsyncSummaryService {
             log.error("Failed to generate summary for fileAssetId={}: {}", fileAssetId, e.getMessage());
         }
     }
+
+    // @Async here too: the call below is a self-invocation and skips the proxy
+    @Async
+    @Override
+    public void scheduleSummary(Long fileAssetId, String extractedText) {
+        generateSummaryAsync(fileAssetId, extractedText);
+    }
 }
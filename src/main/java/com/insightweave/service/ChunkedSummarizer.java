@@ -0,0 +1,154 @@
+package com.insightweave.service;
+
+import com.insightweave.client.PythonAiClient;
+import com.insightweave.client.dto.SummarizeResponse;
+import com.insightweave.common.ConcurrencyLimit;
+import com.insightweave.entity.SummaryChunk;
+import com.insightweave.repository.SummaryChunkRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Map-reduce summarization for documents too long for one model call.
+ *
+ * The text is split into overlapping chunks of ai.summary.chunk.max-tokens on paragraph and
+ * sentence boundaries (see {@link TextChunker}); chunks are summarized in parallel, at most
+ * ai.summary.chunk.parallelism at a time per document; the partial summaries are then grouped and
+ * summarized again until they fit one call, and a final call applies the caller's parameters.
+ * Every partial summary is committed to summary_chunks as soon as it is produced, so a retry after
+ * a failure only calls the model for the chunks that did not finish.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChunkedSummarizer {
+
+    // rough token estimate for English text; only used to size chunks
+    private static final int CHARS_PER_TOKEN = 4;
+    private static final int MAX_REDUCE_LEVELS = 8;
+
+    private final PythonAiClient aiClient;
+    private final SummaryChunkRepository chunkRepo;
+    private final SummaryCache cache;
+
+    @Value("${ai.summary.chunk.threshold-tokens:3000}") int thresholdTokens;
+    @Value("${ai.summary.chunk.max-tokens:1500}") int maxTokens;
+    @Value("${ai.summary.chunk.overlap-tokens:150}") int overlapTokens;
+    @Value("${ai.summary.chunk.parallelism:4}") int parallelism;
+    @Value("${ai.summary.chunk.partial-max-length:200}") int partialMaxLength;
+    @Value("${ai.summary.chunk.partial-min-length:60}") int partialMinLength;
+
+    // chunk calls block on HTTP; the per-document ConcurrencyLimit is what bounds them
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @PreDestroy void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** True if the text is too long to summarize well in a single call. */
+    public boolean shouldChunk(String text) {
+        return text.length() > (long) thresholdTokens * CHARS_PER_TOKEN;
+    }
+
+    /**
+     * Summarize long text with a map pass over its chunks and reduce passes over the partials.
+     *
+     * @param text the text to summarize
+     * @param key the final summary's parameters
+     * @return the final response; latencyMs is the end-to-end time across all calls
+     */
+    public SummarizeResponse summarize(String text, SummaryCache.Key key) {
+        long start = System.nanoTime();
+        int budget = maxTokens * CHARS_PER_TOKEN;
+        var limit = new ConcurrencyLimit("chunk summaries", parallelism, Duration.ofHours(1));
+
+        List<String> chunks = TextChunker.chunk(text, budget, overlapTokens * CHARS_PER_TOKEN);
+        log.info("Summarizing {} characters in {} chunks", text.length(), chunks.size());
+        List<String> partials = summarizeAll(chunks, 0, key.style(), limit);
+
+        int level = 0;
+        String combined = String.join("\n\n", partials);
+        while (combined.length() > budget && level < MAX_REDUCE_LEVELS) {
+            level++;
+            List<String> groups = TextChunker.chunk(combined, budget, 0);
+            log.debug("Reduce level {}: {} partial summaries in {} groups", level, partials.size(), groups.size());
+            partials = summarizeAll(groups, level, key.style(), limit);
+            combined = String.join("\n\n", partials);
+        }
+
+        SummarizeResponse last = aiClient.summarize(combined, key.maxLength(), key.minLength(), key.style());
+        cache.observeModel(last.modelName());
+        int elapsedMs = (int) Duration.ofNanos(System.nanoTime() - start).toMillis();
+        return new SummarizeResponse(last.summary(), last.modelName(), elapsedMs,
+                text.length(), last.summaryLength(), last.style());
+    }
+
+    private List<String> summarizeAll(List<String> inputs, int level, String style, ConcurrencyLimit limit) {
+        // each call commits its own partial (no transaction on these threads), so finished chunks
+        // survive a failure elsewhere in the document
+        List<CompletableFuture<String>> futures = inputs.stream()
+                .map(input -> CompletableFuture.supplyAsync(() -> limit.call(() -> partial(input, level, style)), executor))
+                .toList();
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    private String partial(String input, int level, String style) {
+        String sha256 = sha256(input);
+        String model = cache.currentModel();
+        var done = chunkRepo.findByChunkSha256AndMaxLengthAndMinLengthAndStyle(
+                        sha256, partialMaxLength, partialMinLength, style).stream()
+                .filter(c -> model == null || model.equals(c.getModelName()))
+                .findFirst();
+        if (done.isPresent()) {
+            return done.get().getSummaryText();
+        }
+
+        SummarizeResponse response = aiClient.summarize(input, partialMaxLength, partialMinLength, style);
+        cache.observeModel(response.modelName());
+        try {
+            chunkRepo.save(SummaryChunk.builder()
+                    .chunkSha256(sha256)
+                    .level(level)
+                    .maxLength(partialMaxLength)
+                    .minLength(partialMinLength)
+                    .style(style)
+                    .modelName(response.modelName() != null ? response.modelName() : "unknown")
+                    .summaryText(response.summary())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // the same chunk was summarized concurrently (e.g. by another document); keep either
+            log.debug("Partial summary for chunk {} already stored", sha256);
+        }
+        return response.summary();
+    }
+
+    private static String sha256(String text) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
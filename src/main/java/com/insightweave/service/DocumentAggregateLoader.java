@@ -0,0 +1,178 @@
+package com.insightweave.service;
+
+import com.insightweave.dto.DocumentCursor;
+import com.insightweave.dto.DocumentResponse;
+import com.insightweave.dto.DocumentSlice;
+import com.insightweave.dto.FileAssetDto;
+import com.insightweave.dto.ResponseFields;
+import com.insightweave.entity.Document;
+import com.insightweave.entity.DocumentHeader;
+import com.insightweave.entity.FileAssetHeader;
+import com.insightweave.mapper.DocumentMapper;
+import com.insightweave.mapper.FileAssetMapper;
+import com.insightweave.repository.DocumentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Read-side loader that builds the DocumentResponse graph for a whole page of documents.
+ * Attachments and summaries are fetched with one set-based query each, so the cost of a
+ * page no longer grows with the number of documents or attachments on it.
+ *
+ * Extracted text comes from {@link ExtractedTextStore} in one more query, and only when the
+ * {@link ResponseFields} ask for it; likewise the summary query is skipped when summaries are
+ * left out.
+ */
+@Component
+@RequiredArgsConstructor
+public class DocumentAggregateLoader {
+
+    private final DocumentRepository documentRepository;
+    private final DocumentMapper documentMapper;
+    private final FileAssetMapper fileAssetMapper;
+    private final DocumentResponseEnricher enricher;
+    private final ExtractedTextStore texts;
+
+    /**
+     * Map a page of documents to fully populated responses.
+     *
+     * @param page the page of documents, as returned by the repository
+     * @return a page with the same paging metadata holding the enriched responses
+     */
+    @Transactional(readOnly = true)
+    public Page<DocumentResponse> loadPage(Page<Document> page) {
+        return loadPage(page, ResponseFields.FULL);
+    }
+
+    /**
+     * Map a page of documents to responses holding only the requested large fields.
+     *
+     * @param page full documents, or headers when content is not requested
+     * @param fields the large fields to load
+     * @return a page with the same paging metadata holding the responses
+     */
+    @Transactional(readOnly = true)
+    public Page<DocumentResponse> loadPage(Page<? extends DocumentHeader> page, ResponseFields fields) {
+        Map<Long, DocumentResponse> byId = load(page.getContent(), fields).stream()
+            .collect(Collectors.toMap(DocumentResponse::id, Function.identity()));
+        return page.map(doc -> byId.get(doc.getId()));
+    }
+
+    /**
+     * Map a keyset slice of documents to fully populated responses.
+     *
+     * @param slice documents in newest-first order (updatedAt desc, id desc)
+     * @return the responses and, if there are more, the cursor for the next slice
+     */
+    @Transactional(readOnly = true)
+    public DocumentSlice loadSlice(Slice<Document> slice) {
+        List<Document> documents = slice.getContent();
+        String next = null;
+        if (slice.hasNext() && !documents.isEmpty()) {
+            Document last = documents.get(documents.size() - 1);
+            next = new DocumentCursor(last.getUpdatedAt(), last.getId()).encode();
+        }
+        return new DocumentSlice(load(documents), slice.getSize(), slice.hasNext(), next);
+    }
+
+    /**
+     * Map documents to fully populated responses using two queries in total:
+     * one for the attachments of every document and one for their summaries.
+     *
+     * @param documents the documents to load
+     * @return the responses, in the same order as the input
+     */
+    @Transactional(readOnly = true)
+    public List<DocumentResponse> load(List<Document> documents) {
+        return load(documents, ResponseFields.FULL);
+    }
+
+    /**
+     * Map documents to responses with at most one query for attachments and one for summaries.
+     *
+     * @param documents full documents, or headers when content is not requested
+     * @param fields the large fields to load
+     * @return the responses, in the same order as the input
+     */
+    @Transactional(readOnly = true)
+    public List<DocumentResponse> load(List<? extends DocumentHeader> documents, ResponseFields fields) {
+        if (documents.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> docIds = documents.stream().map(DocumentHeader::getId).toList();
+        Map<Long, List<FileAssetDto>> attachmentsByDoc = attachments(docIds, fields);
+
+        List<DocumentResponse> responses = documents.stream()
+            .map(doc -> {
+                List<FileAssetDto> attachments = attachmentsByDoc.getOrDefault(doc.getId(), List.of());
+                if (fields.content() && doc instanceof Document full) {
+                    return withAttachments(documentMapper.toResponseWithoutAttachments(full), attachments);
+                }
+                return new DocumentResponse(doc.getId(), doc.getTitle(), null,
+                    doc.getCreatedAt(), doc.getUpdatedAt(), attachments);
+            })
+            .toList();
+
+        return fields.summaries() ? enricher.enrichAll(responses) : responses;
+    }
+
+    /**
+     * Load the attachments of one document.
+     *
+     * @param documentId the document
+     * @param fields whether to include extracted text and summaries; content does not apply
+     * @return the attachments, in id order
+     */
+    @Transactional(readOnly = true)
+    public List<FileAssetDto> loadAttachments(Long documentId, ResponseFields fields) {
+        List<FileAssetDto> attachments = attachments(List.of(documentId), fields).getOrDefault(documentId, List.of());
+        if (!fields.summaries() || attachments.isEmpty()) {
+            return attachments;
+        }
+        return enricher.enrich(new DocumentResponse(documentId, null, null, null, null, attachments)).attachments();
+    }
+
+    private Map<Long, List<FileAssetDto>> attachments(List<Long> docIds, ResponseFields fields) {
+        List<FileAssetHeader> headers = documentRepository.findAttachmentHeadersByDocumentIds(docIds);
+        Map<Long, String> textById = fields.extractedText()
+            ? texts.readAll(headers.stream().map(FileAssetHeader::getId).toList())
+            : Map.of();
+
+        Map<Long, List<FileAssetDto>> attachmentsByDoc = new HashMap<>();
+        for (FileAssetHeader header : headers) {
+            FileAssetDto dto = fileAssetMapper.toDto(header);
+            if (fields.extractedText()) {
+                dto = withExtractedText(dto, textById.get(header.getId()));
+            }
+            attachmentsByDoc.computeIfAbsent(header.getDocumentId(), k -> new ArrayList<>()).add(dto);
+        }
+        return attachmentsByDoc;
+    }
+
+    private static FileAssetDto withExtractedText(FileAssetDto dto, String text) {
+        return new FileAssetDto(dto.id(), dto.originalFilename(), dto.contentType(), dto.sizeBytes(),
+            dto.createdAt(), dto.updatedAt(), text, dto.summaries());
+    }
+
+    private DocumentResponse withAttachments(DocumentResponse response, List<FileAssetDto> attachments) {
+        return new DocumentResponse(
+            response.id(),
+            response.title(),
+            response.content(),
+            response.createdAt(),
+            response.updatedAt(),
+            attachments
+        );
+    }
+}
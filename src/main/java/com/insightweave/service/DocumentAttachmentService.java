@@ -7,10 +7,15 @@ import com.insightweave.repository.FileAssetRepository;
 import com.insightweave.storage.StorageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -21,8 +26,16 @@ public class DocumentAttachmentService {
     private final StorageService storage;
     private final TextExtractionService textExtraction;
     private final SummaryService summaryService;
-    private final AsyncSummaryService asyncSummaryService;
+    private final SummaryScheduler summaryScheduler;
+    private final ApplicationEventPublisher events;
+    private final FileAssetService files;
+    private final ExtractedTextStore texts;
 
+    /**
+     * Store the upload and attach it to the document. Text extraction reads the stored copy once
+     * this transaction has committed, so neither the transaction nor its connection is held
+     * through the parse; the text and its summary follow a moment after the response.
+     */
     @Transactional
     public FileAsset addAttachment(Long docId, MultipartFile file) throws Exception {
         Document doc = docRepo.findById(docId)
@@ -31,22 +44,12 @@ public class DocumentAttachmentService {
         log.info("Starting file upload: docId={}, fileName={}, size={} bytes",
                 docId, file.getOriginalFilename(), file.getSize());
 
+        String contentType = file.getContentType() != null ? file.getContentType() : "application/octet-stream";
+
         // Save file to storage - this may throw IOException if disk is full, etc.
-        var s = storage.save(file);
+        StorageService.Stored s = storage.save(file);
         log.debug("File saved to storage: key={}, sha256={}", s.key(), s.sha256());
-
-        // Extract text if the file type is supported
-        String extractedText = "";
-        String contentType = s.type() != null ? s.type() : "application/octet-stream";
-        if (textExtraction.isTextExtractable(contentType)) {
-            try {
-                extractedText = textExtraction.extractText(file.getInputStream(), s.original());
-                log.debug("Text extraction completed: {} characters extracted", extractedText.length());
-            } catch (Exception e) {
-                // Log but don't fail the upload if text extraction fails
-                log.warn("Text extraction failed for file {}: {}", s.original(), e.getMessage());
-            }
-        }
+        files.deleteStoredBytesOnRollback(s.key());
 
         var asset = FileAsset.builder()
                 .originalFilename(s.original())
@@ -54,25 +57,66 @@ public class DocumentAttachmentService {
                 .sizeBytes(s.size())
                 .storageKey(s.key())
                 .sha256(s.sha256())
-                .extractedText(extractedText.isEmpty() ? null : extractedText)
                 .build();
 
         asset = fileRepo.save(asset);         // persist the row
         doc.getAttachments().add(asset);      // maintain in-memory list
         docRepo.save(doc);                    // keep owning aggregate consistent
+        events.publishEvent(DocumentChangedEvent.changed(docId));
 
         log.info("File upload completed successfully: fileId={}, fileName={}",
                 asset.getId(), asset.getOriginalFilename());
 
-        // Generate summary asynchronously if text was extracted
-        if (asset.getExtractedText() != null && !asset.getExtractedText().isBlank()) {
-            log.info("Scheduling async summary generation for fileAssetId={}", asset.getId());
-            asyncSummaryService.generateSummaryAsync(asset.getId(), asset.getExtractedText());
+        if (textExtraction.isTextExtractable(contentType)
+                && textExtraction.isWithinSizeLimit(contentType, file.getSize())) {
+            extractAfterCommit(docId, asset.getId(), s, contentType);
         }
 
         return asset;
     }
 
+    private void extractAfterCommit(Long docId, Long fileAssetId, StorageService.Stored s, String contentType) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            extract(docId, fileAssetId, s, contentType);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override public void afterCommit() { extract(docId, fileAssetId, s, contentType); }
+        });
+    }
+
+    // the stream is closed by the parser; the text is stored from the parser thread when it is done
+    private void extract(Long docId, Long fileAssetId, StorageService.Stored s, String contentType) {
+        InputStream in;
+        try {
+            in = storage.loadAsResource(s.key()).getInputStream();
+        } catch (Exception e) {
+            log.warn("Could not read stored file {} for text extraction: {}", s.original(), e.getMessage());
+            return;
+        }
+        textExtraction.extractInBackground(in, s.original(), contentType)
+                .thenAccept(text -> storeText(docId, fileAssetId, text));
+    }
+
+    private void storeText(Long docId, Long fileAssetId, String extractedText) {
+        log.debug("Text extraction completed: {} characters extracted", extractedText.length());
+        if (extractedText.isBlank()) {
+            return;
+        }
+        try {
+            texts.save(fileAssetId, extractedText);
+        } catch (Exception e) {
+            // Log but don't fail: the file may have been deleted while it was being parsed
+            log.warn("Could not store extracted text for fileAssetId={}: {}", fileAssetId, e.getMessage());
+            return;
+        }
+        // the search index reads the text it did not have when the upload committed
+        events.publishEvent(DocumentChangedEvent.changed(docId));
+
+        log.info("Scheduling async summary generation for fileAssetId={}", fileAssetId);
+        summaryScheduler.scheduleSummary(fileAssetId, extractedText);
+    }
+
     @Transactional
     public void removeAttachment(Long docId, Long fileId) throws Exception {
         var doc = docRepo.findById(docId)
@@ -80,11 +124,12 @@ public class DocumentAttachmentService {
         var asset = fileRepo.findById(fileId)
                 .orElseThrow(() -> new IllegalArgumentException("File not found: " + fileId));
 
-        // delete bytes first; ignore if already missing
-        try { storage.delete(asset.getStorageKey()); } catch (Exception ignored) {}
+        // delete bytes once the row is gone; ignore if already missing
+        files.deleteStoredBytes(asset);
 
         // detach from the collection; orphanRemoval=true will delete the row
         doc.getAttachments().removeIf(a -> a.getId().equals(fileId));
         docRepo.save(doc);
+        events.publishEvent(DocumentChangedEvent.changed(docId));
     }
 }
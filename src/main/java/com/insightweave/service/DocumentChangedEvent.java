@@ -0,0 +1,18 @@
+package com.insightweave.service;
+
+/**
+ * Published whenever a document, or one of its attachments, is created, changed or deleted.
+ *
+ * @param documentId the affected document
+ * @param deleted true if the document itself is gone
+ */
+public record DocumentChangedEvent(Long documentId, boolean deleted) {
+
+    public static DocumentChangedEvent changed(Long documentId) {
+        return new DocumentChangedEvent(documentId, false);
+    }
+
+    public static DocumentChangedEvent deleted(Long documentId) {
+        return new DocumentChangedEvent(documentId, true);
+    }
+}
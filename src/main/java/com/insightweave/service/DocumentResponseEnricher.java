@@ -2,12 +2,18 @@ package com.insightweave.service;
 
 import com.insightweave.dto.DocumentResponse;
 import com.insightweave.dto.FileAssetDto;
+import com.insightweave.dto.SummaryDto;
+import com.insightweave.entity.Summary;
 import com.insightweave.mapper.SummaryMapper;
 import com.insightweave.repository.SummaryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Component
@@ -16,6 +22,7 @@ public class DocumentResponseEnricher {
 
     private final SummaryRepository summaryRepository;
     private final SummaryMapper summaryMapper;
+    private final MeterRegistry meters;
 
     /**
      * Enrich a DocumentResponse by loading summaries for all attachments.
@@ -27,9 +34,51 @@ public class DocumentResponseEnricher {
         if (response == null || response.attachments() == null) {
             return response;
         }
+        return enrichAll(List.of(response)).get(0);
+    }
+
+    /**
+     * Enrich several DocumentResponses at once. Summaries for every attachment
+     * are fetched with a single query, however many documents are passed in.
+     *
+     * @param responses the document responses to enrich
+     * @return the enriched responses, in the same order
+     */
+    public List<DocumentResponse> enrichAll(List<DocumentResponse> responses) {
+        List<Long> fileAssetIds = responses.stream()
+            .filter(r -> r.attachments() != null)
+            .flatMap(r -> r.attachments().stream())
+            .map(FileAssetDto::id)
+            .filter(Objects::nonNull)
+            .toList();
+
+        meters.summary("insightweave.enricher.attachments").record(fileAssetIds.size());
+        if (fileAssetIds.isEmpty()) {
+            return responses;
+        }
+
+        // one query per page by design; its count rising faster than the request count means an N+1 crept back in
+        long start = System.nanoTime();
+        List<Summary> summaries = summaryRepository.findByFileAssetIdIn(fileAssetIds);
+        meters.timer("insightweave.enricher.query").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        meters.summary("insightweave.enricher.summaries").record(summaries.size());
+
+        Map<Long, List<SummaryDto>> summariesByFile = summaries.stream()
+            .collect(Collectors.groupingBy(Summary::getFileAssetId,
+                Collectors.mapping(summaryMapper::toDto, Collectors.toList())));
+
+        return responses.stream()
+            .map(r -> enrichDocument(r, summariesByFile))
+            .collect(Collectors.toList());
+    }
+
+    private DocumentResponse enrichDocument(DocumentResponse response, Map<Long, List<SummaryDto>> summariesByFile) {
+        if (response.attachments() == null) {
+            return response;
+        }
 
         List<FileAssetDto> enrichedAttachments = response.attachments().stream()
-            .map(this::enrichFileAsset)
+            .map(a -> enrichFileAsset(a, summariesByFile.getOrDefault(a.id(), List.of())))
             .collect(Collectors.toList());
 
         return new DocumentResponse(
@@ -42,10 +91,7 @@ public class DocumentResponseEnricher {
         );
     }
 
-    private FileAssetDto enrichFileAsset(FileAssetDto fileAsset) {
-        var summaries = summaryRepository.findByFileAssetId(fileAsset.id());
-        var summaryDtos = summaryMapper.toDtoList(summaries);
-
+    private FileAssetDto enrichFileAsset(FileAssetDto fileAsset, List<SummaryDto> summaryDtos) {
         return new FileAssetDto(
             fileAsset.id(),
             fileAsset.originalFilename(),
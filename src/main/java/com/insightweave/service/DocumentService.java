@@ -2,8 +2,8 @@ package com.insightweave.service;
 
 import com.insightweave.entity.Document;
 import com.insightweave.repository.DocumentRepository;
-import com.insightweave.storage.StorageService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -13,22 +13,19 @@ import org.springframework.web.server.ResponseStatusException;
 @RequiredArgsConstructor
 public class DocumentService {
     private final DocumentRepository repo;
-    private final StorageService storage;
+    private final FileAssetService files;
+    private final ApplicationEventPublisher events;
 
     @Transactional
     public void deleteWithFiles(Long id) {
         Document doc = repo.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Document not found: " + id));
 
-        // remove bytes on disk for each attachment (ignore if already missing)
-        doc.getAttachments().forEach(a -> {
-            try {
-                storage.delete(a.getStorageKey());
-            } catch (Exception ignored) {
-            }
-        });
+        // remove bytes on disk for each attachment once the delete commits (ignore if already missing)
+        doc.getAttachments().forEach(files::deleteStoredBytes);
 
         // DB rows are removed thanks to orphanRemoval=true
         repo.delete(doc);
+        events.publishEvent(DocumentChangedEvent.deleted(id));
     }
 }
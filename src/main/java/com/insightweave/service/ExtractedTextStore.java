@@ -0,0 +1,88 @@
+package com.insightweave.service;
+
+import com.insightweave.entity.FileAssetText;
+import com.insightweave.repository.FileAssetRepository;
+import com.insightweave.repository.FileAssetTextRepository;
+import com.insightweave.storage.DeflateCodec;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Extracted text of file assets, stored deflate-compressed in file_asset_texts. This is the only
+ * way to get at the text: loading a FileAsset does not read it, list views ask for it in one
+ * batch, and the text endpoint streams it inflated without building a String.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExtractedTextStore {
+
+    static final String CODEC = "deflate";
+
+    private final FileAssetTextRepository repo;
+    private final FileAssetRepository fileRepo;
+    private final ApplicationEventPublisher events;
+
+    @Value("${insightweave.extracted-text.compression-level:6}") int compressionLevel = 6;
+
+    /**
+     * Store (or replace) the text of a file. Blank text removes it.
+     */
+    @Transactional
+    public void save(Long fileAssetId, String text) {
+        if (text == null || text.isBlank()) {
+            repo.findById(fileAssetId).ifPresent(repo::delete);
+            return;
+        }
+        FileAssetText row = repo.findById(fileAssetId)
+                .orElseGet(() -> FileAssetText.builder().fileAsset(fileRepo.getReferenceById(fileAssetId)).build());
+        row.setCodec(CODEC);
+        row.setCharLength(text.length());
+        row.setByteLength(text.getBytes(StandardCharsets.UTF_8).length);
+        row.setData(DeflateCodec.compress(text, compressionLevel));
+        repo.saveAndFlush(row);
+        events.publishEvent(new ExtractedTextStoredEvent(fileAssetId, text));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<String> read(Long fileAssetId) {
+        return repo.findById(fileAssetId).map(row -> DeflateCodec.decompress(row.getData()));
+    }
+
+    /**
+     * @return text by file id; files without text are absent
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, String> readAll(Collection<Long> fileAssetIds) {
+        Map<Long, String> texts = new HashMap<>();
+        if (fileAssetIds.isEmpty()) {
+            return texts;
+        }
+        for (FileAssetText row : repo.findByFileAssetIdIn(fileAssetIds)) {
+            texts.put(row.getFileAssetId(), DeflateCodec.decompress(row.getData()));
+        }
+        return texts;
+    }
+
+    /**
+     * The text as UTF-8 bytes, inflated as the stream is read. Only the compressed bytes are
+     * held in memory; the caller closes the stream.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Opened> open(Long fileAssetId) {
+        return repo.findById(fileAssetId)
+                .map(row -> new Opened(DeflateCodec.open(row.getData()), row.getByteLength()));
+    }
+
+    /** An open text stream and its uncompressed length in bytes. */
+    public record Opened(InputStream stream, long byteLength) {}
+}
@@ -0,0 +1,10 @@
+package com.insightweave.service;
+
+/**
+ * Published, inside the storing transaction, when a file's extracted text is written to
+ * {@link ExtractedTextStore}. Carries the plain text so listeners need not inflate it again.
+ *
+ * @param fileAssetId the file the text belongs to
+ * @param text the extracted text
+ */
+public record ExtractedTextStoredEvent(Long fileAssetId, String text) {}
@@ -1,20 +1,29 @@
 package com.insightweave.service;
 
+import com.insightweave.entity.Document;
 import com.insightweave.entity.FileAsset;
 import com.insightweave.repository.FileAssetRepository;
 import com.insightweave.storage.StorageService;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 
+@Slf4j
 @Service @RequiredArgsConstructor
 public class FileAssetService {
     private final StorageService storage;
     private final FileAssetRepository repo;
+    private final ExtractedTextStore texts;
+    private final EntityManagerFactory emf;
 
     public FileAsset upload(MultipartFile file) throws Exception {
         var s = storage.save(file);
@@ -25,12 +34,78 @@ public class FileAssetService {
                 .storageKey(s.key())
                 .sha256(s.sha256())
                 .build();
-        return repo.save(entity);
+        try {
+            return repo.save(entity);
+        } catch (RuntimeException ex) {
+            // no row holds the key: give the bytes (or the blob reference) back
+            deleteQuietly(s.key());
+            throw ex;
+        }
     }
     public FileAsset get(Long id) {
         return repo.findById(id).orElseThrow(() ->
                 new ResponseStatusException(NOT_FOUND, "File not found: " + id));
     }
+    /**
+     * @return the file's extracted text, or null if it has none
+     * @throws ResponseStatusException 404 if the file does not exist
+     */
+    public String extractedText(Long id) {
+        if (!repo.existsById(id)) {
+            throw new ResponseStatusException(NOT_FOUND, "File not found: " + id);
+        }
+        return texts.read(id).orElse(null);
+    }
     public Resource download(Long id) throws Exception { return storage.loadAsResource(get(id).getStorageKey()); }
-    public void delete(Long id) throws Exception { var e = get(id); storage.delete(e.getStorageKey()); repo.delete(e); }
+    public void delete(Long id) throws Exception {
+        var e = get(id);
+        Long documentId = repo.findDocumentIdById(id);
+        repo.delete(e);
+        // the row goes without its document's attachments collection knowing; drop that cached copy
+        if (documentId != null) {
+            emf.unwrap(SessionFactory.class).getCache()
+                    .evictCollectionData(Document.class.getName() + ".attachments", documentId);
+        }
+        deleteStoredBytes(e);
+    }
+
+    /**
+     * Drop the stored bytes behind an asset whose row is being removed. Inside a transaction this
+     * waits for the commit, so a rollback never leaves a row pointing at deleted (or, for shared
+     * content-addressed blobs, under-counted) bytes. Missing files are ignored.
+     */
+    public void deleteStoredBytes(FileAsset asset) {
+        String key = asset.getStorageKey();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deleteQuietly(key);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override public void afterCommit() { deleteQuietly(key); }
+        });
+    }
+
+    /**
+     * Undo a storage save whose key is being written in the current transaction if that
+     * transaction rolls back, so no file is orphaned and a content-addressed blob keeps exactly one
+     * reference per committed row.
+     */
+    public void deleteStoredBytesOnRollback(String key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) deleteQuietly(key);
+            }
+        });
+    }
+
+    private void deleteQuietly(String key) {
+        try {
+            storage.delete(key);
+        } catch (Exception e) {
+            log.warn("Failed to delete stored bytes for key={}: {}", key, e.getMessage());
+        }
+    }
 }
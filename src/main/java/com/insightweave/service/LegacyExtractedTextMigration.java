@@ -0,0 +1,62 @@
+package com.insightweave.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves text left in the old file_assets.extracted_text column into {@link ExtractedTextStore},
+ * a batch per transaction, and clears the column behind it. Hibernate's schema update never drops
+ * columns, so databases created before the text store still have it. Runs on every start and
+ * does nothing once the column is empty or gone; drop the column by hand when convenient.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LegacyExtractedTextMigration {
+
+    private static final int BATCH = 100;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final ExtractedTextStore texts;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        List<Map<String, Object>> batch;
+        try {
+            batch = nextBatch();
+        } catch (BadSqlGrammarException e) {
+            return; // no legacy column
+        }
+        long moved = 0;
+        while (!batch.isEmpty()) {
+            List<Map<String, Object>> rows = batch;
+            tx.executeWithoutResult(status -> rows.forEach(row -> {
+                Long id = ((Number) row.get("id")).longValue();
+                texts.save(id, (String) row.get("extracted_text"));
+                jdbc.update("update file_assets set extracted_text = null where id = ?", id);
+            }));
+            moved += rows.size();
+            batch = nextBatch();
+        }
+        if (moved > 0) {
+            log.info("Moved the extracted text of {} files to file_asset_texts; "
+                    + "file_assets.extracted_text is now empty and can be dropped", moved);
+        }
+    }
+
+    private List<Map<String, Object>> nextBatch() {
+        return jdbc.queryForList(
+                "select id, extracted_text from file_assets where extracted_text is not null order by id limit ?",
+                BATCH);
+    }
+}
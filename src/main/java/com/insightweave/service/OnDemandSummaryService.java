@@ -0,0 +1,154 @@
+package com.insightweave.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.insightweave.dto.SummaryDto;
+import com.insightweave.dto.SummaryJobHandle;
+import com.insightweave.dto.SummaryRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.springframework.http.HttpStatus.CONFLICT;
+
+/**
+ * Summaries requested through the API, with single-flight coalescing: while a summary of a file
+ * with given parameters is being generated, identical requests join that generation instead of
+ * calling the model again, so any number of clicks on "summarize" cost one model call. A request
+ * for a summary that already exists (for this file, or for the same content) returns it at once
+ * unless it asks to regenerate.
+ *
+ * Generations run on virtual threads and are tracked in memory for
+ * insightweave.summary.requests.retention after they finish, so clients can poll the job handle.
+ * Coalescing is per application instance.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OnDemandSummaryService {
+
+    /** Either a summary that is already there or the handle of a generation in flight. */
+    public record Submission(SummaryDto summary, SummaryJobHandle job) {}
+
+    private record FlightKey(Long fileAssetId, int maxLength, int minLength, String style) {}
+
+    private static final class Flight {
+        final UUID id = UUID.randomUUID();
+        final Long fileAssetId;
+        final CompletableFuture<SummaryDto> result = new CompletableFuture<>();
+
+        Flight(Long fileAssetId) {
+            this.fileAssetId = fileAssetId;
+        }
+    }
+
+    private final FileAssetService files;
+    private final SummaryService summaryService;
+    private final MeterRegistry meters;
+
+    @Value("${insightweave.summary.requests.retention:1h}") Duration retention;
+
+    private final ConcurrentHashMap<FlightKey, Flight> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private Cache<UUID, Flight> jobs;
+
+    @PostConstruct void init() {
+        jobs = Caffeine.newBuilder().expireAfterWrite(retention).maximumSize(100_000).build();
+    }
+
+    @PreDestroy void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Get or start a summary of the file.
+     *
+     * @throws ResponseStatusException 404 if the file does not exist, 409 if it has no extracted text
+     */
+    public Submission request(Long fileAssetId, SummaryRequest request) {
+        String text = files.extractedText(fileAssetId);
+        if (text == null || text.isBlank()) {
+            throw new ResponseStatusException(CONFLICT, "File has no extracted text to summarize: " + fileAssetId);
+        }
+
+        if (!request.regenerate()) {
+            Optional<SummaryDto> existing = summaryService.findSummary(
+                    fileAssetId, request.maxLength(), request.minLength(), request.style());
+            if (existing.isPresent()) {
+                record("existing");
+                return new Submission(existing.get(), null);
+            }
+        }
+
+        var params = SummaryCache.Key.of(null, request.maxLength(), request.minLength(), request.style());
+        var key = new FlightKey(fileAssetId, params.maxLength(), params.minLength(), params.style());
+        var started = new Flight(fileAssetId);
+        Flight flight = inFlight.computeIfAbsent(key, k -> started);
+        if (flight == started) {
+            jobs.put(flight.id, flight);
+            executor.execute(() -> run(key, flight, text, request));
+            record("started");
+        } else {
+            log.debug("Joining in-flight summary {} for fileAssetId={}", flight.id, fileAssetId);
+            record("joined");
+        }
+        return new Submission(null, handle(flight));
+    }
+
+    /** The state of a generation started by {@link #request}, while it is retained. */
+    public Optional<SummaryJobHandle> job(Long fileAssetId, UUID jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId))
+                .filter(flight -> flight.fileAssetId.equals(fileAssetId))
+                .map(OnDemandSummaryService::handle);
+    }
+
+    private void run(FlightKey key, Flight flight, String text, SummaryRequest request) {
+        SummaryDto summary = null;
+        Exception failure = null;
+        try {
+            summary = request.regenerate()
+                    ? summaryService.regenerateSummary(key.fileAssetId(), text, key.maxLength(), key.minLength(), key.style())
+                    : summaryService.generateSummary(key.fileAssetId(), text, key.maxLength(), key.minLength(), key.style());
+        } catch (Exception e) {
+            log.warn("On-demand summary for fileAssetId={} failed: {}", key.fileAssetId(), e.getMessage());
+            failure = e;
+        } finally {
+            // the summary is committed by now, so a request arriving after this finds it saved
+            inFlight.remove(key, flight);
+        }
+        if (failure == null) {
+            flight.result.complete(summary);
+        } else {
+            flight.result.completeExceptionally(failure);
+        }
+    }
+
+    private static SummaryJobHandle handle(Flight flight) {
+        CompletableFuture<SummaryDto> result = flight.result;
+        if (!result.isDone()) {
+            return new SummaryJobHandle(flight.id, flight.fileAssetId, "RUNNING", null, null);
+        }
+        if (result.isCompletedExceptionally()) {
+            String error = result.exceptionNow().getMessage();
+            return new SummaryJobHandle(flight.id, flight.fileAssetId, "FAILED", null, error);
+        }
+        return new SummaryJobHandle(flight.id, flight.fileAssetId, "SUCCEEDED", result.resultNow(), null);
+    }
+
+    private void record(String result) {
+        meters.counter("insightweave.summary.requests", "result", result).increment();
+    }
+}
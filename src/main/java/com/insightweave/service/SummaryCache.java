@@ -0,0 +1,120 @@
+package com.insightweave.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.insightweave.client.PythonAiClient;
+import com.insightweave.entity.Summary;
+import com.insightweave.repository.SummaryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Two-level cache of generated summaries keyed by the source file's SHA-256, the summary
+ * parameters and the model name, so re-uploading a known document costs no model time.
+ *
+ * The first level is a bounded in-memory Caffeine cache (W-TinyLFU eviction); the second is a
+ * lookup of earlier summaries rows by the same key. The model is part of the key: it is the model
+ * named in the latest AI response (seeded at startup from ai.summary.cache.model, if set), and when
+ * it changes every entry for the previous model stops matching and the in-memory level is cleared.
+ */
+@Slf4j
+@Component
+public class SummaryCache {
+
+    /** Normalized cache key; defaults are filled in so null and explicit defaults share entries. */
+    public record Key(String sha256, int maxLength, int minLength, String style) {
+        public static Key of(String sha256, Integer maxLength, Integer minLength, String style) {
+            return new Key(sha256,
+                    maxLength != null ? maxLength : PythonAiClient.DEFAULT_MAX_LENGTH,
+                    minLength != null ? minLength : PythonAiClient.DEFAULT_MIN_LENGTH,
+                    style != null ? style : PythonAiClient.DEFAULT_STYLE);
+        }
+    }
+
+    /** What a hit needs to produce a summary without calling the model. */
+    public record Entry(String summaryText, String modelName, String style, Integer latencyMs) {
+        static Entry of(Summary s) {
+            return new Entry(s.getSummaryText(), s.getModelName(), s.getStyle(), s.getLatencyMs());
+        }
+    }
+
+    private record ModelKey(Key key, String model) {}
+
+    private final SummaryRepository summaryRepo;
+    private final Cache<ModelKey, Entry> memory;
+    private final MeterRegistry meters;
+    private volatile String model;
+
+    public SummaryCache(SummaryRepository summaryRepo, MeterRegistry meters,
+                        @Value("${ai.summary.cache.max-entries:10000}") long maxEntries,
+                        @Value("${ai.summary.cache.model:}") String configuredModel) {
+        this.summaryRepo = summaryRepo;
+        this.meters = meters;
+        this.memory = Caffeine.newBuilder().maximumSize(maxEntries).recordStats().build();
+        this.model = configuredModel.isBlank() ? null : configuredModel;
+        CaffeineCacheMetrics.monitor(meters, memory, "summaries");
+    }
+
+    /**
+     * Look a summary up, first in memory, then in the database.
+     *
+     * @return the cached summary, or empty if neither level has one for the current model
+     */
+    public Optional<Entry> get(Key key) {
+        String current = model;
+        if (current == null) {
+            // model not known yet (no AI response since startup): cannot tell stale entries apart
+            record("miss");
+            return Optional.empty();
+        }
+        ModelKey modelKey = new ModelKey(key, current);
+        Entry hit = memory.getIfPresent(modelKey);
+        if (hit != null) {
+            record("memory");
+            return Optional.of(hit);
+        }
+        Optional<Entry> stored = summaryRepo
+                .findFirstBySourceSha256AndMaxLengthAndMinLengthAndStyleAndModelNameOrderByCreatedAtDesc(
+                        key.sha256(), key.maxLength(), key.minLength(), key.style(), current)
+                .map(Entry::of);
+        stored.ifPresent(entry -> memory.put(modelKey, entry));
+        record(stored.isPresent() ? "database" : "miss");
+        return stored;
+    }
+
+    public void put(Key key, Summary summary) {
+        if (summary.getModelName() != null) {
+            memory.put(new ModelKey(key, summary.getModelName()), Entry.of(summary));
+        }
+    }
+
+    /** The model summaries are currently produced by, or null if not known yet. */
+    public String currentModel() {
+        return model;
+    }
+
+    /**
+     * Record the model that produced a fresh response. A new model name invalidates everything
+     * cached for the previous one.
+     */
+    public void observeModel(String modelName) {
+        if (modelName == null || Objects.equals(modelName, model)) {
+            return;
+        }
+        if (model != null) {
+            log.info("AI model changed from {} to {}, invalidating cached summaries", model, modelName);
+            memory.invalidateAll();
+        }
+        model = modelName;
+    }
+
+    private void record(String result) {
+        meters.counter("insightweave.summary.cache.lookups", "result", result).increment();
+    }
+}
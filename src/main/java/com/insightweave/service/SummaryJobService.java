@@ -0,0 +1,179 @@
+package com.insightweave.service;
+
+import com.insightweave.entity.SummaryJob;
+import com.insightweave.repository.SummaryJobRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Durable summary queue backed by the summary_jobs table.
+ *
+ * Jobs are claimed with SELECT ... FOR UPDATE SKIP LOCKED and leased to a worker for
+ * insightweave.summary.lease, which the worker renews while the job runs; a job whose worker dies
+ * is picked up again once the lease expires. Failures, expired leases included, are retried with
+ * exponential backoff until insightweave.summary.max-attempts, after which the job is left in the
+ * DEAD state for inspection. Succeeded jobs are purged after insightweave.summary.retention.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "insightweave.summary.queue", havingValue = "durable")
+public class SummaryJobService implements SummaryScheduler {
+
+    private final SummaryJobRepository repo;
+
+    @Value("${insightweave.summary.lease:5m}") Duration lease;
+    @Value("${insightweave.summary.max-attempts:5}") int maxAttempts;
+    @Value("${insightweave.summary.backoff.initial:30s}") Duration initialBackoff;
+    @Value("${insightweave.summary.backoff.max:1h}") Duration maxBackoff;
+    @Value("${insightweave.summary.retention:7d}") Duration retention;
+
+    /**
+     * Queue a summary job. Joins the caller's transaction, so the job only becomes visible to
+     * workers if the upload that produced the text commits.
+     */
+    @Override
+    @Transactional
+    public void scheduleSummary(Long fileAssetId, String extractedText) {
+        enqueue(fileAssetId, null, null, null);
+    }
+
+    /**
+     * Queue a summary job with custom parameters.
+     *
+     * @param fileAssetId the file asset ID
+     * @param maxLength maximum summary length in tokens, or null for the default
+     * @param minLength minimum summary length in tokens, or null for the default
+     * @param style summary style, or null for the default
+     * @return the queued job
+     */
+    @Transactional
+    public SummaryJob enqueue(Long fileAssetId, Integer maxLength, Integer minLength, String style) {
+        var job = repo.save(SummaryJob.builder()
+                .fileAssetId(fileAssetId)
+                .maxLength(maxLength)
+                .minLength(minLength)
+                .style(style)
+                .nextAttemptAt(Instant.now())
+                .build());
+        log.info("Queued summary job id={} for fileAssetId={}", job.getId(), fileAssetId);
+        return job;
+    }
+
+    /**
+     * Claim up to {@code limit} runnable jobs for a worker.
+     *
+     * @param worker the claiming worker's ID, recorded in locked_by
+     * @param limit maximum number of jobs to claim
+     * @return the claimed jobs, now RUNNING and leased to the worker
+     */
+    @Transactional
+    public List<SummaryJob> claim(String worker, int limit) {
+        Instant now = Instant.now();
+        int dead = repo.markExpiredDead(now, maxAttempts, "Lease expired on the last attempt");
+        if (dead > 0) {
+            log.error("{} summary jobs are dead: their lease expired on attempt {}", dead, maxAttempts);
+        }
+        List<Long> ids = repo.lockRunnable(now, maxAttempts, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        repo.markRunning(ids, worker, now.plus(lease), now);
+        return repo.findAllById(ids);
+    }
+
+    /**
+     * Extend a running job's lease by insightweave.summary.lease from now. Workers call this every
+     * {@link #renewEvery()} while a job runs, so a long job (a chunked summary makes many model
+     * calls) is not handed to a second worker.
+     *
+     * @return false if the lease was lost to another worker meanwhile
+     */
+    @Transactional
+    public boolean renew(Long jobId, String worker) {
+        Instant now = Instant.now();
+        return repo.renewLease(jobId, worker, now.plus(lease), now) > 0;
+    }
+
+    /** How often a worker should renew its lease: a third of it, so one missed renewal is harmless. */
+    public Duration renewEvery() {
+        return lease.dividedBy(3);
+    }
+
+    /**
+     * Delete jobs that succeeded more than insightweave.summary.retention ago.
+     *
+     * @return the number of jobs deleted
+     */
+    @Transactional
+    public int purgeSucceeded() {
+        int purged = repo.deleteSucceededBefore(Instant.now().minus(retention));
+        if (purged > 0) {
+            log.info("Purged {} succeeded summary jobs older than {}", purged, retention);
+        }
+        return purged;
+    }
+
+    /**
+     * Mark a job done. Ignored if the worker's lease was lost to another worker meanwhile.
+     */
+    @Transactional
+    public void complete(Long jobId, String worker) {
+        repo.findById(jobId).filter(job -> holdsLease(job, worker)).ifPresentOrElse(job -> {
+            job.setStatus(SummaryJob.Status.SUCCEEDED);
+            job.setLeaseExpiresAt(null);
+            job.setLastError(null);
+        }, () -> log.warn("Summary job id={} finished by {} after its lease was lost", jobId, worker));
+    }
+
+    /**
+     * Record a failed attempt: schedule a retry with backoff, or move the job to DEAD if it is out
+     * of attempts or the failure is permanent.
+     */
+    @Transactional
+    public void fail(Long jobId, String worker, Exception error, boolean permanent) {
+        var job = repo.findById(jobId).filter(j -> holdsLease(j, worker)).orElse(null);
+        if (job == null) {
+            return;
+        }
+        job.setLastError(truncate(error.getClass().getSimpleName() + ": " + error.getMessage()));
+        job.setLockedBy(null);
+        job.setLeaseExpiresAt(null);
+
+        if (permanent || job.getAttempts() >= maxAttempts) {
+            job.setStatus(SummaryJob.Status.DEAD);
+            log.error("Summary job id={} for fileAssetId={} is dead after {} attempts: {}",
+                    jobId, job.getFileAssetId(), job.getAttempts(), job.getLastError());
+        } else {
+            Duration delay = backoff(job.getAttempts());
+            job.setStatus(SummaryJob.Status.PENDING);
+            job.setNextAttemptAt(Instant.now().plus(delay));
+            log.warn("Summary job id={} attempt {} failed, retrying in {}s: {}",
+                    jobId, job.getAttempts(), delay.toSeconds(), job.getLastError());
+        }
+    }
+
+    // initial * 2^(attempt-1), capped, plus up to 20% jitter so retries from a burst spread out
+    private Duration backoff(int attempt) {
+        long base = initialBackoff.toMillis() << Math.min(attempt - 1, 30);
+        long capped = Math.min(base < 0 ? Long.MAX_VALUE : base, maxBackoff.toMillis());
+        return Duration.ofMillis(capped + ThreadLocalRandom.current().nextLong(capped / 5 + 1));
+    }
+
+    private static boolean holdsLease(SummaryJob job, String worker) {
+        return job.getStatus() == SummaryJob.Status.RUNNING && worker.equals(job.getLockedBy());
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+}
@@ -0,0 +1,141 @@
+package com.insightweave.service;
+
+import com.insightweave.entity.SummaryJob;
+import com.insightweave.repository.FileAssetRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Worker loops for the durable summary queue. Each of insightweave.summary.workers threads claims
+ * one job at a time, reads the text from the database and runs it through {@link SummaryService};
+ * when the queue is empty it sleeps for insightweave.summary.poll-interval. A housekeeping thread
+ * renews the lease of every running job and purges old succeeded jobs hourly.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "insightweave.summary.queue", havingValue = "durable")
+public class SummaryJobWorker {
+
+    private static final Duration PURGE_INTERVAL = Duration.ofHours(1);
+
+    private final SummaryJobService jobs;
+    private final SummaryService summaryService;
+    private final FileAssetRepository fileRepo;
+    private final ExtractedTextStore texts;
+
+    @Value("${insightweave.summary.workers:2}") int workers;
+    @Value("${insightweave.summary.poll-interval:2s}") Duration pollInterval;
+    @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads;
+
+    private ExecutorService pool;
+    private ScheduledExecutorService housekeeping;
+    private volatile boolean running = true;
+
+    @PostConstruct void start() {
+        // pid@host, so locked_by says which node holds a job
+        String node = ManagementFactory.getRuntimeMXBean().getName();
+        housekeeping = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("summary-jobs-"));
+        housekeeping.scheduleWithFixedDelay(this::purge, PURGE_INTERVAL.toMillis(), PURGE_INTERVAL.toMillis(),
+                TimeUnit.MILLISECONDS);
+        pool = Executors.newFixedThreadPool(workers, virtualThreads
+                ? Thread.ofVirtual().name("summary-worker-", 1).factory()
+                : new CustomizableThreadFactory("summary-worker-"));
+        for (int i = 0; i < workers; i++) {
+            String workerId = node + "/" + i;
+            pool.execute(() -> loop(workerId));
+        }
+        log.info("Started {} summary workers on {}", workers, node);
+    }
+
+    @PreDestroy void stop() throws InterruptedException {
+        running = false;
+        housekeeping.shutdownNow();
+        pool.shutdownNow();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void loop(String workerId) {
+        while (running && !Thread.currentThread().isInterrupted()) {
+            try {
+                List<SummaryJob> claimed = jobs.claim(workerId, 1);
+                if (claimed.isEmpty()) {
+                    Thread.sleep(pollInterval.toMillis());
+                    continue;
+                }
+                claimed.forEach(job -> run(job, workerId));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                // e.g. database unavailable: back off and keep the loop alive
+                log.warn("Summary worker {} could not claim jobs: {}", workerId, e.getMessage());
+                sleepQuietly(pollInterval);
+            }
+        }
+    }
+
+    private void run(SummaryJob job, String workerId) {
+        long every = jobs.renewEvery().toMillis();
+        ScheduledFuture<?> heartbeat = housekeeping.scheduleAtFixedRate(
+                () -> renew(job, workerId), every, every, TimeUnit.MILLISECONDS);
+        try {
+            if (!fileRepo.existsById(job.getFileAssetId())) {
+                throw new IllegalArgumentException("File not found: " + job.getFileAssetId());
+            }
+            String text = texts.read(job.getFileAssetId()).orElse(null);
+            summaryService.generateSummary(job.getFileAssetId(), text,
+                    job.getMaxLength(), job.getMinLength(), job.getStyle());
+            jobs.complete(job.getId(), workerId);
+            log.info("Summary job id={} for fileAssetId={} succeeded", job.getId(), job.getFileAssetId());
+        } catch (IllegalArgumentException e) {
+            // missing file or empty text: retrying will not help
+            jobs.fail(job.getId(), workerId, e, true);
+        } catch (Exception e) {
+            jobs.fail(job.getId(), workerId, e, false);
+        } finally {
+            heartbeat.cancel(false);
+        }
+    }
+
+    private void renew(SummaryJob job, String workerId) {
+        try {
+            if (!jobs.renew(job.getId(), workerId)) {
+                log.warn("Summary worker {} lost the lease on job id={}", workerId, job.getId());
+            }
+        } catch (Exception e) {
+            // a failed renewal must not cancel the schedule; the next one may get through
+            log.warn("Could not renew the lease on summary job id={}: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    private void purge() {
+        try {
+            jobs.purgeSucceeded();
+        } catch (Exception e) {
+            log.warn("Could not purge succeeded summary jobs: {}", e.getMessage());
+        }
+    }
+
+    private static void sleepQuietly(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
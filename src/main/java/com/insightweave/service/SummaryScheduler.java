@@ -0,0 +1,19 @@
+package com.insightweave.service;
+
+/**
+ * Hands summary generation for a newly extracted file off the request path.
+ *
+ * insightweave.summary.queue=in-memory (default) runs it on the local @Async executor;
+ * insightweave.summary.queue=durable records a job in summary_jobs for any node's workers.
+ */
+public interface SummaryScheduler {
+
+    /**
+     * Schedule summary generation for a file asset. Failures are handled by the scheduler and
+     * never propagate to the caller.
+     *
+     * @param fileAssetId the file asset ID
+     * @param extractedText the text to summarize (implementations may re-read it from the database instead)
+     */
+    void scheduleSummary(Long fileAssetId, String extractedText);
+}
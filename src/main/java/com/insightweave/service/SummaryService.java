@@ -3,17 +3,30 @@ package com.insightweave.service;
 import com.insightweave.client.PythonAiClient;
 import com.insightweave.client.dto.SummarizeResponse;
 import com.insightweave.dto.SummaryDto;
+import com.insightweave.entity.FileAsset;
 import com.insightweave.entity.Summary;
 import com.insightweave.mapper.SummaryMapper;
+import com.insightweave.repository.FileAssetRepository;
 import com.insightweave.repository.SummaryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestClientException;
 
 import java.util.List;
-
+import java.util.Optional;
+
+/**
+ * Generates and stores file summaries.
+ *
+ * The generate methods are deliberately not transactional: a model call can take as long as
+ * ai.service.timeout (many times over for chunked text, whose partials run on threads that each
+ * need a connection of their own), and holding a pooled connection through it starves the pool.
+ * Lookups run in the repositories' own short transactions and the result is saved in one of its
+ * own once the model has answered.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -22,6 +35,10 @@ public class SummaryService {
     private final PythonAiClient aiClient;
     private final SummaryRepository summaryRepo;
     private final SummaryMapper summaryMapper;
+    private final FileAssetRepository fileRepo;
+    private final SummaryCache cache;
+    private final ChunkedSummarizer chunked;
+    private final TransactionTemplate tx;
 
     /**
      * Generate a summary for the given text and save it to the database.
@@ -32,13 +49,14 @@ public class SummaryService {
      * @throws IllegalArgumentException if text is null or empty
      * @throws RestClientException if the AI service call fails
      */
-    @Transactional
     public SummaryDto generateSummary(Long fileAssetId, String extractedText) {
         return generateSummary(fileAssetId, extractedText, null, null, null);
     }
 
     /**
-     * Generate a summary with custom parameters.
+     * Generate a summary with custom parameters. If a file with the same SHA-256 was already
+     * summarized with the same parameters by the current model, that summary is reused. Text
+     * longer than ai.summary.chunk.threshold-tokens is summarized chunk by chunk.
      *
      * @param fileAssetId the ID of the file asset being summarized
      * @param extractedText the text to summarize
@@ -47,9 +65,22 @@ public class SummaryService {
      * @param style summary style: concise, detailed, or bullet_points (default: concise)
      * @return the generated summary DTO
      */
-    @Transactional
     public SummaryDto generateSummary(Long fileAssetId, String extractedText,
                                      Integer maxLength, Integer minLength, String style) {
+        return generate(fileAssetId, extractedText, maxLength, minLength, style, true);
+    }
+
+    /**
+     * Like {@link #generateSummary(Long, String, Integer, Integer, String)}, but always calls the
+     * model, even if a summary with these parameters is cached.
+     */
+    public SummaryDto regenerateSummary(Long fileAssetId, String extractedText,
+                                        Integer maxLength, Integer minLength, String style) {
+        return generate(fileAssetId, extractedText, maxLength, minLength, style, false);
+    }
+
+    private SummaryDto generate(Long fileAssetId, String extractedText,
+                                Integer maxLength, Integer minLength, String style, boolean reuse) {
 
         if (extractedText == null || extractedText.isBlank()) {
             throw new IllegalArgumentException("Cannot generate summary: extracted text is empty");
@@ -57,28 +88,24 @@ public class SummaryService {
 
         log.info("Generating summary for fileAssetId={}, textLength={}", fileAssetId, extractedText.length());
 
+        var key = key(fileAssetId, maxLength, minLength, style);
+        var cached = reuse ? tx.execute(status -> existing(fileAssetId, key)) : Optional.<SummaryDto>empty();
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
         try {
-            // Call Python AI service
-            SummarizeResponse response = aiClient.summarize(
-                extractedText,
-                maxLength,
-                minLength,
-                style
-            );
-
-            // Save to database
-            Summary summary = Summary.builder()
-                .fileAssetId(fileAssetId)
-                .summaryText(response.summary())
-                .modelName(response.modelName())
-                .style(response.style())
-                .latencyMs(response.latencyMs())
-                .build();
-
-            summary = summaryRepo.save(summary);
-            log.info("Summary saved with id={}", summary.getId());
-
-            return summaryMapper.toDto(summary);
+            // Call Python AI service; long documents go through map-reduce over chunks
+            SummarizeResponse response = chunked.shouldChunk(extractedText)
+                ? chunked.summarize(extractedText, key)
+                : aiClient.summarize(
+                    extractedText,
+                    maxLength,
+                    minLength,
+                    style
+                );
+
+            return tx.execute(status -> save(fileAssetId, key, response));
 
         } catch (RestClientException e) {
             log.error("Failed to generate summary for fileAssetId={}: {}", fileAssetId, e.getMessage());
@@ -86,6 +113,85 @@ public class SummaryService {
         }
     }
 
+    /**
+     * Find a summary of this file with these parameters by the current model: one already saved
+     * for the file, else a cached one for the same content (saved for this file, once).
+     *
+     * @return the summary, or empty if the model would have to be called
+     */
+    @Transactional
+    public Optional<SummaryDto> findSummary(Long fileAssetId, Integer maxLength, Integer minLength, String style) {
+        return existing(fileAssetId, key(fileAssetId, maxLength, minLength, style));
+    }
+
+    /**
+     * Save a summary produced outside this service, e.g. streamed to a client as it was generated.
+     *
+     * @param response the AI service's final response
+     * @return the saved summary
+     */
+    @Transactional
+    public SummaryDto saveGenerated(Long fileAssetId, Integer maxLength, Integer minLength, String style,
+                                    SummarizeResponse response) {
+        return save(fileAssetId, key(fileAssetId, maxLength, minLength, style), response);
+    }
+
+    private SummaryCache.Key key(Long fileAssetId, Integer maxLength, Integer minLength, String style) {
+        String sha256 = fileRepo.findById(fileAssetId).map(FileAsset::getSha256).orElse(null);
+        return SummaryCache.Key.of(sha256, maxLength, minLength, style);
+    }
+
+    private Optional<SummaryDto> existing(Long fileAssetId, SummaryCache.Key key) {
+        String model = cache.currentModel();
+        Optional<Summary> own = summaryRepo.findFirstByFileAssetIdAndMaxLengthAndMinLengthAndStyleOrderByCreatedAtDesc(
+                fileAssetId, key.maxLength(), key.minLength(), key.style())
+            .filter(s -> model != null && model.equals(s.getModelName()));
+        if (own.isPresent()) {
+            return own.map(summaryMapper::toDto);
+        }
+        // only copy another file's summary when this file has none, or every request would add a row
+        return reuseCached(fileAssetId, key);
+    }
+
+    private Optional<SummaryDto> reuseCached(Long fileAssetId, SummaryCache.Key key) {
+        if (key.sha256() == null) {
+            return Optional.empty();
+        }
+        return cache.get(key).map(entry -> {
+            log.info("Reusing cached summary for fileAssetId={} (sha256={})", fileAssetId, key.sha256());
+            return summaryMapper.toDto(summaryRepo.save(toSummary(fileAssetId, key, entry)));
+        });
+    }
+
+    private SummaryDto save(Long fileAssetId, SummaryCache.Key key, SummarizeResponse response) {
+        cache.observeModel(response.modelName());
+
+        // Save to database
+        Summary summary = toSummary(fileAssetId, key, new SummaryCache.Entry(
+            response.summary(), response.modelName(), response.style(), response.latencyMs()));
+
+        summary = summaryRepo.save(summary);
+        log.info("Summary saved with id={}", summary.getId());
+        if (key.sha256() != null) {
+            cache.put(key, summary);
+        }
+
+        return summaryMapper.toDto(summary);
+    }
+
+    private static Summary toSummary(Long fileAssetId, SummaryCache.Key key, SummaryCache.Entry entry) {
+        return Summary.builder()
+            .fileAssetId(fileAssetId)
+            .summaryText(entry.summaryText())
+            .modelName(entry.modelName())
+            .style(entry.style())
+            .latencyMs(entry.latencyMs())
+            .sourceSha256(key.sha256())
+            .maxLength(key.maxLength())
+            .minLength(key.minLength())
+            .build();
+    }
+
     /**
      * Get all summaries for a file asset.
      *
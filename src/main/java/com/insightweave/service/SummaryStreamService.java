@@ -0,0 +1,125 @@
+package com.insightweave.service;
+
+import com.insightweave.client.PythonAiClient;
+import com.insightweave.client.dto.SummarizeResponse;
+import com.insightweave.dto.SummaryDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.http.HttpStatus.CONFLICT;
+
+/**
+ * Streams a file's summary to the client over Server-Sent Events as the model produces it.
+ *
+ * Events: {@code token} (a piece of summary text; concatenate them), then {@code summary} (the
+ * saved {@link SummaryDto}) or {@code error}. A cached summary is sent as a single summary event.
+ * Text long enough to be summarized chunk by chunk has no single token stream, so the client
+ * gets a {@code status} event and then the summary. If the client goes away mid-stream the
+ * generation still runs to the end and is saved, so the next request is a cache hit.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SummaryStreamService {
+
+    private final FileAssetService files;
+    private final SummaryService summaryService;
+    private final ChunkedSummarizer chunked;
+    private final PythonAiClient aiClient;
+    private final MeterRegistry meters;
+
+    @Value("${ai.service.timeout:30000}") long timeout;
+
+    // one virtual thread per stream: each blocks reading the AI service's stream
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @PreDestroy void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Start streaming a summary of the file's extracted text.
+     *
+     * @throws ResponseStatusException 404 if the file does not exist, 409 if it has no extracted text
+     */
+    public SseEmitter stream(Long fileAssetId, Integer maxLength, Integer minLength, String style) {
+        String text = files.extractedText(fileAssetId);
+        if (text == null || text.isBlank()) {
+            throw new ResponseStatusException(CONFLICT, "File has no extracted text to summarize: " + fileAssetId);
+        }
+        // the emitter must outlive the slowest AI call; chunked documents make several
+        var emitter = new SseEmitter(timeout * 2);
+        executor.execute(() -> run(new Relay(emitter), fileAssetId, text, maxLength, minLength, style));
+        return emitter;
+    }
+
+    private void run(Relay relay, Long fileAssetId, String text, Integer maxLength, Integer minLength, String style) {
+        try {
+            Optional<SummaryDto> cached = summaryService.findSummary(fileAssetId, maxLength, minLength, style);
+            SummaryDto summary;
+            if (cached.isPresent()) {
+                summary = cached.get();
+            } else if (chunked.shouldChunk(text)) {
+                relay.send("status", "summarizing in chunks");
+                summary = summaryService.generateSummary(fileAssetId, text, maxLength, minLength, style);
+            } else {
+                long start = System.nanoTime();
+                Timer firstToken = meters.timer("ai.summarize.stream.first-token");
+                SummarizeResponse response = aiClient.summarizeStream(text, maxLength, minLength, style, token -> {
+                    if (relay.tokens++ == 0) {
+                        firstToken.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    }
+                    relay.send("token", token);
+                });
+                summary = summaryService.saveGenerated(fileAssetId, maxLength, minLength, style, response);
+            }
+            relay.send("summary", summary);
+        } catch (Exception e) {
+            log.warn("Streaming summary for fileAssetId={} failed: {}", fileAssetId, e.getMessage());
+            relay.send("error", Map.of("message", String.valueOf(e.getMessage())));
+        } finally {
+            relay.complete();
+        }
+    }
+
+    /** Sends events while the client is connected and quietly drops them after it has left. */
+    private static final class Relay {
+        private final SseEmitter emitter;
+        private volatile boolean connected = true;
+        int tokens;
+
+        Relay(SseEmitter emitter) {
+            this.emitter = emitter;
+            emitter.onTimeout(() -> connected = false);
+            emitter.onError(e -> connected = false);
+        }
+
+        void send(String event, Object data) {
+            if (!connected) return;
+            try {
+                emitter.send(SseEmitter.event().name(event).data(data));
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Client left the summary stream: {}", e.getMessage());
+                connected = false;
+            }
+        }
+
+        void complete() {
+            if (connected) emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.insightweave.service;
+
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Splits long text into chunks of at most {@code maxChars} characters, breaking on paragraph
+ * boundaries where possible, then on sentence boundaries, and only as a last resort inside a
+ * sentence (at whitespace). Consecutive chunks share up to {@code overlapChars} of trailing
+ * sentences so a thought split across a boundary stays readable in both.
+ */
+final class TextChunker {
+
+    private static final Pattern PARAGRAPH_BREAK = Pattern.compile("\\n\\s*\\n");
+
+    /** A whole paragraph, or a sentence (or slice of one) from a paragraph too long to keep whole. */
+    private record Unit(String text, boolean startsParagraph) {
+        int joinedLength(boolean first) {
+            return text.length() + (first ? 0 : startsParagraph ? 2 : 1);
+        }
+    }
+
+    private TextChunker() {}
+
+    static List<String> chunk(String text, int maxChars, int overlapChars) {
+        if (maxChars < 1) throw new IllegalArgumentException("maxChars must be positive");
+        overlapChars = Math.max(0, Math.min(overlapChars, maxChars / 2));
+
+        List<String> chunks = new ArrayList<>();
+        List<Unit> current = new ArrayList<>();
+        int currentLength = 0;
+
+        for (Unit unit : units(text, maxChars)) {
+            if (!current.isEmpty() && currentLength + unit.joinedLength(false) > maxChars) {
+                chunks.add(join(current));
+                current = overlap(current, Math.min(overlapChars, maxChars - unit.joinedLength(false)));
+                currentLength = length(current);
+            }
+            currentLength += unit.joinedLength(current.isEmpty());
+            current.add(unit);
+        }
+        if (!current.isEmpty()) {
+            chunks.add(join(current));
+        }
+        return chunks;
+    }
+
+    private static List<Unit> units(String text, int maxChars) {
+        List<Unit> units = new ArrayList<>();
+        for (String paragraph : PARAGRAPH_BREAK.split(text)) {
+            String p = paragraph.strip();
+            if (p.isEmpty()) continue;
+            if (p.length() <= maxChars) {
+                units.add(new Unit(p, true));
+                continue;
+            }
+            boolean first = true;
+            for (String sentence : sentences(p)) {
+                for (String piece : sentence.length() <= maxChars ? List.of(sentence) : slices(sentence, maxChars)) {
+                    units.add(new Unit(piece, first));
+                    first = false;
+                }
+            }
+        }
+        return units;
+    }
+
+    private static List<String> sentences(String paragraph) {
+        List<String> sentences = new ArrayList<>();
+        BreakIterator it = BreakIterator.getSentenceInstance(Locale.ROOT);
+        it.setText(paragraph);
+        for (int start = it.first(), end = it.next(); end != BreakIterator.DONE; start = end, end = it.next()) {
+            String s = paragraph.substring(start, end).strip();
+            if (!s.isEmpty()) sentences.add(s);
+        }
+        return sentences;
+    }
+
+    private static List<String> slices(String sentence, int maxChars) {
+        List<String> slices = new ArrayList<>();
+        int start = 0;
+        while (start < sentence.length()) {
+            int end = Math.min(start + maxChars, sentence.length());
+            if (end < sentence.length()) {
+                int space = sentence.lastIndexOf(' ', end);
+                if (space > start) end = space;
+            }
+            String slice = sentence.substring(start, end).strip();
+            if (!slice.isEmpty()) slices.add(slice);
+            start = end;
+        }
+        return slices;
+    }
+
+    // Trailing sentences of the previous chunk that fit in the overlap budget
+    private static List<Unit> overlap(List<Unit> previous, int budget) {
+        List<String> tail = new ArrayList<>();
+        int length = 0;
+        outer:
+        for (int i = previous.size() - 1; i >= 0; i--) {
+            Unit unit = previous.get(i);
+            // a whole paragraph may be too long to repeat, but its last sentences may not be
+            List<String> parts = unit.startsParagraph() && unit.text().length() > budget
+                    ? sentences(unit.text()) : List.of(unit.text());
+            for (int j = parts.size() - 1; j >= 0; j--) {
+                String part = parts.get(j);
+                if (length + part.length() + 1 > budget) break outer;
+                tail.add(0, part);
+                length += part.length() + 1;
+            }
+        }
+        List<Unit> units = new ArrayList<>(tail.size());
+        for (String part : tail) units.add(new Unit(part, false));
+        return units;
+    }
+
+    private static String join(List<Unit> units) {
+        StringBuilder sb = new StringBuilder();
+        for (Unit unit : units) {
+            if (!sb.isEmpty()) sb.append(unit.startsParagraph() ? "\n\n" : " ");
+            sb.append(unit.text());
+        }
+        return sb.toString();
+    }
+
+    private static int length(List<Unit> units) {
+        int length = 0;
+        for (int i = 0; i < units.size(); i++) length += units.get(i).joinedLength(i == 0);
+        return length;
+    }
+}
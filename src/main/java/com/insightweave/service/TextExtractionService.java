@@ -1,76 +1,392 @@
 package com.insightweave.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.apache.tika.exception.TikaException;
+import org.apache.tika.fork.ForkParser;
+import org.apache.tika.fork.ParserFactoryFactory;
+import org.apache.tika.exception.WriteLimitReachedException;
 import org.apache.tika.metadata.Metadata;
 import org.apache.tika.metadata.TikaCoreProperties;
 import org.apache.tika.parser.AutoDetectParser;
 import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.Parser;
 import org.apache.tika.sax.BodyContentHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.xml.sax.SAXException;
 
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 /**
  * Service for extracting text content from various document formats using Apache Tika.
  * Supports PDF, DOCX, TXT, and other common document formats.
+ *
+ * All parsing runs on a bounded pool of parser threads (one per core by default) sharing a
+ * single, pre-warmed AutoDetectParser. Each document gets a wall-clock deadline
+ * (insightweave.extraction.timeout) after which it is cancelled, and inputs larger than the
+ * cap for their content type (insightweave.extraction.max-size) are not parsed at all.
+ *
+ * A cancelled in-process parse stops at its next read of the input, but a parser busy computing
+ * on bytes it has already read (a pathological PDF, say) cannot be stopped: it keeps its thread
+ * until it returns, and the pool is one thread short meanwhile. Such parses are counted by the
+ * insightweave.extraction.overrunning gauge. Types listed in insightweave.extraction.fork.types
+ * are parsed in forked JVMs even in in-process mode, where the deadline kills the child and so
+ * really frees the thread.
+ *
+ * With insightweave.extraction.mode=forked the parse itself happens in a pool of child JVMs
+ * (Tika ForkParser) with their own heap limit: the document is streamed to the child and the
+ * text streamed back, so a parser blowing up its heap takes down one worker, not the API.
+ * Workers are replaced after a crash and recycled after max-files-per-worker documents.
  */
 @Service
 public class TextExtractionService {
 
   private static final Logger logger = LoggerFactory.getLogger(TextExtractionService.class);
 
-  // Maximum characters to extract (100k chars to prevent memory issues)
-  private static final int MAX_TEXT_LENGTH = 100_000;
+  // Maximum characters to extract; long documents are summarized in chunks, so this only guards memory
+  @Value("${insightweave.extraction.max-chars:1000000}")
+  private int maxChars;
+
+  @Value("${insightweave.extraction.threads:0}")
+  private int threads;
+
+  @Value("${insightweave.extraction.queue-capacity:64}")
+  private int queueCapacity;
+
+  @Value("${insightweave.extraction.timeout:60s}")
+  private Duration timeout;
+
+  @Value("${insightweave.extraction.max-size:application/pdf:50MB,text/*:10MB,*:25MB}")
+  private String maxSize;
+
+  @Value("${insightweave.extraction.mode:in-process}")
+  private String mode;
+
+  @Value("${insightweave.extraction.fork.pool-size:0}")
+  private int forkPoolSize;
+
+  @Value("${insightweave.extraction.fork.java-command:java}")
+  private String forkJavaCommand;
+
+  @Value("${insightweave.extraction.fork.max-heap:512m}")
+  private String forkMaxHeap;
+
+  @Value("${insightweave.extraction.fork.max-files-per-worker:100}")
+  private int forkMaxFilesPerWorker;
+
+  @Value("${insightweave.extraction.fork.tika-bin:}")
+  private String forkTikaBin;
+
+  @Value("${insightweave.extraction.fork.types:}")
+  private String forkTypes;
+
+  private final MeterRegistry meters;
+
+  // AutoDetectParser is thread safe; building one loads the whole parser registry, so share it
+  private final AutoDetectParser parser = new AutoDetectParser();
+
+  // set in forked mode, or in in-process mode when some types are forked
+  private ForkParser forkParser;
+  // types sent to forkParser in in-process mode, as in SizeLimits: type, type/* or *
+  private Set<String> forkedTypes = Set.of();
+  private boolean forkAll;
+  private ThreadPoolExecutor executor;
+  private ScheduledExecutorService watchdog;
+  private SizeLimits sizeLimits;
+  private Timer queueWait;
+  private Meter.MeterProvider<Timer> parseTime;
+  private Counter rejected;
+  private Counter timedOut;
+  // parses cancelled at their deadline whose thread has not come back yet
+  private final AtomicInteger overrunning = new AtomicInteger();
+
+  public TextExtractionService(MeterRegistry meters) {
+    this.meters = meters;
+  }
+
+  @PostConstruct
+  void init() {
+    sizeLimits = SizeLimits.parse(maxSize);
+    int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("extract-"));
+    executor.prestartAllCoreThreads();
+    watchdog = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("extract-deadline-"));
+
+    Gauge.builder("insightweave.extraction.queue.depth", executor, e -> e.getQueue().size())
+      .description("Documents waiting for a parser thread")
+      .register(meters);
+    Gauge.builder("insightweave.extraction.active", executor, ThreadPoolExecutor::getActiveCount)
+      .description("Documents being parsed")
+      .register(meters);
+    queueWait = Timer.builder("insightweave.extraction.queue.wait")
+      .description("Time from submission until a parser thread picks the document up")
+      .register(meters);
+    parseTime = Timer.builder("insightweave.extraction.parse")
+      .description("Time spent parsing one document")
+      .withRegistry(meters);
+    rejected = meters.counter("insightweave.extraction.rejected");
+    timedOut = meters.counter("insightweave.extraction.timeouts");
+    Gauge.builder("insightweave.extraction.overrunning", overrunning, AtomicInteger::get)
+      .description("Parses past their deadline that still hold a parser thread")
+      .register(meters);
+
+    forkAll = "forked".equalsIgnoreCase(mode);
+    forkedTypes = Arrays.stream(forkTypes.split(","))
+      .map(type -> type.trim().toLowerCase(Locale.ROOT))
+      .filter(type -> !type.isEmpty())
+      .collect(Collectors.toUnmodifiableSet());
+    if (forkAll || !forkedTypes.isEmpty()) {
+      forkParser = createForkParser(poolSize);
+      logger.info("Tika extraction of {} runs in up to {} forked JVMs (-Xmx{}, {} documents per worker)",
+        forkAll ? "all types" : forkedTypes, forkParser.getPoolSize(), forkMaxHeap, forkMaxFilesPerWorker);
+    }
+    if (!forkAll) {
+      warmUp();
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdownNow();
+    watchdog.shutdownNow();
+    if (forkParser != null) {
+      forkParser.close();
+    }
+  }
+
+  private ForkParser createForkParser(int parserThreads) {
+    // with tika-bin the children load parsers from those jars instead of pulling every class
+    // over the pipe from this JVM's class loader
+    ForkParser fork = forkTikaBin.isBlank()
+      ? new ForkParser(TextExtractionService.class.getClassLoader(), parser)
+      : new ForkParser(Paths.get(forkTikaBin),
+          new ParserFactoryFactory("org.apache.tika.parser.AutoDetectParserFactory", Map.of()));
+
+    List<String> command = new ArrayList<>();
+    command.add(forkJavaCommand);
+    command.add("-Xmx" + forkMaxHeap);
+    command.add("-XX:+ExitOnOutOfMemoryError");
+    fork.setJavaCommand(command);
+    // one worker per parser thread by default, so parses never wait for a free child
+    fork.setPoolSize(forkPoolSize > 0 ? forkPoolSize : parserThreads);
+    fork.setMaxFilesProcessedPerServer(forkMaxFilesPerWorker);
+    // the child enforces the same deadline and is killed if it overruns
+    fork.setServerParseTimeoutMillis(timeout.toMillis());
+    return fork;
+  }
+
+  // Load the parser registry and detector up front so the first upload does not pay for it
+  private void warmUp() {
+    long start = System.nanoTime();
+    parser.getSupportedTypes(new ParseContext());
+    try {
+      byte[] sample = "warm up".getBytes(StandardCharsets.UTF_8);
+      parser.parse(new ByteArrayInputStream(sample), new BodyContentHandler(), new Metadata(), new ParseContext());
+    } catch (Exception e) {
+      logger.warn("Tika warm-up failed: {}", e.getMessage());
+    }
+    logger.info("Tika parser ready in {} ms ({} parser threads, timeout {})",
+      TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), executor.getCorePoolSize(), timeout);
+  }
 
   /**
-   * Extracts text content from a file input stream.
+   * Extracts text on a parser thread. The stream is read on that thread and closed when
+   * parsing ends. The future is cancelled if parsing runs past the deadline.
    *
    * @param inputStream the file input stream
    * @param filename the original filename (used for logging)
-   * @return extracted plain text, or empty string if extraction fails
+   * @param contentType the declared MIME type, used for the size cap and as a detection hint; may be null
+   * @return the extracted text, or empty string if extraction fails
    */
-  public String extractText(InputStream inputStream, String filename) {
+  public Future<String> extractAsync(InputStream inputStream, String filename, String contentType) {
+    var task = new ExtractionTask(inputStream, filename, contentType);
+    return submit(task) ? task : CompletableFuture.completedFuture("");
+  }
+
+  /**
+   * Like {@link #extractAsync(InputStream, String, String)} for callers that do not wait: the
+   * future always completes normally, with an empty string if extraction fails, times out or
+   * the queue is full. Dependent stages run on the parser thread (the deadline thread after a
+   * timeout), so they should be short.
+   */
+  public CompletableFuture<String> extractInBackground(InputStream inputStream, String filename, String contentType) {
+    var task = new ExtractionTask(inputStream, filename, contentType);
+    return submit(task) ? task.text : CompletableFuture.completedFuture("");
+  }
+
+  private boolean submit(ExtractionTask task) {
     try {
-      // Create a handler with character limit
-      BodyContentHandler handler = new BodyContentHandler(MAX_TEXT_LENGTH);
+      executor.execute(task);
+      return true;
+    } catch (RejectedExecutionException e) {
+      rejected.increment();
+      logger.warn("Extraction queue full, skipping text extraction for file {}", task.filename);
+      closeQuietly(task.in);
+      return false;
+    }
+  }
 
-      // Create metadata object
-      Metadata metadata = new Metadata();
-      if (filename != null) {
-        metadata.set(TikaCoreProperties.RESOURCE_NAME_KEY, filename);
-      }
+  public Future<String> extractAsync(InputStream inputStream, String filename) {
+    return extractAsync(inputStream, filename, null);
+  }
+
+  /**
+   * Extracts text content from a file input stream, waiting for a parser thread.
+   *
+   * @param inputStream the file input stream (closed when parsing ends)
+   * @param filename the original filename (used for logging)
+   * @param contentType the declared MIME type; may be null
+   * @return extracted plain text, or empty string if extraction fails or times out
+   */
+  public String extractText(InputStream inputStream, String filename, String contentType) {
+    Future<String> result = extractAsync(inputStream, filename, contentType);
+    try {
+      return result.get();
+    } catch (CancellationException e) {
+      return "";
+    } catch (InterruptedException e) {
+      result.cancel(true);
+      Thread.currentThread().interrupt();
+      return "";
+    } catch (ExecutionException e) {
+      logger.error("Unexpected error extracting text from file {}: {}", filename, e.getCause().getMessage());
+      return "";
+    }
+  }
 
-      // Create auto-detect parser
-      AutoDetectParser parser = new AutoDetectParser();
-      ParseContext context = new ParseContext();
+  public String extractText(InputStream inputStream, String filename) {
+    return extractText(inputStream, filename, null);
+  }
 
-      // Parse the document
-      parser.parse(inputStream, handler, metadata, context);
+  /**
+   * Checks whether a file of this type and size is under the extraction size cap.
+   *
+   * @param contentType the MIME type of the file
+   * @param sizeBytes the file size in bytes
+   * @return true if the file is small enough to parse
+   */
+  public boolean isWithinSizeLimit(String contentType, long sizeBytes) {
+    return sizeBytes <= sizeLimits.limitFor(contentType);
+  }
 
-      String extractedText = handler.toString().trim();
+  // the declared type decides, so a forked type is never parsed in-process first
+  private Parser parserFor(String contentType) {
+    if (forkAll) {
+      return forkParser;
+    }
+    if (forkedTypes.isEmpty() || contentType == null) {
+      return parser;
+    }
+    String type = baseType(contentType);
+    int slash = type.indexOf('/');
+    boolean forked = forkedTypes.contains(type) || forkedTypes.contains("*")
+      || (slash > 0 && forkedTypes.contains(type.substring(0, slash) + "/*"));
+    return forked ? forkParser : parser;
+  }
+
+  private String parse(InputStream inputStream, String filename, String contentType) {
+    long start = System.nanoTime();
+    String outcome = "error";
 
+    // Create a handler with character limit
+    BodyContentHandler handler = new BodyContentHandler(maxChars);
+
+    Metadata metadata = new Metadata();
+    if (filename != null) {
+      metadata.set(TikaCoreProperties.RESOURCE_NAME_KEY, filename);
+    }
+    if (contentType != null) {
+      metadata.set(Metadata.CONTENT_TYPE, contentType);
+    }
+
+    try (InputStream in = new GuardedInputStream(inputStream, sizeLimits.limitFor(contentType))) {
+      parserFor(contentType).parse(in, handler, metadata, new ParseContext());
+
+      String extractedText = handler.toString().trim();
+      outcome = "success";
       logger.info("Successfully extracted {} characters from file: {}",
         extractedText.length(), filename);
-
       return extractedText;
 
-    } catch (TikaException e) {
-      logger.error("Tika parsing error for file {}: {}", filename, e.getMessage());
-      return "";
-    } catch (IOException e) {
-      logger.error("IO error reading file {}: {}", filename, e.getMessage());
-      return "";
-    } catch (SAXException e) {
-      logger.error("SAX parsing error for file {}: {}", filename, e.getMessage());
-      return "";
     } catch (Exception e) {
-      logger.error("Unexpected error extracting text from file {}: {}",
-        filename, e.getMessage());
+      if (WriteLimitReachedException.isWriteLimitReached(e)) {
+        // keep what fits instead of throwing the whole document away
+        outcome = "truncated";
+        logger.info("Reached {} character limit extracting file: {}", maxChars, filename);
+        return handler.toString().trim();
+      }
+      if (Thread.currentThread().isInterrupted()) {
+        outcome = "timeout";
+        logger.warn("Text extraction cancelled for file {}", filename);
+      } else if (e instanceof TikaException) {
+        logger.error("Tika parsing error for file {}: {}", filename, e.getMessage());
+      } else if (e instanceof IOException) {
+        logger.error("IO error reading file {}: {}", filename, e.getMessage());
+      } else if (e instanceof SAXException) {
+        logger.error("SAX parsing error for file {}: {}", filename, e.getMessage());
+      } else {
+        logger.error("Unexpected error extracting text from file {}: {}",
+          filename, e.getMessage());
+      }
       return "";
+    } finally {
+      parseTime.withTags("outcome", outcome, "content_type", baseType(metadata.get(Metadata.CONTENT_TYPE)))
+        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  // Tika's detected type after parsing (a bounded set), without parameters such as charset
+  private static String baseType(String contentType) {
+    if (contentType == null || contentType.isBlank()) {
+      return "unknown";
+    }
+    return contentType.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+  }
+
+  private static void closeQuietly(InputStream in) {
+    try {
+      in.close();
+    } catch (IOException ignored) {
+      // nothing left to release
     }
   }
 
@@ -96,4 +412,166 @@ public class TextExtractionService {
            contentType.equals("application/vnd.openxmlformats-officedocument.presentationml.presentation") ||
            contentType.equals("application/rtf");
   }
+
+  /**
+   * One document's parse. The deadline starts when a parser thread picks the task up; when it
+   * passes, the future is cancelled (interrupting the parser) and the input is closed so the
+   * parser fails on its next read and a writer feeding the stream is released. The thread is
+   * only free again once the parser returns, which it counts as overrunning until then.
+   */
+  private final class ExtractionTask extends FutureTask<String> {
+    private static final int RUNNING = 0, EXPIRED = 1, DONE = 2;
+
+    private final InputStream in;
+    private final String filename;
+    private final long queuedAt = System.nanoTime();
+    private final AtomicInteger state = new AtomicInteger(RUNNING);
+    private final CompletableFuture<String> text = new CompletableFuture<>();
+    private volatile long expiredAt;
+
+    ExtractionTask(InputStream in, String filename, String contentType) {
+      super(() -> parse(in, filename, contentType));
+      this.in = in;
+      this.filename = filename;
+    }
+
+    @Override
+    public void run() {
+      queueWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+      ScheduledFuture<?> deadline = watchdog.schedule(this::expire, timeout.toMillis(), TimeUnit.MILLISECONDS);
+      try {
+        super.run();
+      } finally {
+        deadline.cancel(false);
+        if (state.getAndSet(DONE) == EXPIRED) {
+          overrunning.decrementAndGet();
+          logger.warn("Parser thread for file {} came back {} ms after its deadline", filename,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - expiredAt));
+        }
+      }
+    }
+
+    @Override
+    protected void done() {
+      try {
+        text.complete(isCancelled() ? "" : get());
+      } catch (Exception e) {
+        text.complete("");
+      }
+    }
+
+    private void expire() {
+      expiredAt = System.nanoTime();
+      if (!state.compareAndSet(RUNNING, EXPIRED)) {
+        return;
+      }
+      overrunning.incrementAndGet();
+      if (cancel(true)) {
+        timedOut.increment();
+        logger.warn("Text extraction of file {} exceeded {} deadline, cancelled", filename, timeout);
+        closeQuietly(in);
+      }
+    }
+  }
+
+  /**
+   * Fails reads once the parser thread is interrupted or the input exceeds its size cap, so a
+   * cancelled or oversized parse stops at the next read instead of running to the end.
+   */
+  private static final class GuardedInputStream extends FilterInputStream {
+    private final long limit;
+    private long count;
+    private long markedCount;
+
+    GuardedInputStream(InputStream in, long limit) {
+      super(in);
+      this.limit = limit;
+    }
+
+    // type detection marks the start and resets to it, so bytes read twice count once
+    @Override
+    public synchronized void mark(int readlimit) {
+      super.mark(readlimit);
+      markedCount = count;
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+      super.reset();
+      count = markedCount;
+    }
+
+    @Override
+    public int read() throws IOException {
+      checkInterrupted();
+      int b = super.read();
+      if (b != -1) counted(1);
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      checkInterrupted();
+      int n = super.read(b, off, len);
+      if (n > 0) counted(n);
+      return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      checkInterrupted();
+      long skipped = super.skip(n);
+      counted(skipped);
+      return skipped;
+    }
+
+    private static void checkInterrupted() throws InterruptedIOException {
+      if (Thread.currentThread().isInterrupted()) {
+        throw new InterruptedIOException("Text extraction cancelled");
+      }
+    }
+
+    private void counted(long n) throws IOException {
+      count += n;
+      if (count > limit) {
+        throw new IOException("Input exceeds extraction size cap of " + limit + " bytes");
+      }
+    }
+  }
+
+  /**
+   * Per-content-type byte caps from a list like {@code application/pdf:50MB,text/*:10MB,*:25MB}.
+   * An exact type wins over a {@code type/*} wildcard, which wins over {@code *}.
+   */
+  static final class SizeLimits {
+    private final Map<String, Long> limits = new LinkedHashMap<>();
+
+    static SizeLimits parse(String spec) {
+      var result = new SizeLimits();
+      for (String entry : spec.split(",")) {
+        if (entry.isBlank()) continue;
+        int sep = entry.lastIndexOf(':');
+        if (sep <= 0) {
+          throw new IllegalArgumentException("Invalid extraction size cap: " + entry.trim());
+        }
+        String type = entry.substring(0, sep).trim().toLowerCase(Locale.ROOT);
+        result.limits.put(type, DataSize.parse(entry.substring(sep + 1).trim()).toBytes());
+      }
+      return result;
+    }
+
+    long limitFor(String contentType) {
+      if (contentType != null) {
+        String type = contentType.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+        Long exact = limits.get(type);
+        if (exact != null) return exact;
+        int slash = type.indexOf('/');
+        if (slash > 0) {
+          Long family = limits.get(type.substring(0, slash) + "/*");
+          if (family != null) return family;
+        }
+      }
+      return limits.getOrDefault("*", Long.MAX_VALUE);
+    }
+  }
 }
@@ -0,0 +1,68 @@
+package com.insightweave.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Deflate (zlib) compression of UTF-8 text, used for extracted text at rest. Extracted prose
+ * usually compresses 3-5x. Reading goes through {@link #open} so callers can stream the
+ * inflated bytes without ever holding the whole text as a String.
+ */
+public final class DeflateCodec {
+
+    private static final int BUFFER = 8192;
+
+    private DeflateCodec() {
+    }
+
+    /**
+     * @param level 1 (fastest) to 9 (smallest); 6 is zlib's default
+     */
+    public static byte[] compress(String text, int level) {
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        Deflater deflater = new Deflater(level);
+        try {
+            var out = new ByteArrayOutputStream(Math.max(64, utf8.length / 3));
+            try (var deflating = new DeflaterOutputStream(out, deflater, BUFFER)) {
+                deflating.write(utf8);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // in-memory streams do not fail
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /** The UTF-8 bytes of the text, inflated as they are read. */
+    public static InputStream open(byte[] compressed) {
+        // a caller-supplied Inflater is not ended by close(), so end it here
+        return new InflaterInputStream(new ByteArrayInputStream(compressed), new Inflater(), BUFFER) {
+            private boolean ended;
+
+            @Override public void close() throws IOException {
+                super.close();
+                if (!ended) {
+                    ended = true;
+                    inf.end();
+                }
+            }
+        };
+    }
+
+    public static String decompress(byte[] compressed) {
+        try (InputStream in = open(compressed)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt compressed text", e);
+        }
+    }
+}
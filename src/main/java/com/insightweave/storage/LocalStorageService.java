@@ -1,52 +1,205 @@
 package com.insightweave.storage;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.*;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
-import org.springframework.web.multipart.MultipartFile;
 
 import jakarta.annotation.PostConstruct;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.security.*;
 import java.util.HexFormat;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Stores uploads on the local file system under insightweave.upload-dir.
+ *
+ * insightweave.storage.mode=uuid (default) writes every upload to its own UUID-named file.
+ * insightweave.storage.mode=content-addressed keeps one blob per SHA-256 under blobs/ and hands out
+ * per-upload keys of the form cas/{sha256}/{uuid}; a sidecar .refs file counts the keys pointing at
+ * each blob, and the bytes go away with the last one. Keys from either mode stay readable in both.
+ *
+ * A reference is counted as soon as the blob is published, which pins it against a concurrent
+ * delete of the last other key; callers that write the key to the database in a transaction
+ * undo the save if it rolls back (see FileAssetService#deleteStoredBytesOnRollback). Counts are
+ * updated under a lock on the blob's shard directory: an in-process lock, then an OS file lock on
+ * its .lock file, so several instances may share an upload directory on a file system that
+ * supports locking.
+ */
 @Service
 public class LocalStorageService implements StorageService {
+    private static final String CAS_PREFIX = "cas/";
+    private static final int LOCK_STRIPES = 64;
+
     @Value("${insightweave.upload-dir:uploads}") String uploadDir;
+    @Value("${insightweave.storage.mode:uuid}") String mode;
+    @Value("${insightweave.storage.buffer-size:8192}") int bufferSize = 8192;
     private Path root;
+    private Path tmp;
+    // ReentrantLock rather than synchronized, which pins a virtual thread doing file I/O to its carrier.
+    // Static: file locks are per JVM, so every instance in this JVM must go through the same stripes
+    private static final ReentrantLock[] LOCKS = new ReentrantLock[LOCK_STRIPES];
+    static {
+        for (int i = 0; i < LOCKS.length; i++) LOCKS[i] = new ReentrantLock();
+    }
+    private final MeterRegistry meters;
+    private Meter.MeterProvider<Timer> saveTime;
+    private DistributionSummary savedBytes;
+    private DistributionSummary throughput;
+
+    public LocalStorageService(MeterRegistry meters) {
+        this.meters = meters;
+    }
 
     @PostConstruct void init() throws Exception {
         root = Paths.get(uploadDir).toAbsolutePath().normalize();
-        Files.createDirectories(root);
+        tmp = root.resolve(".tmp");
+        Files.createDirectories(tmp);
+        saveTime = Timer.builder("insightweave.storage.save")
+                .description("Time to hash, copy and publish one upload")
+                .tag("mode", isContentAddressed() ? "content-addressed" : "uuid")
+                .withRegistry(meters);
+        savedBytes = DistributionSummary.builder("insightweave.storage.save.size")
+                .description("Size of one stored upload")
+                .baseUnit("bytes")
+                .register(meters);
+        // includes reading the upload itself, so a slow client shows up here too
+        throughput = DistributionSummary.builder("insightweave.storage.save.throughput")
+                .description("Hash-and-copy rate of one upload")
+                .baseUnit("bytes/s")
+                .register(meters);
     }
 
-    @Override public Stored save(MultipartFile file) throws Exception {
-        String ext = StringUtils.getFilenameExtension(file.getOriginalFilename());
-        String key = UUID.randomUUID() + (ext != null ? "." + ext : "");
-        Path target = root.resolve(key);
+    @Override public Stored save(InputStream in, String originalFilename, String contentType) throws Exception {
+        String ext = StringUtils.getFilenameExtension(originalFilename);
 
+        // write to a temp file first so readers never see a partially written file
+        Path staged = Files.createTempFile(tmp, "upload-", ".part");
         MessageDigest md = MessageDigest.getInstance("SHA-256");
-        try (InputStream in = file.getInputStream()) {
-            // compute hash while copying
-            byte[] buf = new byte[8192]; int r;
-            try (var out = Files.newOutputStream(target)) {
-                while ((r = in.read(buf)) != -1) { md.update(buf, 0, r); out.write(buf, 0, r); }
+        long size = 0;
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            // compute hash and size while copying
+            byte[] buf = new byte[bufferSize]; int r;
+            try (var out = Files.newOutputStream(staged)) {
+                while ((r = in.read(buf)) != -1) { md.update(buf, 0, r); out.write(buf, 0, r); size += r; }
+            }
+            String digest = HexFormat.of().formatHex(md.digest());
+
+            String key;
+            if (isContentAddressed()) {
+                key = CAS_PREFIX + digest + "/" + UUID.randomUUID();
+                publishBlob(staged, digest);
+            } else {
+                key = UUID.randomUUID() + (ext != null ? "." + ext : "");
+                Files.move(staged, root.resolve(key), StandardCopyOption.ATOMIC_MOVE);
+            }
+            outcome = "success";
+            return new Stored(key, digest, size, contentType, originalFilename);
+        } finally {
+            Files.deleteIfExists(staged);
+            long nanos = System.nanoTime() - start;
+            saveTime.withTag("outcome", outcome).record(nanos, TimeUnit.NANOSECONDS);
+            if (outcome.equals("success")) {
+                savedBytes.record(size);
+                throughput.record(size * 1e9 / Math.max(nanos, 1));
             }
         }
-        String digest = HexFormat.of().formatHex(md.digest());
-        return new Stored(key, digest, file.getSize(), file.getContentType(), file.getOriginalFilename());
     }
 
     @Override public Resource loadAsResource(String key) throws Exception {
-        Path p = root.resolve(key).normalize();
+        Path p = resolve(key);
         if (!Files.exists(p)) throw new NoSuchFileException(key);
         return new FileSystemResource(p);
     }
 
     @Override public boolean delete(String key) throws Exception {
-        return Files.deleteIfExists(root.resolve(key).normalize());
+        if (!key.startsWith(CAS_PREFIX)) {
+            return Files.deleteIfExists(root.resolve(key).normalize());
+        }
+        return withBlobLock(digestOf(key), blob -> {
+            if (adjustRefs(blob, -1) > 0) {
+                return false;   // still referenced by other uploads
+            }
+            Files.deleteIfExists(refsPath(blob));
+            return Files.deleteIfExists(blob);
+        });
+    }
+
+    private boolean isContentAddressed() {
+        return "content-addressed".equalsIgnoreCase(mode);
+    }
+
+    // Move the staged bytes into place unless an identical blob exists, then count the new reference
+    private void publishBlob(Path staged, String digest) throws IOException {
+        withBlobLock(digest, blob -> {
+            if (!Files.exists(blob)) {
+                Files.move(staged, blob, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return adjustRefs(blob, +1);
+        });
+    }
+
+    private interface BlobAction<T> {
+        T apply(Path blob) throws IOException;
+    }
+
+    // A FileLock is held per JVM and overlapping requests from one JVM fail rather than wait, so
+    // threads here serialize on a stripe per shard directory before taking the shard's file lock
+    private <T> T withBlobLock(String digest, BlobAction<T> action) throws IOException {
+        Path blob = blobPath(digest);
+        ReentrantLock lock = LOCKS[Math.floorMod(blob.getParent().hashCode(), LOCK_STRIPES)];
+        lock.lock();
+        try {
+            Files.createDirectories(blob.getParent());
+            try (FileChannel ch = FileChannel.open(blob.resolveSibling(".lock"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = ch.lock()) {
+                return action.apply(blob);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long adjustRefs(Path blob, int delta) throws IOException {
+        Path refs = refsPath(blob);
+        long count = Files.exists(refs) ? Long.parseLong(Files.readString(refs, StandardCharsets.US_ASCII).trim()) : 0;
+        count = Math.max(0, count + delta);
+        Path staged = Files.createTempFile(tmp, "refs-", ".part");
+        Files.writeString(staged, Long.toString(count), StandardCharsets.US_ASCII);
+        Files.move(staged, refs, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return count;
+    }
+
+    private Path resolve(String key) {
+        return key.startsWith(CAS_PREFIX) ? blobPath(digestOf(key)) : root.resolve(key).normalize();
+    }
+
+    private Path blobPath(String digest) {
+        return root.resolve("blobs").resolve(digest.substring(0, 2)).resolve(digest.substring(2, 4)).resolve(digest);
+    }
+
+    private static Path refsPath(Path blob) {
+        return blob.resolveSibling(blob.getFileName() + ".refs");
+    }
+
+    private static String digestOf(String key) {
+        int end = key.indexOf('/', CAS_PREFIX.length());
+        String digest = key.substring(CAS_PREFIX.length(), end < 0 ? key.length() : end);
+        if (!digest.matches("[0-9a-f]{64}")) throw new IllegalArgumentException("Invalid storage key: " + key);
+        return digest;
     }
 }
@@ -3,9 +3,17 @@ package com.insightweave.storage;
 import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+
 public interface StorageService {
     record Stored(String key, String sha256, long size, String type, String original) {}
-    Stored save(MultipartFile file) throws Exception;
+    Stored save(InputStream in, String originalFilename, String contentType) throws Exception;
     Resource loadAsResource(String key) throws Exception;
     boolean delete(String key) throws Exception;
+
+    default Stored save(MultipartFile file) throws Exception {
+        try (InputStream in = file.getInputStream()) {
+            return save(in, file.getOriginalFilename(), file.getContentType());
+        }
+    }
 }
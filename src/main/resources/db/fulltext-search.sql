@@ -0,0 +1,22 @@
+-- Weighted search vectors for insightweave.search.engine=fulltext (PostgreSQL only).
+-- Generated columns keep themselves current on every insert/update. Idempotent, runs on startup.
+
+ALTER TABLE documents ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(content, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_documents_search_vector ON documents USING GIN (search_vector);
+
+-- Attachment text is stored compressed, so its vector cannot be generated in SQL: the application
+-- writes it with each text and, on startup, for rows stored while another engine was active
+-- (PostgresFullTextSearchEngine). The old generated column on file_assets read the legacy
+-- extracted_text column and is dropped.
+ALTER TABLE file_assets DROP COLUMN IF EXISTS search_vector;
+
+ALTER TABLE file_asset_texts ADD COLUMN IF NOT EXISTS search_vector tsvector;
+
+CREATE INDEX IF NOT EXISTS idx_file_asset_texts_search_vector ON file_asset_texts USING GIN (search_vector);
+
+CREATE INDEX IF NOT EXISTS idx_file_assets_document_id ON file_assets (document_id);
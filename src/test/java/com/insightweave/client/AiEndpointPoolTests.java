@@ -0,0 +1,205 @@
+package com.insightweave.client;
+
+import com.insightweave.config.RestTemplateConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Balancing, ejection and hedging across several stub replicas with injected latency. */
+class AiEndpointPoolTests {
+
+    private final List<StubAiServer> stubs = new ArrayList<>();
+    private PythonAiClient client;
+
+    @AfterEach
+    void tearDown() {
+        if (client != null) client.shutdown();
+        stubs.forEach(StubAiServer::close);
+    }
+
+    @Test
+    void sendsMostCallsToTheFasterReplica() throws Exception {
+        StubAiServer fast = stub(Duration.ofMillis(10));
+        StubAiServer slow = stub(Duration.ofMillis(300));
+        client = client(false);
+
+        // a few callers in a loop: the fast replica keeps coming back with nothing outstanding
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> callers = new ArrayList<>();
+            for (int c = 0; c < 4; c++) {
+                callers.add(executor.submit(() -> {
+                    for (int i = 0; i < 20; i++) client.summarize("text", null, null, null);
+                    return null;
+                }));
+            }
+            for (Future<?> caller : callers) caller.get();
+        }
+
+        assertThat(fast.requests() + slow.requests()).isEqualTo(80);
+        assertThat(fast.requests()).isGreaterThan(slow.requests() * 3);
+    }
+
+    @Test
+    void ejectsAReplicaAfterConsecutiveFailures() {
+        StubAiServer broken = stub(Duration.ZERO).failWith(500);
+        StubAiServer good = stub(Duration.ZERO);
+        client = client(false);
+
+        int failures = 0;
+        for (int i = 0; i < 30; i++) {
+            try {
+                client.summarize("text", null, null, null);
+            } catch (RestClientException e) {
+                failures++;
+            }
+        }
+
+        assertThat(broken.requests()).isEqualTo(3);
+        assertThat(failures).isEqualTo(3);
+        assertThat(good.requests()).isEqualTo(27);
+    }
+
+    @Test
+    void healthChecksKeepCallsAwayFromAnUnhealthyReplica() throws Exception {
+        StubAiServer sick = stub(Duration.ZERO).healthy(false);
+        StubAiServer good = stub(Duration.ZERO);
+        client = client(false);
+        // the first round of checks pays for warming up the HTTP client, so wait for the state itself
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (client.endpointState().stream().allMatch(AiEndpointPool.EndpointSnapshot::healthy)
+                && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+
+        for (int i = 0; i < 20; i++) {
+            client.summarize("text", null, null, null);
+        }
+
+        assertThat(sick.requests()).isZero();
+        assertThat(good.requests()).isEqualTo(20);
+        assertThat(client.endpointState()).anySatisfy(e -> assertThat(e.healthy()).isFalse());
+    }
+
+    @Test
+    void aSingleFailedHealthCheckDoesNotEjectAReplica() {
+        var failNext = new AtomicBoolean(true);
+        try (var pool = new AiEndpointPool(List.of("a", "b"), AiEndpointPool.Strategy.P2C, 3, Duration.ofMinutes(1),
+                url -> !url.equals("a") || !failNext.getAndSet(false), new SimpleMeterRegistry())
+                .checkHealthEvery(Duration.ofDays(1), 3)) {
+            pool.checkHealth();
+            pool.checkHealth();
+
+            assertThat(pool.snapshot()).allSatisfy(e -> assertThat(e.healthy()).isTrue());
+        }
+    }
+
+    @Test
+    void withEverythingEjectedPrefersReplicasThatStillPassHealthChecks() {
+        try (var pool = new AiEndpointPool(List.of("failing", "sick"), AiEndpointPool.Strategy.P2C, 1,
+                Duration.ofMinutes(1), url -> !url.equals("sick"), new SimpleMeterRegistry())
+                .checkHealthEvery(Duration.ofDays(1), 1)) {
+            pool.checkHealth();
+            pool.call(url -> CompletableFuture.failedFuture(new IOException("refused")), false);
+            pool.call(url -> CompletableFuture.failedFuture(new IOException("refused")), false);
+
+            assertThat(pool.snapshot()).allSatisfy(e -> assertThat(e.healthy() && !e.ejected()).isFalse());
+            for (int i = 0; i < 20; i++) {
+                assertThat(pool.choose(null).url).isEqualTo("failing");
+            }
+        }
+    }
+
+    @Test
+    void healthIsAnsweredFromTheBackgroundChecks() {
+        var checks = new AtomicInteger();
+        var up = new AtomicBoolean(true);
+        try (var pool = new AiEndpointPool(List.of("a"), AiEndpointPool.Strategy.P2C, 3, Duration.ofMinutes(1),
+                url -> {
+                    checks.incrementAndGet();
+                    return up.get();
+                }, new SimpleMeterRegistry())) {
+            assertThat(pool.anyHealthy()).isTrue();
+            up.set(false);
+            pool.checkHealth();
+
+            assertThat(pool.anyHealthy()).isFalse();
+            assertThat(checks).hasValue(1);
+        }
+    }
+
+    @Test
+    void aBlockingHedgeHoldsALimiterSlotUntilTheLoserEnds() throws Exception {
+        stub(Duration.ofMillis(1500));
+        stub(Duration.ofMillis(1500));
+        client = client(true);
+
+        client.summarize("text", null, null, null);
+        // hedged after 100 ms, so the loser is still running for a while after the winner answered
+        assertThat(client.guardState().limiter().inFlight()).isEqualTo(1);
+        for (int i = 0; i < 100 && client.guardState().limiter().inFlight() > 0; i++) {
+            Thread.sleep(20);
+        }
+        assertThat(client.guardState().limiter().inFlight()).isZero();
+    }
+
+    @Test
+    void hedgesSlowCallsToAnotherReplica() {
+        stub(Duration.ofSeconds(2));
+        stub(Duration.ofMillis(10));
+        client = client(true);
+
+        for (int i = 0; i < 10; i++) {
+            long start = System.nanoTime();
+            client.summarize("text", null, null, null);
+            // either the fast replica answered first, or the call was hedged to it after 100 ms
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        }
+    }
+
+    private StubAiServer stub(Duration latency) {
+        try {
+            StubAiServer stub = new StubAiServer().latency(latency);
+            stubs.add(stub);
+            return stub;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private PythonAiClient client(boolean hedge) {
+        var config = new RestTemplateConfig();
+        ReflectionTestUtils.setField(config, "aiServiceTimeout", 10_000L);
+        ReflectionTestUtils.setField(config, "aiMaxConcurrency", 16);
+        var client = new PythonAiClient(config.restTemplate(new RestTemplateBuilder()), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(client, "aiServiceUrl",
+                String.join(",", stubs.stream().map(StubAiServer::url).toList()));
+        ReflectionTestUtils.setField(client, "timeout", 10_000L);
+        ReflectionTestUtils.setField(client, "maxConcurrency", 16);
+        ReflectionTestUtils.setField(client, "limiterMaxWait", Duration.ofSeconds(10));
+        // keep the breaker out of the way: these tests are about individual replicas
+        ReflectionTestUtils.setField(client, "circuitMinCalls", 1000);
+        ReflectionTestUtils.setField(client, "circuitWindow", 1000);
+        ReflectionTestUtils.setField(client, "ejectionTime", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(client, "healthInterval", Duration.ofMillis(50));
+        ReflectionTestUtils.setField(client, "hedgeEnabled", hedge);
+        ReflectionTestUtils.setField(client, "hedgeMinDelay", Duration.ofMillis(100));
+        ReflectionTestUtils.setField(client, "hedgeMinSamples", 0);
+        client.init();
+        return client;
+    }
+}
@@ -0,0 +1,90 @@
+package com.insightweave.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insightweave.client.dto.SummarizeResponse;
+import com.insightweave.config.RestTemplateConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AsyncAiTransportTests {
+
+    private static final int CALLS = 50;
+
+    private StubAiServer stub;
+    private AsyncAiTransport transport;
+    private PythonAiClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new StubAiServer().latency(Duration.ofMillis(200));
+
+        transport = new AsyncAiTransport(new ObjectMapper());
+        ReflectionTestUtils.setField(transport, "timeout", 10_000L);
+        // the JDK stub server speaks HTTP/1.1 only
+        ReflectionTestUtils.setField(transport, "protocols", new String[] {"http11"});
+        ReflectionTestUtils.setField(transport, "maxConnections", CALLS);
+        ReflectionTestUtils.setField(transport, "maxStreams", 100);
+        ReflectionTestUtils.setField(transport, "pendingAcquireMax", 1000);
+        ReflectionTestUtils.setField(transport, "maxIdleTime", Duration.ofSeconds(4));
+        ReflectionTestUtils.setField(transport, "maxLifeTime", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(transport, "gzipRequests", true);
+        ReflectionTestUtils.setField(transport, "gzipMinSize", 16_384);
+        transport.init();
+
+        var config = new RestTemplateConfig();
+        ReflectionTestUtils.setField(config, "aiServiceTimeout", 10_000L);
+        ReflectionTestUtils.setField(config, "aiMaxConcurrency", CALLS);
+        client = new PythonAiClient(config.restTemplate(new RestTemplateBuilder()), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(client, "aiServiceUrl", stub.url());
+        ReflectionTestUtils.setField(client, "timeout", 10_000L);
+        ReflectionTestUtils.setField(client, "maxConcurrency", CALLS);
+        ReflectionTestUtils.setField(client, "limiterInitial", CALLS);
+        ReflectionTestUtils.setField(client, "asyncTransport", transport);
+        client.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.shutdown();
+        transport.shutdown();
+        stub.close();
+    }
+
+    @Test
+    void largeSummariesAreSentGzippedAndCompleteWithoutBlockingCallers() {
+        List<CompletableFuture<SummarizeResponse>> calls = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < CALLS; i++) {
+            calls.add(client.summarizeAsync("x".repeat(100_000 + i), null, null, null));
+        }
+        // issuing the calls must not wait for responses: one at a time they would take 10 s
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).join();
+
+        for (int i = 0; i < CALLS; i++) {
+            assertThat(calls.get(i).join().inputLength()).isEqualTo(100_000 + i);
+        }
+        assertThat(stub.gzipRequests()).isEqualTo(CALLS);
+        assertThat(stub.maxInFlight()).isGreaterThan(1);
+    }
+
+    @Test
+    void smallBodiesAreSentPlain() {
+        SummarizeResponse response = client.summarize("short text", null, null, "detailed");
+
+        assertThat(response.style()).isEqualTo("detailed");
+        assertThat(stub.gzipRequests()).isZero();
+    }
+}
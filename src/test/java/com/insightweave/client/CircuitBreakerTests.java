@@ -0,0 +1,121 @@
+package com.insightweave.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CircuitBreakerTests {
+
+    @Test
+    void opensAtTheFailureRateAndRejects() {
+        var breaker = new CircuitBreaker(10, 4, 0.5, Duration.ofMinutes(1), 1, () -> true);
+
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onSuccess();
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onFailure();
+
+        assertThat(breaker.snapshot().state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.snapshot().rejected()).isEqualTo(1);
+    }
+
+    @Test
+    void probesOnlyWhenHealthyAndClosesAfterSuccessfulProbes() throws Exception {
+        var healthy = new AtomicBoolean(false);
+        var breaker = new CircuitBreaker(4, 2, 0.5, Duration.ofMillis(20), 2, healthy::get);
+        breaker.onFailure();
+        breaker.onFailure();
+
+        Thread.sleep(30);
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        healthy.set(true);
+        Thread.sleep(30);
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.snapshot().state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+
+        breaker.onSuccess();
+        breaker.onSuccess();
+        assertThat(breaker.snapshot().state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void adaptiveLimitShrinksOnSlowCallsAndShedsWhenFull() throws Exception {
+        var limit = new AdaptiveLimit(4, 1, 8, 2.0, 0.5, Duration.ofMillis(10));
+        long ms = 1_000_000L;
+
+        assertThat(limit.acquire()).isTrue();
+        limit.release(10 * ms, AdaptiveLimit.Outcome.SUCCESS);
+        assertThat(limit.acquire()).isTrue();
+        limit.release(50 * ms, AdaptiveLimit.Outcome.SUCCESS);
+        assertThat(limit.snapshot().limit()).isEqualTo(2);
+
+        assertThat(limit.acquire()).isTrue();
+        assertThat(limit.acquire()).isTrue();
+        assertThat(limit.acquire()).isFalse();
+        assertThat(limit.snapshot().shed()).isEqualTo(1);
+    }
+
+    @Test
+    void adaptiveLimitComparesLatencyPerCharacterOfInput() throws Exception {
+        var limit = new AdaptiveLimit(4, 1, 8, 2.0, 0.5, Duration.ofMillis(10));
+        long ms = 1_000_000L;
+
+        // a short document, then one 20 times longer taking 15 times as long: not overload
+        assertThat(limit.acquire()).isTrue();
+        limit.release(10 * ms, 500, AdaptiveLimit.Outcome.SUCCESS);
+        assertThat(limit.acquire()).isTrue();
+        limit.release(150 * ms, 20_000, AdaptiveLimit.Outcome.SUCCESS);
+        assertThat(limit.snapshot().limit()).isEqualTo(4);
+
+        // the same length taking five times as long is
+        assertThat(limit.acquire()).isTrue();
+        limit.release(50 * ms, 800, AdaptiveLimit.Outcome.SUCCESS);
+        assertThat(limit.snapshot().limit()).isEqualTo(2);
+    }
+
+    @Test
+    void callersMayWaitLongerThanTheConfiguredMaximum() throws Exception {
+        var limit = new AdaptiveLimit(1, 1, 1, 2.0, 0.5, Duration.ofMillis(10));
+        assertThat(limit.acquire()).isTrue();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var waiting = executor.submit(() -> limit.acquire(Duration.ofSeconds(5)));
+            Thread.sleep(100);
+            assertThat(limit.acquire()).isFalse();
+            limit.release(1_000_000L, AdaptiveLimit.Outcome.SUCCESS);
+            assertThat(waiting.get()).isTrue();
+        }
+    }
+
+    @Test
+    void guardCountsTooManyRequestsAsAFailureButNotOtherClientErrors() {
+        var breaker = new CircuitBreaker(10, 2, 0.5, Duration.ofMinutes(1), 1, () -> true);
+        var guard = new AiCallGuard(new AdaptiveLimit(4, 1, 8, 2.0, 0.5, Duration.ofMillis(10)), breaker);
+
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> guard.call(() -> {
+                throw new HttpClientErrorException(HttpStatus.NOT_FOUND);
+            })).isInstanceOf(HttpClientErrorException.class);
+        }
+        assertThat(breaker.snapshot().failureRate()).isZero();
+
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> guard.call(() -> {
+                throw new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS);
+            })).isInstanceOf(HttpClientErrorException.class);
+        }
+        assertThat(breaker.snapshot().failureRate()).isEqualTo(0.5);
+        assertThat(breaker.snapshot().state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+}
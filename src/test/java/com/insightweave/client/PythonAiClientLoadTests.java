@@ -0,0 +1,79 @@
+package com.insightweave.client;
+
+import com.insightweave.config.RestTemplateConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent summaries on virtual threads: in-flight calls should be bounded by
+ * ai.service.max-concurrency, not by the old pool of 5 threads or 5 connections per route.
+ */
+class PythonAiClientLoadTests {
+
+    private static final int CALLS = 200;
+    private static final int MAX_CONCURRENCY = 64;
+
+    private StubAiServer stub;
+    private PythonAiClient client;
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new StubAiServer().latency(Duration.ofMillis(300));
+
+        var config = new RestTemplateConfig();
+        ReflectionTestUtils.setField(config, "aiServiceTimeout", 10_000L);
+        ReflectionTestUtils.setField(config, "aiMaxConcurrency", MAX_CONCURRENCY);
+        client = new PythonAiClient(config.restTemplate(new RestTemplateBuilder()), meters);
+        ReflectionTestUtils.setField(client, "aiServiceUrl", stub.url());
+        ReflectionTestUtils.setField(client, "timeout", 10_000L);
+        ReflectionTestUtils.setField(client, "maxConcurrency", MAX_CONCURRENCY);
+        // default limiter: blocking summaries queue for a slot and the limit climbs to the cap
+        client.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    void inFlightSummariesScaleToTheConcurrencyLimit() throws Exception {
+        long start = System.nanoTime();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> calls = new ArrayList<>();
+            for (int i = 0; i < CALLS; i++) {
+                calls.add(executor.submit(() -> client.summarize("some text to summarize", null, null, null)));
+            }
+            for (Future<?> call : calls) {
+                call.get();
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertThat(stub.requests()).isEqualTo(CALLS);
+        assertThat(stub.maxInFlight()).isGreaterThan(5).isLessThanOrEqualTo(MAX_CONCURRENCY);
+        // 200 calls of 300 ms through 5 slots would take 12 s; at 64 they need about 1 s
+        assertThat(elapsed).isLessThan(Duration.ofSeconds(6));
+    }
+
+    @Test
+    void asyncCallsOnVirtualThreadsAreTaggedAsync() {
+        client.summarizeAsync("some text to summarize", null, null, null).join();
+
+        assertThat(meters.get("ai.summarize").tag("mode", "async").timer().count()).isEqualTo(1);
+        assertThat(meters.find("ai.summarize").tag("mode", "blocking").timer()).isNull();
+    }
+}
@@ -0,0 +1,60 @@
+package com.insightweave.client;
+
+import com.insightweave.client.dto.SummarizeResponse;
+import com.insightweave.config.RestTemplateConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PythonAiClientStreamTests {
+
+    private StubAiServer stub;
+    private PythonAiClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new StubAiServer().latency(Duration.ofMillis(500));
+
+        var config = new RestTemplateConfig();
+        ReflectionTestUtils.setField(config, "aiServiceTimeout", 10_000L);
+        ReflectionTestUtils.setField(config, "aiMaxConcurrency", 4);
+        client = new PythonAiClient(config.restTemplate(new RestTemplateBuilder()), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(client, "aiServiceUrl", stub.url());
+        ReflectionTestUtils.setField(client, "timeout", 10_000L);
+        ReflectionTestUtils.setField(client, "maxConcurrency", 4);
+        client.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.shutdown();
+        stub.close();
+    }
+
+    @Test
+    void tokensArriveBeforeTheStreamEnds() {
+        List<String> tokens = new ArrayList<>();
+        List<Long> arrivals = new ArrayList<>();
+        long start = System.nanoTime();
+
+        SummarizeResponse response = client.summarizeStream("some text to summarize", null, null, null, token -> {
+            tokens.add(token);
+            arrivals.add(System.nanoTime() - start);
+        });
+        long total = System.nanoTime() - start;
+
+        assertThat(String.join("", tokens)).isEqualTo(response.summary());
+        assertThat(response.inputLength()).isEqualTo(22);
+        // the first token comes well before the full latency
+        assertThat(arrivals.get(0)).isLessThan(total / 2);
+    }
+}
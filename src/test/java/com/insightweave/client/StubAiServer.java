@@ -0,0 +1,223 @@
+package com.insightweave.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Stand-in for the Python AI service: answers /nlp/summarize, /nlp/summarize/batch and
+ * /nlp/summarize/stream (one token per word, spread over the latency) after a latency, fixed or
+ * drawn per request, and records how many requests were in flight at once and how large each
+ * batch was. It can be told to fail calls (always, or at a random rate with 503) or health checks,
+ * and accepts (and counts) gzip-encoded request bodies. Every response echoes the input length so
+ * callers can check they got their own answer. Handles every request on its own virtual thread so
+ * the stub itself never limits concurrency.
+ *
+ * Shared with the load test under src/load/java, which the load profile compiles alongside the
+ * tests.
+ */
+public class StubAiServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicInteger gzipRequests = new AtomicInteger();
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    private final ObjectMapper json = new ObjectMapper();
+    private volatile Supplier<Duration> latency = () -> Duration.ZERO;
+    private volatile int failStatus;
+    private volatile double failureRate;
+    private volatile boolean healthy = true;
+
+    public StubAiServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/nlp/summarize/batch", this::summarizeBatch);
+        server.createContext("/nlp/summarize/stream", this::summarizeStream);
+        server.createContext("/nlp/summarize", this::summarize);
+        server.createContext("/health", exchange -> respond(exchange, healthy ? 200 : 503, "{\"status\":\"ok\"}"));
+        server.start();
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public StubAiServer latency(Duration latency) {
+        return latency(() -> latency);
+    }
+
+    /** Draw each call's latency from the supplier; a batch or stream draws once. */
+    public StubAiServer latency(Supplier<Duration> latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /** Answer summarize calls with this status instead of a summary; 0 to stop failing. */
+    public StubAiServer failWith(int status) {
+        this.failStatus = status;
+        return this;
+    }
+
+    /** Fail this fraction of summarize calls, at random, with 503. */
+    public StubAiServer failureRate(double failureRate) {
+        this.failureRate = failureRate;
+        return this;
+    }
+
+    public StubAiServer healthy(boolean healthy) {
+        this.healthy = healthy;
+        return this;
+    }
+
+    public int maxInFlight() {
+        return maxInFlight.get();
+    }
+
+    public int requests() {
+        return requests.get();
+    }
+
+    /** Calls answered with a failure status by failWith or failureRate. */
+    public int failures() {
+        return failures.get();
+    }
+
+    int gzipRequests() {
+        return gzipRequests.get();
+    }
+
+    List<Integer> batchSizes() {
+        return List.copyOf(batchSizes);
+    }
+
+    private void summarize(HttpExchange exchange) throws IOException {
+        int now = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(now, Math::max);
+        requests.incrementAndGet();
+        try {
+            JsonNode request = json.readTree(requestBody(exchange));
+            Duration delay = latency.get();
+            Thread.sleep(delay);
+            if (failed(exchange)) {
+                return;
+            }
+            respond(exchange, 200, json.writeValueAsString(response(request, delay)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            respond(exchange, 503, "{}");
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void summarizeBatch(HttpExchange exchange) throws IOException {
+        int now = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(now, Math::max);
+        requests.incrementAndGet();
+        try {
+            JsonNode items = json.readTree(requestBody(exchange)).path("items");
+            batchSizes.add(items.size());
+            Duration delay = latency.get();
+            Thread.sleep(delay);
+            if (failed(exchange)) {
+                return;
+            }
+            ObjectNode body = json.createObjectNode();
+            ArrayNode out = body.putArray("items");
+            items.forEach(item -> out.add(response(item, delay)));
+            respond(exchange, 200, json.writeValueAsString(body));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            respond(exchange, 503, "{}");
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void summarizeStream(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        JsonNode request = json.readTree(requestBody(exchange));
+        Duration delay = latency.get();
+        ObjectNode done = response(request, delay);
+        String[] words = done.path("summary").asText().split(" ");
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        try (var out = exchange.getResponseBody()) {
+            for (int i = 0; i < words.length; i++) {
+                ObjectNode token = json.createObjectNode().put("token", i == 0 ? words[i] : " " + words[i]);
+                out.write(("data: " + json.writeValueAsString(token) + "\n\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                Thread.sleep(delay.toMillis() / words.length);
+            }
+            out.write(("event: done\ndata: " + json.writeValueAsString(done) + "\n\n").getBytes(StandardCharsets.UTF_8));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean failed(HttpExchange exchange) throws IOException {
+        int status = failStatus;
+        if (status == 0 && failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            status = 503;
+        }
+        if (status == 0) {
+            return false;
+        }
+        failures.incrementAndGet();
+        respond(exchange, status, "{\"detail\":\"stub failure\"}");
+        return true;
+    }
+
+    private InputStream requestBody(HttpExchange exchange) throws IOException {
+        if ("gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+            gzipRequests.incrementAndGet();
+            return new GZIPInputStream(exchange.getRequestBody());
+        }
+        return exchange.getRequestBody();
+    }
+
+    private ObjectNode response(JsonNode request, Duration delay) {
+        String text = request.path("text").asText("");
+        ObjectNode node = json.createObjectNode();
+        node.put("summary", "stub summary of " + text.length() + " chars");
+        node.put("model_name", "stub-model");
+        node.put("latency_ms", delay.toMillis());
+        node.put("input_length", text.length());
+        node.put("summary_length", 12);
+        node.put("style", request.path("style").asText("concise"));
+        return node;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (var out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
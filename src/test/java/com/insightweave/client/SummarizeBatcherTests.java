@@ -0,0 +1,84 @@
+package com.insightweave.client;
+
+import com.insightweave.client.dto.SummarizeResponse;
+import com.insightweave.config.RestTemplateConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SummarizeBatcherTests {
+
+    private static final int CALLS = 100;
+    private static final int MAX_BATCH = 16;
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    private StubAiServer stub;
+    private PythonAiClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new StubAiServer().latency(Duration.ofMillis(50));
+
+        var config = new RestTemplateConfig();
+        ReflectionTestUtils.setField(config, "aiServiceTimeout", 10_000L);
+        ReflectionTestUtils.setField(config, "aiMaxConcurrency", 16);
+        client = new PythonAiClient(config.restTemplate(new RestTemplateBuilder()), meters);
+        ReflectionTestUtils.setField(client, "aiServiceUrl", stub.url());
+        ReflectionTestUtils.setField(client, "timeout", 10_000L);
+        ReflectionTestUtils.setField(client, "maxConcurrency", 16);
+        ReflectionTestUtils.setField(client, "limiterMaxWait", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(client, "batchEnabled", true);
+        ReflectionTestUtils.setField(client, "batchWindow", Duration.ofMillis(30));
+        ReflectionTestUtils.setField(client, "batchMaxSize", MAX_BATCH);
+        client.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.shutdown();
+        stub.close();
+    }
+
+    @Test
+    void coalescesConcurrentCallsAndFansResultsBackOut() throws Exception {
+        List<Future<SummarizeResponse>> calls = new ArrayList<>();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 1; i <= CALLS; i++) {
+                String text = "x".repeat(i);
+                calls.add(executor.submit(() -> client.summarize(text, null, null, null)));
+            }
+        }
+
+        for (int i = 0; i < CALLS; i++) {
+            // every caller gets the answer for its own input
+            assertThat(calls.get(i).get().inputLength()).isEqualTo(i + 1);
+        }
+        List<Integer> batches = stub.batchSizes();
+        assertThat(batches.stream().mapToInt(Integer::intValue).sum()).isEqualTo(CALLS);
+        assertThat(batches).allSatisfy(size -> assertThat(size).isLessThanOrEqualTo(MAX_BATCH));
+        assertThat(batches.size()).isLessThan(CALLS / 2);
+
+        assertThat(meters.get("ai.summarize.batch.size").summary().count()).isEqualTo(batches.size());
+        assertThat(meters.get("ai.summarize.batch.wait").timer().count()).isEqualTo(CALLS);
+    }
+
+    @Test
+    void sendsALoneRequestWhenTheWindowCloses() {
+        var response = client.summarize("just one", 100, 20, "detailed");
+
+        assertThat(response.inputLength()).isEqualTo("just one".length());
+        assertThat(response.style()).isEqualTo("detailed");
+        assertThat(stub.batchSizes()).containsExactly(1);
+    }
+}
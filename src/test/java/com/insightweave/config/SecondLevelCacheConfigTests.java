@@ -0,0 +1,146 @@
+package com.insightweave.config;
+
+import com.insightweave.entity.Document;
+import com.insightweave.entity.FileAsset;
+import com.insightweave.entity.Summary;
+import com.insightweave.repository.DocumentRepository;
+import com.insightweave.repository.FileAssetRepository;
+import com.insightweave.repository.SummaryRepository;
+import com.insightweave.service.ExtractedTextStore;
+import com.insightweave.service.FileAssetService;
+import com.insightweave.storage.StorageService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+// Not in a test transaction: entries are cached and invalidated as each repository call commits
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "insightweave.cache.second-level=true"
+})
+@Import({JpaConfig.class, SecondLevelCacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheConfigTests {
+
+    @Autowired EntityManagerFactory emf;
+    @Autowired DocumentRepository documentRepository;
+    @Autowired FileAssetRepository fileAssetRepository;
+    @Autowired SummaryRepository summaryRepository;
+
+    private Statistics stats;
+    private Long fileAssetId;
+
+    @BeforeEach
+    void seed() {
+        fileAssetId = fileAssetRepository.save(FileAsset.builder()
+                .originalFilename("report.pdf")
+                .contentType("application/pdf")
+                .sizeBytes(1024L)
+                .storageKey("key-report")
+                .sha256("0".repeat(64))
+                .build()).getId();
+        summaryRepository.save(summary("first"));
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        summaryRepository.deleteAll();
+        documentRepository.deleteAll();
+        fileAssetRepository.deleteAll();
+        emf.getCache().evictAll();
+    }
+
+    @Test
+    void documentIsReadFromCacheAfterFirstLoad() {
+        Document doc = new Document();
+        doc.setTitle("Cached");
+        doc.setContent("content");
+        Long id = documentRepository.save(doc).getId();
+        documentRepository.findById(id);
+
+        stats.clear();
+        assertThat(documentRepository.findById(id)).get().extracting(Document::getTitle).isEqualTo("Cached");
+        assertThat(stats.getPrepareStatementCount()).isZero();
+        assertThat(stats.getSecondLevelCacheHitCount()).isPositive();
+    }
+
+    @Test
+    void summaryQueryIsCachedUntilSummariesChange() {
+        assertThat(summaryRepository.findByFileAssetId(fileAssetId)).hasSize(1);
+
+        stats.clear();
+        assertThat(summaryRepository.findByFileAssetId(fileAssetId)).hasSize(1);
+        assertThat(stats.getPrepareStatementCount()).isZero();
+        assertThat(stats.getQueryCacheHitCount()).isEqualTo(1);
+
+        summaryRepository.save(summary("second"));
+        assertThat(summaryRepository.findByFileAssetId(fileAssetId))
+                .extracting(Summary::getSummaryText).containsExactlyInAnyOrder("first", "second");
+    }
+
+    @Test
+    void deletingAnAttachmentEvictsOnlyItsDocumentsCollection() throws Exception {
+        Long kept = documentWithAttachment("kept");
+        Long trimmed = documentWithAttachment("trimmed");
+        Long deleted = loadAttachments(trimmed).get(0).getId();
+        loadAttachments(kept);
+        var cache = emf.unwrap(SessionFactory.class).getCache();
+        String role = Document.class.getName() + ".attachments";
+        assertThat(cache.containsCollection(role, kept)).isTrue();
+        assertThat(cache.containsCollection(role, trimmed)).isTrue();
+
+        var files = new FileAssetService(mock(StorageService.class), fileAssetRepository,
+                mock(ExtractedTextStore.class), emf);
+        files.delete(deleted);
+
+        assertThat(cache.containsCollection(role, trimmed)).isFalse();
+        assertThat(cache.containsCollection(role, kept)).isTrue();
+        assertThat(loadAttachments(trimmed)).isEmpty();
+    }
+
+    private Long documentWithAttachment(String name) {
+        Document doc = new Document();
+        doc.setTitle(name);
+        doc.setContent("content");
+        doc.getAttachments().add(FileAsset.builder()
+                .originalFilename(name + ".pdf")
+                .contentType("application/pdf")
+                .sizeBytes(1024L)
+                .storageKey("key-" + name)
+                .sha256("1".repeat(64))
+                .build());
+        return documentRepository.save(doc).getId();
+    }
+
+    private List<FileAsset> loadAttachments(Long documentId) {
+        var em = emf.createEntityManager();
+        try {
+            return List.copyOf(em.find(Document.class, documentId).getAttachments());
+        } finally {
+            em.close();
+        }
+    }
+
+    private Summary summary(String text) {
+        return Summary.builder()
+                .fileAssetId(fileAssetId)
+                .summaryText(text)
+                .modelName("test-model")
+                .style("concise")
+                .build();
+    }
+}
@@ -0,0 +1,81 @@
+package com.insightweave.controller;
+
+import com.insightweave.config.SecurityConfig;
+import com.insightweave.mapper.FileAssetMapper;
+import com.insightweave.repository.DocumentRepository;
+import com.insightweave.service.DocumentAggregateLoader;
+import com.insightweave.service.DocumentAttachmentService;
+import com.insightweave.service.ExtractedTextStore;
+import com.insightweave.service.FileAssetService;
+import com.insightweave.storage.DeflateCodec;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** The attachment text endpoint, streamed straight from the compressed store. */
+@WebMvcTest(DocumentAttachmentController.class)
+@Import({SecurityConfig.class, FileDownloadHandler.class})
+class DocumentAttachmentControllerTests {
+
+    private static final long DOC = 1L;
+    private static final long FILE = 2L;
+
+    @Autowired MockMvc mvc;
+    @MockitoBean DocumentRepository docRepo;
+    @MockitoBean DocumentAttachmentService attachments;
+    @MockitoBean FileAssetService files;
+    @MockitoBean FileAssetMapper fileMapper;
+    @MockitoBean DocumentAggregateLoader loader;
+    @MockitoBean ExtractedTextStore texts;
+
+    @Test
+    void streamsTheInflatedTextAsUtf8() throws Exception {
+        String text = "Zusammenfassung: Umsätze stiegen — ".repeat(500);
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        when(docRepo.hasAttachment(DOC, FILE)).thenReturn(true);
+        when(texts.open(FILE)).thenReturn(Optional.of(
+                new ExtractedTextStore.Opened(DeflateCodec.open(DeflateCodec.compress(text, 6)), utf8.length)));
+
+        mvc.perform(get("/api/documents/{docId}/attachments/{fileId}/text", DOC, FILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_PLAIN))
+                .andExpect(content().encoding(StandardCharsets.UTF_8))
+                .andExpect(header().longValue("Content-Length", utf8.length))
+                .andExpect(content().bytes(utf8));
+    }
+
+    @Test
+    void answers404ForAFileWithoutText() throws Exception {
+        when(docRepo.hasAttachment(DOC, FILE)).thenReturn(true);
+        when(texts.open(FILE)).thenReturn(Optional.empty());
+
+        mvc.perform(get("/api/documents/{docId}/attachments/{fileId}/text", DOC, FILE))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void answers404ForAFileOfAnotherDocument() throws Exception {
+        when(docRepo.hasAttachment(DOC, FILE)).thenReturn(false);
+        when(docRepo.existsById(DOC)).thenReturn(true);
+
+        mvc.perform(get("/api/documents/{docId}/attachments/{fileId}/text", DOC, FILE))
+                .andExpect(status().isNotFound());
+        verify(texts, never()).open(anyLong());
+    }
+}
@@ -0,0 +1,47 @@
+package com.insightweave.controller;
+
+import com.insightweave.config.SecurityConfig;
+import com.insightweave.mapper.DocumentMapper;
+import com.insightweave.repository.DocumentRepository;
+import com.insightweave.search.DocumentSearchEngine;
+import com.insightweave.service.DocumentAggregateLoader;
+import com.insightweave.service.DocumentResponseEnricher;
+import com.insightweave.service.DocumentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(DocumentController.class)
+@Import(SecurityConfig.class)
+class DocumentControllerTests {
+
+    @Autowired MockMvc mvc;
+    @MockitoBean DocumentRepository repo;
+    @MockitoBean DocumentMapper mapper;
+    @MockitoBean DocumentService documentService;
+    @MockitoBean DocumentResponseEnricher enricher;
+    @MockitoBean DocumentAggregateLoader loader;
+    @MockitoBean DocumentSearchEngine searchEngine;
+
+    @Test
+    void scrollingARankedSearchIsABadRequest() throws Exception {
+        // the mock keeps the interface default: no cursor paging
+        mvc.perform(get("/api/documents/search/scroll").param("q", "report"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("/api/documents/search with page and size")));
+        verify(searchEngine, never()).scroll(anyString(), any(), anyInt());
+    }
+}
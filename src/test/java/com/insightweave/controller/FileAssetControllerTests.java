@@ -0,0 +1,157 @@
+package com.insightweave.controller;
+
+import com.insightweave.config.SecurityConfig;
+import com.insightweave.entity.FileAsset;
+import com.insightweave.service.FileAssetService;
+import com.insightweave.service.SummaryStreamService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** Downloads through FileDownloadHandler; MockMvc never offers sendfile, so bytes take the copy path. */
+@WebMvcTest(FileAssetController.class)
+@Import({SecurityConfig.class, FileDownloadHandler.class})
+class FileAssetControllerTests {
+
+    private static final long ID = 1L;
+    private static final String SHA256 = "ab".repeat(32);
+    private static final String ETAG = "\"" + SHA256 + "\"";
+    private static final Instant UPDATED_AT = Instant.parse("2025-01-02T03:04:05Z");
+
+    @Autowired MockMvc mvc;
+    @MockitoBean FileAssetService files;
+    @MockitoBean SummaryStreamService summaryStream;
+
+    @TempDir Path dir;
+    private byte[] data;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        data = new byte[100];
+        for (int i = 0; i < data.length; i++) data[i] = (byte) i;
+        Path file = Files.write(dir.resolve("report.bin"), data);
+        FileAsset asset = FileAsset.builder()
+                .originalFilename("report.bin")
+                .contentType("application/octet-stream")
+                .sizeBytes((long) data.length)
+                .storageKey("report.bin")
+                .sha256(SHA256)
+                .build();
+        asset.setId(ID);
+        ReflectionTestUtils.setField(asset, "updatedAt", UPDATED_AT);
+        when(files.get(ID)).thenReturn(asset);
+        when(files.download(ID)).thenReturn(new FileSystemResource(file));
+    }
+
+    @Test
+    void servesTheWholeFileWithValidators() throws Exception {
+        mvc.perform(get("/api/files/{id}/download", ID))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, UPDATED_AT.toEpochMilli()))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, data.length))
+                .andExpect(content().bytes(data));
+    }
+
+    @Test
+    void servesASingleRange() throws Exception {
+        mvc.perform(get("/api/files/{id}/download", ID).header(HttpHeaders.RANGE, "bytes=10-19"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-19/100"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 10))
+                .andExpect(content().bytes(Arrays.copyOfRange(data, 10, 20)));
+    }
+
+    @Test
+    void servesSeveralRangesAsMultipart() throws Exception {
+        var result = mvc.perform(get("/api/files/{id}/download", ID).header(HttpHeaders.RANGE, "bytes=0-1,98-"))
+                .andExpect(status().isPartialContent())
+                .andReturn().getResponse();
+
+        assertThat(result.getContentType()).startsWith("multipart/byteranges; boundary=");
+        assertThat(result.getContentAsByteArray()).hasSize((int) result.getContentLengthLong());
+        String body = result.getContentAsString();
+        assertThat(body).contains("Content-Range: bytes 0-1/100", "Content-Range: bytes 98-99/100");
+    }
+
+    @Test
+    void overlappingRangesAreServedOnce() throws Exception {
+        mvc.perform(get("/api/files/{id}/download", ID).header(HttpHeaders.RANGE, "bytes=20-29,10-24,30-34"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-34/100"))
+                .andExpect(content().bytes(Arrays.copyOfRange(data, 10, 35)));
+    }
+
+    @Test
+    void rangesAskingForMoreThanTheFileGetTheWholeFile() throws Exception {
+        mvc.perform(get("/api/files/{id}/download", ID).header(HttpHeaders.RANGE, "bytes=0-,0-,0-"))
+                .andExpect(status().isOk())
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, data.length))
+                .andExpect(content().bytes(data));
+    }
+
+    @Test
+    void ifRangeWithTheCurrentEtagServesTheRange() throws Exception {
+        mvc.perform(get("/api/files/{id}/download", ID)
+                        .header(HttpHeaders.RANGE, "bytes=90-")
+                        .header(HttpHeaders.IF_RANGE, ETAG))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().bytes(Arrays.copyOfRange(data, 90, 100)));
+    }
+
+    @Test
+    void ifRangeWithAStaleValidatorServesTheWholeFile() throws Exception {
+        mvc.perform(get("/api/files/{id}/download", ID)
+                        .header(HttpHeaders.RANGE, "bytes=90-")
+                        .header(HttpHeaders.IF_RANGE, "\"" + "cd".repeat(32) + "\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(data));
+        mvc.perform(get("/api/files/{id}/download", ID)
+                        .header(HttpHeaders.RANGE, "bytes=90-")
+                        .header(HttpHeaders.IF_RANGE, "Wed, 01 Jan 2025 00:00:00 GMT"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(data));
+    }
+
+    @Test
+    void answers304ToAMatchingValidator() throws Exception {
+        mvc.perform(get("/api/files/{id}/download", ID).header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(content().bytes(new byte[0]));
+        mvc.perform(get("/api/files/{id}/download", ID)
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, "Thu, 02 Jan 2025 03:04:05 GMT"))
+                .andExpect(status().isNotModified());
+        mvc.perform(get("/api/files/{id}/download", ID).header(HttpHeaders.IF_NONE_MATCH, "\"other\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void answers416WhenNoRangeIsSatisfiable() throws Exception {
+        mvc.perform(get("/api/files/{id}/download", ID).header(HttpHeaders.RANGE, "bytes=500-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */100"))
+                .andExpect(content().bytes(new byte[0]));
+    }
+}
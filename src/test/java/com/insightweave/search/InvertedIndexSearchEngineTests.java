@@ -0,0 +1,75 @@
+package com.insightweave.search;
+
+import com.insightweave.config.JpaConfig;
+import com.insightweave.entity.Document;
+import com.insightweave.entity.DocumentHeader;
+import com.insightweave.repository.DocumentRepository;
+import com.insightweave.service.ExtractedTextStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not in a test transaction: the indexer thread must see committed rows. Engines are built by
+// hand, so no change events reach them; shutdown() waits for the indexer and writes the segment
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import({JpaConfig.class, ExtractedTextStore.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InvertedIndexSearchEngineTests {
+
+    @Autowired DocumentRepository repo;
+    @Autowired ExtractedTextStore texts;
+
+    @TempDir Path dir;
+
+    @AfterEach
+    void cleanUp() {
+        repo.deleteAll();
+    }
+
+    @Test
+    void changesMadeAfterTheLastFlushAreIndexedOnRestart() throws Exception {
+        Document kept = repo.save(Document.builder().title("Quarterly report").content("revenue").build());
+        Document edited = repo.save(Document.builder().title("Draft").content("fox").build());
+        Document removed = repo.save(Document.builder().title("Minutes").content("badger").build());
+        InvertedIndexSearchEngine before = engine();
+        before.shutdown();
+
+        // as if the process died before these reached the segment
+        edited.setContent("otter");
+        repo.save(edited);
+        repo.deleteById(removed.getId());
+        Document added = repo.save(Document.builder().title("Notes").content("heron").build());
+
+        InvertedIndexSearchEngine after = engine();
+        after.shutdown();
+
+        assertThat(ids(after, "revenue")).containsExactly(kept.getId());
+        assertThat(ids(after, "otter")).containsExactly(edited.getId());
+        assertThat(ids(after, "fox")).isEmpty();
+        assertThat(ids(after, "badger")).isEmpty();
+        assertThat(ids(after, "heron")).containsExactly(added.getId());
+    }
+
+    private InvertedIndexSearchEngine engine() throws Exception {
+        var engine = new InvertedIndexSearchEngine(repo, texts);
+        engine.uploadDir = dir.toString();
+        engine.flushIntervalMs = 60_000;
+        engine.init();
+        return engine;
+    }
+
+    private static List<Long> ids(InvertedIndexSearchEngine engine, String q) {
+        return engine.searchHeaders(q, PageRequest.of(0, 10)).map(DocumentHeader::getId).getContent();
+    }
+}
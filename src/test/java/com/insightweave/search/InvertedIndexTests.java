@@ -0,0 +1,88 @@
+package com.insightweave.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTests {
+
+    @TempDir Path dir;
+
+    @Test
+    void ranksByBm25AndFollowsUpdates() {
+        InvertedIndex index = new InvertedIndex();
+        put(index, 1, "The quick brown fox");
+        put(index, 2, "Quarterly revenue report");
+        put(index, 3, "fox fox fox den");
+
+        assertThat(index.search(Tokenizer.tokens("fox"), 0, 10).docIds()).containsExactly(3L, 1L);
+
+        put(index, 3, "lazy dogs");
+        index.remove(1);
+
+        var hits = index.search(Tokenizer.tokens("fox report"), 0, 10);
+        assertThat(hits.docIds()).containsExactly(2L);
+        assertThat(hits.totalHits()).isEqualTo(1);
+        assertThat(index.tombstones()).isEqualTo(2);
+    }
+
+    @Test
+    void pagesThroughRankedHits() {
+        InvertedIndex index = new InvertedIndex();
+        for (int i = 1; i <= 30; i++) {
+            put(index, i, "report " + "alpha ".repeat(i));
+        }
+
+        var page = index.search(List.of("alpha"), 10, 10);
+        assertThat(page.totalHits()).isEqualTo(30);
+        assertThat(page.docIds()).hasSize(10).startsWith(20L);
+    }
+
+    @Test
+    void survivesSaveAndLoad() throws Exception {
+        InvertedIndex index = new InvertedIndex();
+        put(index, 1, "The quick brown fox");
+        put(index, 2, "fox fox fox den");
+        put(index, 2, "a brown cat");
+
+        Path segment = dir.resolve("documents.seg");
+        index.save(segment);
+        InvertedIndex loaded = InvertedIndex.load(segment);
+
+        assertThat(loaded.size()).isEqualTo(2);
+        assertThat(loaded.tombstones()).isZero();
+        assertThat(loaded.search(List.of("brown"), 0, 10).totalHits()).isEqualTo(2);
+        assertThat(loaded.search(List.of("fox"), 0, 10).docIds()).containsExactly(1L);
+
+        put(loaded, 3, "fox");
+        assertThat(loaded.search(List.of("fox"), 0, 10).docIds()).containsExactlyInAnyOrder(1L, 3L);
+    }
+
+    @Test
+    void watermarkOnlyMovesForwardAndIsSaved() throws Exception {
+        InvertedIndex index = new InvertedIndex();
+        assertThat(index.watermark()).isNull();
+        put(index, 1, "fox");
+        index.advanceWatermark(Instant.parse("2025-01-02T03:04:05.123456Z"));
+        index.advanceWatermark(Instant.parse("2025-01-01T00:00:00Z"));
+
+        Path segment = dir.resolve("documents.seg");
+        index.save(segment);
+
+        assertThat(InvertedIndex.load(segment).watermark()).isEqualTo(Instant.parse("2025-01-02T03:04:05.123456Z"));
+        assertThat(InvertedIndex.load(segment).indexedDocIds()).containsExactly(1L);
+    }
+
+    private static void put(InvertedIndex index, long docId, String text) {
+        Map<String, Integer> termFreqs = new HashMap<>();
+        int length = Tokenizer.count(text, 1, termFreqs);
+        index.put(docId, termFreqs, length);
+    }
+}
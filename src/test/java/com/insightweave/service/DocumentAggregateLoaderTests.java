@@ -0,0 +1,207 @@
+package com.insightweave.service;
+
+import com.insightweave.config.JpaConfig;
+import com.insightweave.dto.DocumentCursor;
+import com.insightweave.dto.DocumentResponse;
+import com.insightweave.dto.DocumentSlice;
+import com.insightweave.dto.ResponseFields;
+import com.insightweave.entity.Document;
+import com.insightweave.entity.FileAsset;
+import com.insightweave.entity.FileAssetText;
+import com.insightweave.entity.Summary;
+import com.insightweave.mapper.DocumentMapperImpl;
+import com.insightweave.mapper.FileAssetMapperImpl;
+import com.insightweave.mapper.SummaryMapperImpl;
+import com.insightweave.repository.DocumentRepository;
+import com.insightweave.repository.SummaryRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({JpaConfig.class, DocumentAggregateLoader.class, DocumentResponseEnricher.class, ExtractedTextStore.class,
+        DocumentMapperImpl.class, FileAssetMapperImpl.class, SummaryMapperImpl.class, SimpleMeterRegistry.class})
+class DocumentAggregateLoaderTests {
+
+    private static final int DOCUMENTS = 40;
+    private static final int ATTACHMENTS_PER_DOCUMENT = 5;
+
+    @Autowired TestEntityManager em;
+    @Autowired EntityManagerFactory emf;
+    @Autowired DocumentRepository documentRepository;
+    @Autowired SummaryRepository summaryRepository;
+    @Autowired DocumentAggregateLoader loader;
+    @Autowired ExtractedTextStore texts;
+
+    @BeforeEach
+    void seed() {
+        for (int d = 0; d < DOCUMENTS; d++) {
+            List<FileAsset> attachments = new ArrayList<>();
+            for (int a = 0; a < ATTACHMENTS_PER_DOCUMENT; a++) {
+                attachments.add(FileAsset.builder()
+                        .originalFilename("file-" + d + "-" + a + ".pdf")
+                        .contentType("application/pdf")
+                        .sizeBytes(1024L)
+                        .storageKey("key-" + d + "-" + a)
+                        .sha256("0".repeat(64))
+                        .build());
+            }
+            Document doc = new Document();
+            doc.setTitle("Document " + d);
+            doc.setContent("content " + d);
+            doc.setAttachments(attachments);
+            documentRepository.save(doc);
+
+            for (FileAsset asset : attachments) {
+                texts.save(asset.getId(), "text of " + asset.getOriginalFilename());
+                summaryRepository.save(Summary.builder()
+                        .fileAssetId(asset.getId())
+                        .summaryText("summary of " + asset.getOriginalFilename())
+                        .modelName("test-model")
+                        .style("concise")
+                        .build());
+            }
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void pageQueryCountDoesNotGrowWithPageSize() {
+        long small = statementsToLoad(PageRequest.of(0, 2, Sort.by("id")));
+        long large = statementsToLoad(PageRequest.of(0, 20, Sort.by("id")));
+
+        // page select + count + attachments + texts + summaries
+        assertThat(large).isEqualTo(small).isLessThanOrEqualTo(5);
+    }
+
+    @Test
+    void pageIsFullyPopulated() {
+        Page<DocumentResponse> page = loader.loadPage(documentRepository.findAll(PageRequest.of(0, 20, Sort.by("id"))));
+
+        assertThat(page.getContent()).hasSize(20);
+        assertThat(page.getTotalElements()).isEqualTo(DOCUMENTS);
+        assertThat(page.getContent()).allSatisfy(doc -> {
+            assertThat(doc.attachments()).hasSize(ATTACHMENTS_PER_DOCUMENT);
+            assertThat(doc.attachments()).allSatisfy(a -> {
+                assertThat(a.summaries()).hasSize(1);
+                assertThat(a.extractedText()).isEqualTo("text of " + a.originalFilename());
+            });
+        });
+    }
+
+    @Test
+    void extractedTextIsStoredCompressed() {
+        String text = "Quarterly revenue grew while operating costs fell across regions. ".repeat(200);
+        Long fileId = documentRepository.findAll(PageRequest.of(0, 1, Sort.by("id"))).getContent().get(0)
+                .getAttachments().get(0).getId();
+        texts.save(fileId, text);
+        em.clear();
+
+        FileAssetText row = em.find(FileAssetText.class, fileId);
+        assertThat(row.getByteLength()).isEqualTo(text.length());
+        assertThat(row.getData().length).isLessThan(text.length() / 10);
+        assertThat(texts.read(fileId)).contains(text);
+    }
+
+    @Test
+    void scrollVisitsEveryDocumentOnceNewestFirst() {
+        // half the documents share one timestamp, so the id tie-breaker has to hold across slices
+        em.getEntityManager().createQuery("update Document d set d.updatedAt = :t where mod(d.id, 2) = 0")
+                .setParameter("t", Instant.parse("2025-01-01T00:00:00Z"))
+                .executeUpdate();
+        em.clear();
+
+        List<Long> seen = new ArrayList<>();
+        DocumentCursor cursor = null;
+        DocumentSlice slice;
+        do {
+            slice = loader.loadSlice(cursor == null
+                    ? documentRepository.findNewest(Pageable.ofSize(7))
+                    : documentRepository.findNewestAfter(cursor.updatedAt(), cursor.id(), Pageable.ofSize(7)));
+            slice.content().forEach(doc -> seen.add(doc.id()));
+            cursor = DocumentCursor.decode(slice.nextCursor());
+        } while (slice.hasNext());
+
+        List<Long> expected = documentRepository.findAll(Sort.by(Sort.Direction.DESC, "updatedAt", "id")).stream()
+                .map(Document::getId)
+                .toList();
+        assertThat(seen).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void sliceRunsNoCountQuery() {
+        em.clear();
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        DocumentSlice slice = loader.loadSlice(documentRepository.findNewest(Pageable.ofSize(10)));
+
+        assertThat(slice.content()).hasSize(10);
+        assertThat(slice.hasNext()).isTrue();
+        // slice select + attachments + texts + summaries
+        assertThat(stats.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void summaryViewSkipsLargeFieldsAndSummaryQuery() {
+        em.clear();
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        Page<DocumentResponse> page = loader.loadPage(
+                documentRepository.findAllHeaders(PageRequest.of(0, 20, Sort.by("id"))), ResponseFields.SUMMARY);
+
+        assertThat(page.getContent()).hasSize(20);
+        assertThat(page.getContent()).allSatisfy(doc -> {
+            assertThat(doc.title()).isNotNull();
+            assertThat(doc.content()).isNull();
+            assertThat(doc.attachments()).hasSize(ATTACHMENTS_PER_DOCUMENT);
+            assertThat(doc.attachments()).allSatisfy(a -> {
+                assertThat(a.originalFilename()).isNotNull();
+                assertThat(a.extractedText()).isNull();
+                assertThat(a.summaries()).isNull();
+            });
+        });
+        // page select + count + attachment headers, no summaries
+        assertThat(stats.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void fieldsSelectSummariesWithoutContent() {
+        Page<DocumentResponse> page = loader.loadPage(
+                documentRepository.findAllHeaders(PageRequest.of(0, 5, Sort.by("id"))),
+                ResponseFields.of(null, "summaries"));
+
+        assertThat(page.getContent()).allSatisfy(doc -> {
+            assertThat(doc.content()).isNull();
+            assertThat(doc.attachments()).allSatisfy(a -> assertThat(a.summaries()).hasSize(1));
+        });
+    }
+
+    private long statementsToLoad(PageRequest request) {
+        em.clear();
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        loader.loadPage(documentRepository.findAll(request));
+        return stats.getPrepareStatementCount();
+    }
+}
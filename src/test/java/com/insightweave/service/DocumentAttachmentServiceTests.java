@@ -0,0 +1,97 @@
+package com.insightweave.service;
+
+import com.insightweave.entity.Document;
+import com.insightweave.entity.FileAsset;
+import com.insightweave.repository.DocumentRepository;
+import com.insightweave.repository.FileAssetRepository;
+import com.insightweave.storage.StorageService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.InputStream;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class DocumentAttachmentServiceTests {
+
+    private static final long DOC_ID = 1L;
+    private static final long FILE_ID = 2L;
+    private static final byte[] BYTES = "quarterly report".getBytes();
+
+    private final DocumentRepository docRepo = mock(DocumentRepository.class);
+    private final FileAssetRepository fileRepo = mock(FileAssetRepository.class);
+    private final StorageService storage = mock(StorageService.class);
+    private final TextExtractionService textExtraction = mock(TextExtractionService.class);
+    private final SummaryScheduler summaryScheduler = mock(SummaryScheduler.class);
+    private final ApplicationEventPublisher events = mock(ApplicationEventPublisher.class);
+    private final ExtractedTextStore texts = mock(ExtractedTextStore.class);
+    private DocumentAttachmentService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new DocumentAttachmentService(docRepo, fileRepo, storage, textExtraction,
+                mock(SummaryService.class), summaryScheduler, events, mock(FileAssetService.class), texts);
+        when(docRepo.findById(DOC_ID)).thenReturn(Optional.of(new Document()));
+        when(storage.save(any(MockMultipartFile.class))).thenReturn(
+                new StorageService.Stored("key", "ab".repeat(32), BYTES.length, "text/plain", "report.txt"));
+        when(storage.loadAsResource("key")).thenReturn(new ByteArrayResource(BYTES));
+        when(fileRepo.save(any())).thenAnswer(call -> {
+            FileAsset asset = call.getArgument(0);
+            asset.setId(FILE_ID);
+            return asset;
+        });
+        when(textExtraction.isTextExtractable("text/plain")).thenReturn(true);
+        when(textExtraction.isWithinSizeLimit(eq("text/plain"), any(Long.class))).thenReturn(true);
+        when(textExtraction.extractInBackground(any(InputStream.class), anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture("quarterly report"));
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void extractsFromStorageOnlyOnceTheUploadHasCommitted() throws Exception {
+        service.addAttachment(DOC_ID, new MockMultipartFile("file", "report.txt", "text/plain", BYTES));
+
+        verifyNoInteractions(texts, summaryScheduler);
+        verify(textExtraction, never()).extractInBackground(any(), any(), any());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        verify(storage).loadAsResource("key");
+        verify(textExtraction, times(1)).extractInBackground(any(), eq("report.txt"), eq("text/plain"));
+        verify(texts).save(FILE_ID, "quarterly report");
+        verify(summaryScheduler).scheduleSummary(FILE_ID, "quarterly report");
+        verify(events, times(2)).publishEvent(DocumentChangedEvent.changed(DOC_ID));
+    }
+
+    @Test
+    void aRolledBackUploadIsNeverParsed() throws Exception {
+        service.addAttachment(DOC_ID, new MockMultipartFile("file", "report.txt", "text/plain", BYTES));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verify(textExtraction, never()).extractInBackground(any(), any(), any());
+        verifyNoInteractions(texts, summaryScheduler);
+    }
+}
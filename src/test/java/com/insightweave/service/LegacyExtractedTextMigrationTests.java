@@ -0,0 +1,83 @@
+package com.insightweave.service;
+
+import com.insightweave.config.JpaConfig;
+import com.insightweave.entity.FileAsset;
+import com.insightweave.repository.FileAssetRepository;
+import com.insightweave.repository.FileAssetTextRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not in a test transaction: the migration commits a batch at a time and the test adds a column
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import({JpaConfig.class, ExtractedTextStore.class, LegacyExtractedTextMigration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LegacyExtractedTextMigrationTests {
+
+    @Autowired JdbcTemplate jdbc;
+    @Autowired FileAssetRepository fileRepo;
+    @Autowired FileAssetTextRepository textRepo;
+    @Autowired ExtractedTextStore texts;
+    @Autowired LegacyExtractedTextMigration migration;
+
+    @AfterEach
+    void cleanUp() {
+        textRepo.deleteAll();
+        fileRepo.deleteAll();
+        jdbc.execute("alter table file_assets drop column if exists extracted_text");
+    }
+
+    @Test
+    void movesLegacyTextInBatchesAndClearsTheColumn() {
+        jdbc.execute("alter table file_assets add column extracted_text clob");
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            Long id = fileRepo.save(asset(i)).getId();
+            jdbc.update("update file_assets set extracted_text = ? where id = ?", "legacy text " + i, id);
+            ids.add(id);
+        }
+        Long withoutText = fileRepo.save(asset(250)).getId();
+
+        migration.migrate();
+
+        assertThat(texts.read(ids.get(0))).contains("legacy text 0");
+        assertThat(texts.read(ids.get(249))).contains("legacy text 249");
+        assertThat(texts.readAll(ids)).hasSize(250);
+        assertThat(texts.read(withoutText)).isEmpty();
+        assertThat(jdbc.queryForObject(
+                "select count(*) from file_assets where extracted_text is not null", Long.class)).isZero();
+
+        // a second start finds nothing left to move
+        migration.migrate();
+        assertThat(textRepo.count()).isEqualTo(250);
+    }
+
+    @Test
+    void doesNothingWithoutTheLegacyColumn() {
+        fileRepo.save(asset(0));
+
+        migration.migrate();
+
+        assertThat(textRepo.count()).isZero();
+    }
+
+    private static FileAsset asset(int i) {
+        return FileAsset.builder()
+                .originalFilename("file-" + i + ".txt")
+                .contentType("text/plain")
+                .sizeBytes(10L)
+                .storageKey("key-" + i)
+                .sha256("0".repeat(64))
+                .build();
+    }
+}
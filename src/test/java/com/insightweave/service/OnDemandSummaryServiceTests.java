@@ -0,0 +1,102 @@
+package com.insightweave.service;
+
+import com.insightweave.dto.SummaryDto;
+import com.insightweave.dto.SummaryJobHandle;
+import com.insightweave.dto.SummaryRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OnDemandSummaryServiceTests {
+
+    private static final long FILE_ID = 7L;
+    private static final SummaryDto SUMMARY = new SummaryDto(1L, "short", "stub-model", "concise", 10, Instant.now());
+
+    private final FileAssetService files = mock(FileAssetService.class);
+    private final SummaryService summaries = mock(SummaryService.class);
+    private final CountDownLatch modelCall = new CountDownLatch(1);
+    private OnDemandSummaryService service;
+
+    @BeforeEach
+    void setUp() {
+        when(files.extractedText(FILE_ID)).thenReturn("some text");
+        when(summaries.findSummary(anyLong(), any(), any(), any())).thenReturn(Optional.empty());
+        when(summaries.generateSummary(anyLong(), anyString(), any(), any(), any())).thenAnswer(call -> {
+            modelCall.await(5, TimeUnit.SECONDS);
+            return SUMMARY;
+        });
+        service = new OnDemandSummaryService(files, summaries, new SimpleMeterRegistry());
+        service.retention = Duration.ofMinutes(1);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void identicalConcurrentRequestsShareOneModelCall() throws Exception {
+        List<Future<OnDemandSummaryService.Submission>> submissions = new ArrayList<>();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 50; i++) {
+                submissions.add(executor.submit(() -> service.request(FILE_ID, SummaryRequest.DEFAULTS)));
+            }
+        }
+        List<SummaryJobHandle> handles = new ArrayList<>();
+        for (var submission : submissions) handles.add(submission.get().job());
+
+        assertThat(handles).extracting(SummaryJobHandle::jobId).containsOnly(handles.get(0).jobId());
+        assertThat(handles).extracting(SummaryJobHandle::status).containsOnly("RUNNING");
+
+        modelCall.countDown();
+        SummaryJobHandle done = handles.get(0);
+        for (int i = 0; i < 100 && done.status().equals("RUNNING"); i++) {
+            Thread.sleep(50);
+            done = service.job(FILE_ID, done.jobId()).orElseThrow();
+        }
+        assertThat(done.status()).isEqualTo("SUCCEEDED");
+        assertThat(done.summary()).isEqualTo(SUMMARY);
+        verify(summaries, times(1)).generateSummary(eq(FILE_ID), anyString(), any(), any(), any());
+    }
+
+    @Test
+    void differentParametersAreSeparateFlights() {
+        var concise = service.request(FILE_ID, SummaryRequest.DEFAULTS).job();
+        var detailed = service.request(FILE_ID, new SummaryRequest(300, 100, "detailed", false)).job();
+        modelCall.countDown();
+
+        assertThat(concise.jobId()).isNotEqualTo(detailed.jobId());
+    }
+
+    @Test
+    void existingSummaryIsReturnedWithoutAJob() {
+        when(summaries.findSummary(FILE_ID, null, null, null)).thenReturn(Optional.of(SUMMARY));
+
+        var submission = service.request(FILE_ID, SummaryRequest.DEFAULTS);
+
+        assertThat(submission.summary()).isEqualTo(SUMMARY);
+        assertThat(submission.job()).isNull();
+    }
+}
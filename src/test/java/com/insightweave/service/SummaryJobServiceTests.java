@@ -0,0 +1,209 @@
+package com.insightweave.service;
+
+import com.insightweave.config.JpaConfig;
+import com.insightweave.entity.SummaryJob;
+import com.insightweave.repository.SummaryJobRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not in a test transaction: claims must commit the way a worker's do. Concurrent SKIP LOCKED
+// claims are not covered: H2 returns no rows at all for ORDER BY ... FOR UPDATE SKIP LOCKED while
+// another transaction holds some of them, where PostgreSQL returns the unlocked ones
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "insightweave.summary.queue=durable"
+})
+@Import({JpaConfig.class, SummaryJobService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SummaryJobServiceTests {
+
+    @Autowired SummaryJobService jobs;
+    @Autowired SummaryJobRepository repo;
+    @Autowired TransactionTemplate tx;
+
+    // the settings live on the bean behind the transactional proxy
+    private SummaryJobService settings;
+
+    @BeforeEach
+    void setUp() {
+        settings = AopTestUtils.getTargetObject(jobs);
+        settings.lease = Duration.ofMinutes(5);
+        settings.maxAttempts = 3;
+        settings.initialBackoff = Duration.ofSeconds(10);
+        settings.maxBackoff = Duration.ofHours(1);
+        settings.retention = Duration.ofDays(7);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        repo.deleteAll();
+    }
+
+    @Test
+    void claimLeasesDueJobsToTheWorker() {
+        Long first = jobs.enqueue(1L, null, null, null).getId();
+        Long second = jobs.enqueue(2L, null, null, null).getId();
+        Long later = jobs.enqueue(3L, null, null, null).getId();
+        dueAt(later, Instant.now().plus(Duration.ofMinutes(1)));
+
+        List<SummaryJob> claimed = jobs.claim("worker-1", 10);
+
+        assertThat(claimed).extracting(SummaryJob::getId).containsExactlyInAnyOrder(first, second);
+        assertThat(claimed).allSatisfy(job -> {
+            assertThat(job.getStatus()).isEqualTo(SummaryJob.Status.RUNNING);
+            assertThat(job.getLockedBy()).isEqualTo("worker-1");
+            assertThat(job.getAttempts()).isEqualTo(1);
+            assertThat(job.getLeaseExpiresAt()).isAfter(Instant.now().plus(Duration.ofMinutes(4)));
+        });
+        assertThat(jobs.claim("worker-2", 10)).isEmpty();
+    }
+
+    @Test
+    void aClaimRolledBackWithItsTransactionLeavesTheJobPending() {
+        Long id = jobs.enqueue(1L, null, null, null).getId();
+
+        tx.executeWithoutResult(status -> {
+            assertThat(jobs.claim("worker-1", 1)).hasSize(1);
+            status.setRollbackOnly();
+        });
+
+        SummaryJob job = repo.findById(id).orElseThrow();
+        assertThat(job.getStatus()).isEqualTo(SummaryJob.Status.PENDING);
+        assertThat(job.getAttempts()).isZero();
+        assertThat(jobs.claim("worker-2", 1)).extracting(SummaryJob::getLockedBy).containsExactly("worker-2");
+    }
+
+    @Test
+    void expiredLeaseIsClaimedAgainAndTheOldWorkerCannotFinishIt() throws Exception {
+        settings.lease = Duration.ofMillis(50);
+        Long id = jobs.enqueue(1L, null, null, null).getId();
+        assertThat(jobs.claim("worker-1", 1)).hasSize(1);
+
+        Thread.sleep(100);
+        settings.lease = Duration.ofMinutes(5);
+        assertThat(jobs.claim("worker-2", 1)).extracting(SummaryJob::getId).containsExactly(id);
+
+        jobs.complete(id, "worker-1");
+        jobs.fail(id, "worker-1", new IllegalStateException("late"), true);
+        SummaryJob job = repo.findById(id).orElseThrow();
+        assertThat(job.getStatus()).isEqualTo(SummaryJob.Status.RUNNING);
+        assertThat(job.getLockedBy()).isEqualTo("worker-2");
+        assertThat(job.getAttempts()).isEqualTo(2);
+
+        jobs.complete(id, "worker-2");
+        assertThat(repo.findById(id).orElseThrow().getStatus()).isEqualTo(SummaryJob.Status.SUCCEEDED);
+    }
+
+    @Test
+    void failuresBackOffExponentiallyThenTheJobDies() {
+        Long id = jobs.enqueue(1L, null, null, null).getId();
+
+        jobs.claim("worker", 1);
+        Instant failedAt = Instant.now();
+        jobs.fail(id, "worker", new IllegalStateException("model unavailable"), false);
+        SummaryJob job = repo.findById(id).orElseThrow();
+        assertThat(job.getStatus()).isEqualTo(SummaryJob.Status.PENDING);
+        assertThat(job.getLastError()).isEqualTo("IllegalStateException: model unavailable");
+        // 10 s for the first retry, plus up to 20 % jitter
+        assertThat(job.getNextAttemptAt()).isBetween(failedAt.plusSeconds(10), failedAt.plusSeconds(13));
+        assertThat(jobs.claim("worker", 1)).isEmpty();
+
+        dueAt(id, Instant.now());
+        jobs.claim("worker", 1);
+        failedAt = Instant.now();
+        jobs.fail(id, "worker", new IllegalStateException("model unavailable"), false);
+        assertThat(repo.findById(id).orElseThrow().getNextAttemptAt())
+                .isBetween(failedAt.plusSeconds(20), failedAt.plusSeconds(25));
+
+        dueAt(id, Instant.now());
+        jobs.claim("worker", 1);
+        jobs.fail(id, "worker", new IllegalStateException("model unavailable"), false);
+        job = repo.findById(id).orElseThrow();
+        assertThat(job.getStatus()).isEqualTo(SummaryJob.Status.DEAD);
+        assertThat(job.getAttempts()).isEqualTo(3);
+        assertThat(jobs.claim("worker", 1)).isEmpty();
+    }
+
+    @Test
+    void permanentFailureDiesAtOnce() {
+        Long id = jobs.enqueue(1L, null, null, null).getId();
+        jobs.claim("worker", 1);
+
+        jobs.fail(id, "worker", new IllegalStateException("no extracted text"), true);
+
+        SummaryJob job = repo.findById(id).orElseThrow();
+        assertThat(job.getStatus()).isEqualTo(SummaryJob.Status.DEAD);
+        assertThat(job.getAttempts()).isEqualTo(1);
+        assertThat(job.getLockedBy()).isNull();
+    }
+
+    @Test
+    void anExpiredLeaseOnTheLastAttemptKillsTheJob() throws Exception {
+        settings.maxAttempts = 1;
+        settings.lease = Duration.ofMillis(50);
+        Long id = jobs.enqueue(1L, null, null, null).getId();
+        assertThat(jobs.claim("worker-1", 1)).hasSize(1);
+
+        Thread.sleep(100);
+        assertThat(jobs.claim("worker-2", 1)).isEmpty();
+
+        SummaryJob job = repo.findById(id).orElseThrow();
+        assertThat(job.getStatus()).isEqualTo(SummaryJob.Status.DEAD);
+        assertThat(job.getAttempts()).isEqualTo(1);
+        assertThat(job.getLockedBy()).isNull();
+        assertThat(job.getLastError()).contains("Lease expired");
+    }
+
+    @Test
+    void renewingKeepsTheLeaseOnlyForItsHolder() throws Exception {
+        settings.lease = Duration.ofMillis(200);
+        Long id = jobs.enqueue(1L, null, null, null).getId();
+        jobs.claim("worker-1", 1);
+
+        for (int i = 0; i < 4; i++) {
+            Thread.sleep(100);
+            assertThat(jobs.renew(id, "worker-1")).isTrue();
+        }
+        assertThat(jobs.claim("worker-2", 1)).isEmpty();
+        assertThat(jobs.renew(id, "worker-2")).isFalse();
+
+        jobs.complete(id, "worker-1");
+        assertThat(jobs.renew(id, "worker-1")).isFalse();
+    }
+
+    @Test
+    void purgeDeletesOnlySucceededJobsPastRetention() throws Exception {
+        Long done = jobs.enqueue(1L, null, null, null).getId();
+        Long dead = jobs.enqueue(2L, null, null, null).getId();
+        Long pending = jobs.enqueue(3L, null, null, null).getId();
+        dueAt(pending, Instant.now().plus(Duration.ofMinutes(1)));
+        jobs.claim("worker", 2);
+        jobs.complete(done, "worker");
+        jobs.fail(dead, "worker", new IllegalStateException("no extracted text"), true);
+
+        assertThat(jobs.purgeSucceeded()).isZero();
+
+        Thread.sleep(20);
+        settings.retention = Duration.ofMillis(10);
+        assertThat(jobs.purgeSucceeded()).isEqualTo(1);
+        assertThat(repo.findAll()).extracting(SummaryJob::getId).containsExactlyInAnyOrder(dead, pending);
+    }
+
+    private void dueAt(Long id, Instant when) {
+        tx.executeWithoutResult(status -> repo.findById(id).orElseThrow().setNextAttemptAt(when));
+    }
+}
@@ -0,0 +1,112 @@
+package com.insightweave.service;
+
+import com.insightweave.client.PythonAiClient;
+import com.insightweave.client.dto.SummarizeResponse;
+import com.insightweave.entity.FileAsset;
+import com.insightweave.entity.Summary;
+import com.insightweave.mapper.SummaryMapperImpl;
+import com.insightweave.repository.FileAssetRepository;
+import com.insightweave.repository.SummaryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class SummaryServiceTests {
+
+    private static final long FILE_ID = 7L;
+    private static final String SHA256 = "ab".repeat(32);
+    private static final SummarizeResponse RESPONSE =
+            new SummarizeResponse("short", "stub-model", 10, 9, 5, "concise");
+
+    private final PythonAiClient ai = mock(PythonAiClient.class);
+    private final SummaryRepository summaryRepo = mock(SummaryRepository.class);
+    private final FileAssetRepository fileRepo = mock(FileAssetRepository.class);
+    private final ChunkedSummarizer chunked = mock(ChunkedSummarizer.class);
+    private final PlatformTransactionManager txManager = mock(PlatformTransactionManager.class);
+    private SummaryService service;
+
+    @BeforeEach
+    void setUp() {
+        FileAsset asset = FileAsset.builder().originalFilename("a.txt").storageKey("a").sha256(SHA256).build();
+        asset.setId(FILE_ID);
+        when(fileRepo.findById(FILE_ID)).thenReturn(Optional.of(asset));
+        when(summaryRepo.save(any())).thenAnswer(call -> {
+            Summary summary = call.getArgument(0);
+            summary.setId(1L);
+            return summary;
+        });
+        var cache = new SummaryCache(summaryRepo, new SimpleMeterRegistry(), 100, "stub-model");
+        service = new SummaryService(ai, summaryRepo, new SummaryMapperImpl(), fileRepo, cache, chunked,
+                new TransactionTemplate(txManager));
+    }
+
+    @Test
+    void callsTheModelOutsideAnyTransaction() {
+        when(ai.summarize(anyString(), any(), any(), any())).thenReturn(RESPONSE);
+
+        service.generateSummary(FILE_ID, "some text");
+
+        // the cache lookup and the save each commit before/after the model call, not around it
+        InOrder order = inOrder(txManager, ai, summaryRepo);
+        order.verify(txManager).getTransaction(any());
+        order.verify(txManager).commit(any());
+        order.verify(ai).summarize(anyString(), any(), any(), any());
+        order.verify(txManager).getTransaction(any());
+        order.verify(summaryRepo).save(any());
+        order.verify(txManager).commit(any());
+    }
+
+    @Test
+    void aFileWithItsOwnSummaryGetsItBackWithoutANewRow() {
+        when(summaryRepo.findFirstByFileAssetIdAndMaxLengthAndMinLengthAndStyleOrderByCreatedAtDesc(
+                eq(FILE_ID), any(), any(), any())).thenReturn(Optional.of(summary(FILE_ID, 3L)));
+
+        assertThat(service.findSummary(FILE_ID, null, null, null)).get().extracting("id").isEqualTo(3L);
+        assertThat(service.generateSummary(FILE_ID, "some text").id()).isEqualTo(3L);
+
+        verify(summaryRepo, never()).save(any());
+        verifyNoInteractions(ai);
+    }
+
+    @Test
+    void copiesAnotherFilesSummaryOnlyWhenThisFileHasNone() {
+        when(summaryRepo.findFirstBySourceSha256AndMaxLengthAndMinLengthAndStyleAndModelNameOrderByCreatedAtDesc(
+                eq(SHA256), any(), any(), any(), eq("stub-model"))).thenReturn(Optional.of(summary(8L, 2L)));
+
+        assertThat(service.findSummary(FILE_ID, null, null, null)).isPresent();
+        verify(summaryRepo, times(1)).save(any());
+
+        when(summaryRepo.findFirstByFileAssetIdAndMaxLengthAndMinLengthAndStyleOrderByCreatedAtDesc(
+                eq(FILE_ID), any(), any(), any())).thenReturn(Optional.of(summary(FILE_ID, 3L)));
+        service.findSummary(FILE_ID, null, null, null);
+        service.generateSummary(FILE_ID, "some text");
+        verify(summaryRepo, times(1)).save(any());
+    }
+
+    private static Summary summary(long fileAssetId, long id) {
+        Summary summary = Summary.builder()
+                .fileAssetId(fileAssetId).summaryText("short").modelName("stub-model").style("concise")
+                .sourceSha256(SHA256).maxLength(PythonAiClient.DEFAULT_MAX_LENGTH)
+                .minLength(PythonAiClient.DEFAULT_MIN_LENGTH)
+                .build();
+        summary.setId(id);
+        return summary;
+    }
+}
@@ -0,0 +1,55 @@
+package com.insightweave.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextChunkerTests {
+
+    @Test
+    void keepsShortTextWhole() {
+        assertThat(TextChunker.chunk("One paragraph.\n\nAnother one.", 100, 20))
+                .containsExactly("One paragraph.\n\nAnother one.");
+    }
+
+    @Test
+    void breaksOnParagraphsThenSentencesWithinBudget() {
+        String text = "First paragraph is short.\n\n"
+                + "Second paragraph has several sentences. Each of them is fairly plain. "
+                + "Together they exceed the budget. So they must be split apart.";
+
+        List<String> chunks = TextChunker.chunk(text, 80, 0);
+
+        assertThat(chunks).allSatisfy(c -> assertThat(c.length()).isLessThanOrEqualTo(80));
+        assertThat(chunks.get(0)).startsWith("First paragraph is short.");
+        assertThat(chunks).allSatisfy(c -> assertThat(c).doesNotStartWith(" ").doesNotEndWith(" "));
+        // no sentence is cut in half
+        assertThat(String.join(" ", chunks)).contains("Together they exceed the budget.");
+    }
+
+    @Test
+    void repeatsTrailingSentencesAsOverlap() {
+        String text = "Alpha one. Bravo two. Charlie three. Delta four. Echo five. Foxtrot six.";
+
+        List<String> chunks = TextChunker.chunk(text, 40, 15);
+
+        assertThat(chunks).hasSizeGreaterThan(1);
+        for (int i = 1; i < chunks.size(); i++) {
+            String previous = chunks.get(i - 1);
+            String lastSentence = previous.substring(previous.lastIndexOf(". ", previous.length() - 2) + 2);
+            assertThat(chunks.get(i)).startsWith(lastSentence);
+        }
+    }
+
+    @Test
+    void slicesOversizedSentencesAtWhitespace() {
+        String text = "word ".repeat(100).strip();
+
+        List<String> chunks = TextChunker.chunk(text, 50, 0);
+
+        assertThat(chunks).allSatisfy(c -> assertThat(c.length()).isLessThanOrEqualTo(50));
+        assertThat(String.join(" ", chunks)).isEqualTo(text);
+    }
+}
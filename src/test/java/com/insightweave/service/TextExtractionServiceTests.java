@@ -0,0 +1,163 @@
+package com.insightweave.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextExtractionServiceTests {
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    private TextExtractionService extraction;
+
+    @AfterEach
+    void tearDown() {
+        extraction.shutdown();
+    }
+
+    @Test
+    void keepsTheTextThatFitsWhenADocumentIsLongerThanMaxChars() {
+        start("in-process", Duration.ofSeconds(5));
+
+        String text = extraction.extractText(text("word ".repeat(200)), "long.txt", "text/plain");
+
+        assertThat(text).hasSizeBetween(990, 1000).startsWith("word word");
+        assertThat(parses("truncated")).isEqualTo(1);
+    }
+
+    @Test
+    void inputOverItsSizeCapIsNotParsed() {
+        start("in-process", Duration.ofSeconds(5));
+
+        assertThat(extraction.isWithinSizeLimit("text/plain; charset=UTF-8", 1024)).isTrue();
+        assertThat(extraction.isWithinSizeLimit("text/plain", 1025)).isFalse();
+        assertThat(extraction.isWithinSizeLimit("application/pdf", 1025)).isTrue();
+        // a declared size can lie; the parser stops reading at the cap
+        assertThat(extraction.extractText(text("x".repeat(2000)), "big.txt", "text/plain")).isEmpty();
+        assertThat(parses("error")).isEqualTo(1);
+    }
+
+    @Test
+    void aSlowInputIsCancelledAtTheDeadlineAndItsThreadFreed() throws Exception {
+        start("in-process", Duration.ofMillis(300));
+
+        long begin = System.nanoTime();
+        assertThat(extraction.extractText(slow(), "slow.txt", "text/plain")).isEmpty();
+        assertThat(Duration.ofNanos(System.nanoTime() - begin)).isLessThan(Duration.ofSeconds(2));
+        awaitTimeouts(1);
+
+        // the only parser thread is back in time for the next document
+        assertThat(extraction.extractText(text("hello"), "next.txt", "text/plain")).isEqualTo("hello");
+        assertThat(overrunning()).isZero();
+    }
+
+    @Test
+    void aParseThatIgnoresTheDeadlineIsCountedUntilItsThreadReturns() throws Exception {
+        start("in-process", Duration.ofMillis(300));
+        var release = new CountDownLatch(1);
+        // stands in for a parser computing on bytes it already has: deaf to interrupts and close()
+        InputStream stuck = new InputStream() {
+            @Override public int read() {
+                long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                while (release.getCount() > 0 && System.nanoTime() < until) {
+                    Thread.onSpinWait();
+                }
+                return -1;
+            }
+            @Override public void close() {}
+        };
+
+        assertThat(extraction.extractText(stuck, "stuck.txt", "text/plain")).isEmpty();
+        awaitTimeouts(1);
+        assertThat(overrunning()).isEqualTo(1);
+
+        release.countDown();
+        for (int i = 0; i < 100 && overrunning() > 0; i++) {
+            Thread.sleep(50);
+        }
+        assertThat(overrunning()).isZero();
+    }
+
+    @Test
+    void forkedWorkersAreReplacedAfterADocumentIsAbandoned() throws Exception {
+        // generous deadline: the first parse starts a child JVM and loads the parsers over the pipe
+        start("forked", Duration.ofSeconds(20));
+        assertThat(extraction.extractText(text("warm up"), "first.txt", "text/plain")).isEqualTo("warm up");
+
+        // the parent stops feeding mid-document; its child must not be handed the next one
+        var abandoned = extraction.extractAsync(slow(), "slow.txt", "text/plain");
+        Thread.sleep(300);
+        abandoned.cancel(true);
+        assertThat(extraction.extractText(text("x".repeat(2000)), "big.txt", "text/plain")).isEmpty();
+
+        assertThat(extraction.extractText(text("still parsing"), "after.txt", "text/plain"))
+                .isEqualTo("still parsing");
+    }
+
+    private void start(String mode, Duration timeout) {
+        extraction = new TextExtractionService(meters);
+        ReflectionTestUtils.setField(extraction, "maxChars", 1000);
+        ReflectionTestUtils.setField(extraction, "threads", 1);
+        ReflectionTestUtils.setField(extraction, "queueCapacity", 4);
+        ReflectionTestUtils.setField(extraction, "timeout", timeout);
+        ReflectionTestUtils.setField(extraction, "maxSize", "text/*:1KB,*:1MB");
+        ReflectionTestUtils.setField(extraction, "mode", mode);
+        ReflectionTestUtils.setField(extraction, "forkPoolSize", 1);
+        ReflectionTestUtils.setField(extraction, "forkJavaCommand",
+                ProcessHandle.current().info().command().orElse("java"));
+        ReflectionTestUtils.setField(extraction, "forkMaxHeap", "256m");
+        ReflectionTestUtils.setField(extraction, "forkMaxFilesPerWorker", 100);
+        ReflectionTestUtils.setField(extraction, "forkTikaBin", "");
+        ReflectionTestUtils.setField(extraction, "forkTypes", "");
+        extraction.init();
+    }
+
+    private static InputStream text(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // a client trickling its upload: one byte every 50 ms, stopping when interrupted
+    private static InputStream slow() {
+        return new InputStream() {
+            @Override public int read() throws InterruptedIOException {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("interrupted");
+                }
+                return 'a';
+            }
+        };
+    }
+
+    private void awaitTimeouts(int expected) throws InterruptedException {
+        // the caller sees the cancellation before the watchdog has finished counting it
+        for (int i = 0; i < 100 && timeouts() < expected; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(timeouts()).isEqualTo(expected);
+    }
+
+    private double timeouts() {
+        return meters.get("insightweave.extraction.timeouts").counter().count();
+    }
+
+    private double overrunning() {
+        return meters.get("insightweave.extraction.overrunning").gauge().value();
+    }
+
+    private long parses(String outcome) {
+        return meters.get("insightweave.extraction.parse").tag("outcome", outcome).timer().count();
+    }
+}
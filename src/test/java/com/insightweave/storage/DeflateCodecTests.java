@@ -0,0 +1,57 @@
+package com.insightweave.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeflateCodecTests {
+
+    private static final String TEXT = "Quarterly report — revenue grew 12 %, Übersicht, 日本語. ".repeat(2000);
+
+    @Test
+    void compressesAndRoundTripsUnicodeText() {
+        byte[] compressed = DeflateCodec.compress(TEXT, 6);
+
+        assertThat(compressed.length).isLessThan(TEXT.getBytes(StandardCharsets.UTF_8).length / 10);
+        assertThat(DeflateCodec.decompress(compressed)).isEqualTo(TEXT);
+    }
+
+    @Test
+    void openStreamsTheUtf8BytesInSmallReads() throws Exception {
+        byte[] expected = TEXT.getBytes(StandardCharsets.UTF_8);
+        byte[] actual = new byte[expected.length];
+
+        try (InputStream in = DeflateCodec.open(DeflateCodec.compress(TEXT, 1))) {
+            int pos = 0;
+            byte[] buf = new byte[7];
+            for (int n; (n = in.read(buf)) != -1; pos += n) {
+                System.arraycopy(buf, 0, actual, pos, n);
+            }
+            assertThat(pos).isEqualTo(expected.length);
+        }
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void openStreamCanBeClosedTwiceAndNotReadAfterwards() throws Exception {
+        InputStream in = DeflateCodec.open(DeflateCodec.compress("short", 6));
+        assertThat(in.read()).isEqualTo('s');
+
+        in.close();
+        in.close();
+
+        assertThatThrownBy(in::read).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void corruptDataFailsLoudly() {
+        assertThatThrownBy(() -> DeflateCodec.decompress(new byte[] {1, 2, 3, 4}))
+                .isInstanceOf(UncheckedIOException.class);
+    }
+}
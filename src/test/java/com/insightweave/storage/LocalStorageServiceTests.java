@@ -0,0 +1,210 @@
+package com.insightweave.storage;
+
+import com.insightweave.entity.FileAsset;
+import com.insightweave.service.FileAssetService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Reference-counted blobs in content-addressed mode, and keys from either mode. */
+class LocalStorageServiceTests {
+
+    private static final byte[] REPORT = "quarterly report".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir Path dir;
+
+    @Test
+    void identicalUploadsShareOneBlobUnderDistinctKeys() throws Exception {
+        var storage = storage("content-addressed");
+
+        var first = storage.save(new ByteArrayInputStream(REPORT), "a.txt", "text/plain");
+        var second = storage.save(new ByteArrayInputStream(REPORT), "b.txt", "text/plain");
+
+        assertThat(first.key()).isNotEqualTo(second.key()).startsWith("cas/" + first.sha256() + "/");
+        assertThat(second.sha256()).isEqualTo(first.sha256());
+        assertThat(blobs()).hasSize(1);
+        assertThat(refs(first.sha256())).isEqualTo(2);
+        assertThat(storage.loadAsResource(second.key()).getContentAsByteArray()).isEqualTo(REPORT);
+    }
+
+    @Test
+    void bytesGoWithTheLastReference() throws Exception {
+        var storage = storage("content-addressed");
+        var first = storage.save(new ByteArrayInputStream(REPORT), "a.txt", "text/plain");
+        var second = storage.save(new ByteArrayInputStream(REPORT), "b.txt", "text/plain");
+
+        assertThat(storage.delete(first.key())).isFalse();
+        assertThat(refs(first.sha256())).isEqualTo(1);
+        assertThat(storage.loadAsResource(second.key()).getContentAsByteArray()).isEqualTo(REPORT);
+
+        assertThat(storage.delete(second.key())).isTrue();
+        assertThat(blobs()).isEmpty();
+        assertThatThrownBy(() -> storage.loadAsResource(second.key())).isInstanceOf(NoSuchFileException.class);
+        // a stray second delete neither fails nor drives the count negative
+        assertThat(storage.delete(second.key())).isFalse();
+        var again = storage.save(new ByteArrayInputStream(REPORT), "c.txt", "text/plain");
+        assertThat(refs(again.sha256())).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentSavesAndDeletesKeepTheCountExact() throws Exception {
+        var storage = storage("content-addressed");
+        var kept = storage.save(new ByteArrayInputStream(REPORT), "kept.txt", "text/plain");
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                tasks.add(executor.submit(() -> {
+                    var s = storage.save(new ByteArrayInputStream(REPORT), "x.txt", "text/plain");
+                    return storage.delete(s.key());
+                }));
+            }
+            for (Future<?> task : tasks) task.get();
+        }
+
+        assertThat(refs(kept.sha256())).isEqualTo(1);
+        assertThat(storage.loadAsResource(kept.key()).getContentAsByteArray()).isEqualTo(REPORT);
+    }
+
+    @Test
+    void instancesSharingTheDirectoryKeepTheCountExact() throws Exception {
+        var one = storage("content-addressed");
+        var other = storage("content-addressed");
+        var kept = one.save(new ByteArrayInputStream(REPORT), "kept.txt", "text/plain");
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                var saving = i % 2 == 0 ? one : other;
+                var deleting = i % 2 == 0 ? other : one;
+                tasks.add(executor.submit(() -> {
+                    var s = saving.save(new ByteArrayInputStream(REPORT), "x.txt", "text/plain");
+                    return deleting.delete(s.key());
+                }));
+            }
+            for (Future<?> task : tasks) task.get();
+        }
+
+        assertThat(refs(kept.sha256())).isEqualTo(1);
+        assertThat(other.loadAsResource(kept.key()).getContentAsByteArray()).isEqualTo(REPORT);
+    }
+
+    @Test
+    void uuidKeysStayReadableAndDeletableInContentAddressedMode() throws Exception {
+        var stored = storage("uuid").save(new ByteArrayInputStream(REPORT), "a.txt", "text/plain");
+        var storage = storage("content-addressed");
+
+        assertThat(stored.key()).endsWith(".txt").doesNotStartWith("cas/");
+        assertThat(storage.loadAsResource(stored.key()).getContentAsByteArray()).isEqualTo(REPORT);
+        assertThat(storage.delete(stored.key())).isTrue();
+        assertThat(Files.exists(dir.resolve(stored.key()))).isFalse();
+    }
+
+    @Test
+    void fileDeletesDropAReferenceOnlyOnceTheTransactionCommits() throws Exception {
+        var storage = storage("content-addressed");
+        var files = new FileAssetService(storage, null, null, null);
+        var tx = new TransactionTemplate(new DataSourceTransactionManager(
+                new DriverManagerDataSource("jdbc:h2:mem:storage-refs;DB_CLOSE_DELAY=-1")));
+        var kept = storage.save(new ByteArrayInputStream(REPORT), "a.txt", "text/plain");
+        var deleted = storage.save(new ByteArrayInputStream(REPORT), "b.txt", "text/plain");
+        FileAsset asset = FileAsset.builder().storageKey(deleted.key()).build();
+
+        tx.executeWithoutResult(status -> {
+            files.deleteStoredBytes(asset);
+            status.setRollbackOnly();
+        });
+        assertThat(refs(deleted.sha256())).isEqualTo(2);
+
+        tx.executeWithoutResult(status -> {
+            files.deleteStoredBytes(asset);
+            assertThat(refs(deleted.sha256())).isEqualTo(2);
+        });
+        assertThat(refs(deleted.sha256())).isEqualTo(1);
+        assertThat(storage.loadAsResource(kept.key()).getContentAsByteArray()).isEqualTo(REPORT);
+    }
+
+    @Test
+    void aRolledBackUploadGivesItsReferenceBack() throws Exception {
+        var storage = storage("content-addressed");
+        var files = new FileAssetService(storage, null, null, null);
+        var tx = new TransactionTemplate(new DataSourceTransactionManager(
+                new DriverManagerDataSource("jdbc:h2:mem:storage-refs;DB_CLOSE_DELAY=-1")));
+        var kept = storage.save(new ByteArrayInputStream(REPORT), "a.txt", "text/plain");
+
+        tx.executeWithoutResult(status -> {
+            files.deleteStoredBytesOnRollback(save(storage).key());
+            status.setRollbackOnly();
+        });
+        assertThat(refs(kept.sha256())).isEqualTo(1);
+
+        tx.executeWithoutResult(status -> files.deleteStoredBytesOnRollback(save(storage).key()));
+        assertThat(refs(kept.sha256())).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsKeysThatAreNotADigest() {
+        var storage = storage("content-addressed");
+
+        assertThatThrownBy(() -> storage.delete("cas/../../etc/passwd")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private LocalStorageService storage(String mode) {
+        var storage = new LocalStorageService(new SimpleMeterRegistry());
+        storage.uploadDir = dir.toString();
+        storage.mode = mode;
+        try {
+            storage.init();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return storage;
+    }
+
+    private static StorageService.Stored save(LocalStorageService storage) {
+        try {
+            return storage.save(new ByteArrayInputStream(REPORT), "b.txt", "text/plain");
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<Path> blobs() throws Exception {
+        Path root = dir.resolve("blobs");
+        if (!Files.exists(root)) return List.of();
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(p -> !p.toString().endsWith(".refs") && !p.getFileName().toString().equals(".lock"))
+                    .toList();
+        }
+    }
+
+    private long refs(String digest) {
+        Path refs = dir.resolve("blobs").resolve(digest.substring(0, 2)).resolve(digest.substring(2, 4))
+                .resolve(digest + ".refs");
+        try {
+            return Long.parseLong(Files.readString(refs).trim());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}